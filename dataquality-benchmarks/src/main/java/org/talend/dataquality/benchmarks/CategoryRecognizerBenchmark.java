@@ -0,0 +1,147 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.benchmarks;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.util.CharArraySet;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.talend.dataquality.semantic.api.DictionaryUtils;
+import org.talend.dataquality.semantic.classifier.custom.UDCategorySerDeser;
+import org.talend.dataquality.semantic.model.DQCategory;
+import org.talend.dataquality.semantic.recognizer.CategoryRecognizer;
+import org.talend.dataquality.semantic.recognizer.CategoryRecognizerBuilder;
+
+/**
+ * Throughput of <code>DefaultCategoryRecognizer.process</code>, in values per second.<br>
+ * The recognizer searches synthetic dictionary and keyword indexes built in memory (so that the benchmark does not
+ * depend on the size of the packaged indexes) and uses the packaged regex classifiers. The values mix dictionary
+ * hits, keyword hits, regex matches and unknown values, with more distinct values than the recognizer cache holds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CategoryRecognizerBenchmark {
+
+    private static final int CATEGORY_COUNT = 20;
+
+    private static final int WORDS_PER_CATEGORY = 500;
+
+    private static final int VALUE_COUNT = 5000;
+
+    private CategoryRecognizer recognizer;
+
+    private String[] values;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        Map<String, DQCategory> metadata = new HashMap<>();
+        String[][] dictionary = new String[CATEGORY_COUNT][WORDS_PER_CATEGORY];
+        Directory dictionaryDirectory = new RAMDirectory();
+        try (IndexWriter writer = newWriter(dictionaryDirectory)) {
+            for (int c = 0; c < CATEGORY_COUNT; c++) {
+                String categoryId = "BENCHMARK_CATEGORY_" + c;
+                DQCategory category = new DQCategory(categoryId);
+                category.setName(categoryId);
+                category.setLabel("Benchmark category " + c);
+                metadata.put(categoryId, category);
+                for (int w = 0; w < WORDS_PER_CATEGORY; w++) {
+                    String word = SyntheticData.word(random);
+                    dictionary[c][w] = word;
+                    writer.addDocument(DictionaryUtils.generateDocument(categoryId + '_' + w, categoryId, word,
+                            Collections.singleton(word)));
+                }
+            }
+        }
+        Directory keywordDirectory = new RAMDirectory();
+        Directory customDirectory = new RAMDirectory();
+        try (IndexWriter keywordWriter = newWriter(keywordDirectory);
+                IndexWriter customWriter = newWriter(customDirectory)) {
+            for (int c = 0; c < CATEGORY_COUNT; c++) {
+                String categoryId = "BENCHMARK_CATEGORY_" + c;
+                keywordWriter.addDocument(DictionaryUtils.generateDocument("KW_" + c, categoryId, dictionary[c][0],
+                        Collections.singleton("rue " + dictionary[c][0])));
+            }
+            // the custom dictionary is searched for modified categories only, none here.
+            customWriter.addDocument(DictionaryUtils.generateDocument("CUSTOM", "BENCHMARK_CATEGORY_0",
+                    dictionary[0][0], Collections.singleton(dictionary[0][0])));
+        }
+
+        recognizer = CategoryRecognizerBuilder.newBuilder().metadata(metadata).ddDirectory(dictionaryDirectory)
+                .ddCustomDirectory(customDirectory).kwDirectory(keywordDirectory)
+                .regexClassifier(UDCategorySerDeser.getRegexClassifier()).lucene().build();
+
+        values = new String[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            switch (random.nextInt(5)) {
+            case 0:
+            case 1:
+                values[i] = dictionary[random.nextInt(CATEGORY_COUNT)][random.nextInt(WORDS_PER_CATEGORY)];
+                break;
+            case 2:
+                values[i] = random.nextInt(100) + " rue " + dictionary[random.nextInt(CATEGORY_COUNT)][0];
+                break;
+            case 3:
+                values[i] = SyntheticData.word(random).toLowerCase() + '.' + random.nextInt(1000) + "@example.com";
+                break;
+            default:
+                values[i] = SyntheticData.word(random) + ' ' + SyntheticData.word(random);
+            }
+        }
+    }
+
+    private static IndexWriter newWriter(Directory directory) throws IOException {
+        return new IndexWriter(directory,
+                new IndexWriterConfig(Version.LATEST, new StandardAnalyzer(CharArraySet.EMPTY_SET)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        recognizer.end();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void process(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(recognizer.process(value));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.talend.dataquality.statistics.datetime.SystemDateTimePatternManager;
+
+/**
+ * Throughput of the date and time detection of {@link SystemDateTimePatternManager}, in values per second. Both
+ * methods go through <code>isDateTime</code>, which matches the value against the system pattern regexes before
+ * parsing it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateTimePatternBenchmark {
+
+    private static final int VALUE_COUNT = 2000;
+
+    private String[] dates;
+
+    private String[] texts;
+
+    @Setup
+    public void setUp() {
+        dates = SyntheticData.dates(VALUE_COUNT, 42);
+        String[] words = SyntheticData.words(VALUE_COUNT, 42);
+        texts = new String[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            texts[i] = words[i] + " " + words[(i + 1) % VALUE_COUNT];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void isDate(Blackhole blackhole) {
+        for (String value : dates) {
+            blackhole.consume(SystemDateTimePatternManager.isDate(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void isTime(Blackhole blackhole) {
+        for (String value : dates) {
+            blackhole.consume(SystemDateTimePatternManager.isTime(value));
+        }
+    }
+
+    /**
+     * Values which are not dates at all are the common case of a profiling job and should be rejected quickly.
+     */
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void isDateOnText(Blackhole blackhole) {
+        for (String value : texts) {
+            blackhole.consume(SystemDateTimePatternManager.isDate(value));
+        }
+    }
+}
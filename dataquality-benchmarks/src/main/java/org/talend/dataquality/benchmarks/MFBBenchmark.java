@@ -0,0 +1,119 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.talend.dataquality.matchmerge.Attribute;
+import org.talend.dataquality.matchmerge.MatchMergeAlgorithm;
+import org.talend.dataquality.matchmerge.Record;
+import org.talend.dataquality.matchmerge.SubString;
+import org.talend.dataquality.matchmerge.mfb.MFB;
+import org.talend.dataquality.record.linkage.attribute.IAttributeMatcher;
+import org.talend.dataquality.record.linkage.constant.AttributeMatcherType;
+import org.talend.dataquality.record.linkage.utils.SurvivorShipAlgorithmEnum;
+
+/**
+ * Throughput of the {@link MFB} match and merge loop, in records per second, on person records (first name, last
+ * name, city, birth date) of which a share are duplicates with typos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MFBBenchmark {
+
+    private static final int RECORD_COUNT = 1000;
+
+    private static final String[] LABELS = { "firstName", "lastName", "city", "birthDate" };
+
+    @Param({ "JARO_WINKLER", "LEVENSHTEIN", "DOUBLE_METAPHONE" })
+    private AttributeMatcherType nameMatcher;
+
+    private String[][] people;
+
+    private MatchMergeAlgorithm algorithm;
+
+    @Setup
+    public void setUp() {
+        people = SyntheticData.people(RECORD_COUNT, 0.3, 42);
+        algorithm = MFB.build(
+                new AttributeMatcherType[] { nameMatcher, nameMatcher, AttributeMatcherType.EXACT,
+                        AttributeMatcherType.EXACT },
+                new String[] { "", "", "", "" }, new float[] { 0.8f, 0.8f, 1, 1 }, 0.85,
+                new SurvivorShipAlgorithmEnum[] { SurvivorShipAlgorithmEnum.LONGEST, SurvivorShipAlgorithmEnum.LONGEST,
+                        SurvivorShipAlgorithmEnum.MOST_COMMON, SurvivorShipAlgorithmEnum.MOST_COMMON },
+                new String[] { "", "", "", "" }, new double[] { 1, 1, 1, 1 },
+                new IAttributeMatcher.NullOption[] { IAttributeMatcher.NullOption.nullMatchNone,
+                        IAttributeMatcher.NullOption.nullMatchNone, IAttributeMatcher.NullOption.nullMatchNone,
+                        IAttributeMatcher.NullOption.nullMatchNone },
+                new SubString[] { SubString.NO_SUBSTRING, SubString.NO_SUBSTRING, SubString.NO_SUBSTRING,
+                        SubString.NO_SUBSTRING },
+                "MFB"); //$NON-NLS-1$
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public List<Record> execute() {
+        // records are merged in place, new ones are created for each invocation.
+        return algorithm.execute(new PeopleIterator(people));
+    }
+
+    private static class PeopleIterator implements Iterator<Record> {
+
+        private final String[][] people;
+
+        private int index;
+
+        PeopleIterator(String[][] people) {
+            this.people = people;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < people.length;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Attribute> attributes = new ArrayList<>(LABELS.length);
+            for (int i = 0; i < LABELS.length; i++) {
+                attributes.add(new Attribute(LABELS[i], i, people[index][i]));
+            }
+            Record record = new Record(attributes, String.valueOf(index), index, "MFB"); //$NON-NLS-1$
+            index++;
+            return record;
+        }
+    }
+}
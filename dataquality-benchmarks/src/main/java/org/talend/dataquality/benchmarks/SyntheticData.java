@@ -0,0 +1,172 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates the datasets of the benchmarks. Values are built from a seeded {@link Random} so that every run of a
+ * benchmark works on exactly the same data, without any file to download or ship.
+ */
+public final class SyntheticData {
+
+    private static final String[] SYLLABLES = { "ba", "be", "ca", "co", "da", "de", "el", "fa", "ga", "go", "in", "la",
+            "le", "ma", "mi", "na", "no", "or", "pa", "ri", "ro", "sa", "si", "ta", "to", "va", "vi", "za" };
+
+    private static final String[] DATE_PATTERNS = { "yyyy-MM-dd", "dd/MM/yyyy", "MM/dd/yyyy", "M/d/yy", "d MMM yyyy",
+            "yyyyMMdd", "dd.MM.yyyy", "EEE, d MMM yyyy", "yyyy-MM-dd HH:mm:ss", "MMMM d, yyyy h:mm a" };
+
+    private static final String[] TIME_PATTERNS = { "HH:mm", "HH:mm:ss", "h:mm a", "HH:mm:ss.SSS" };
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1950, 1, 1, 0, 0);
+
+    private SyntheticData() {
+        // no instance
+    }
+
+    /**
+     * @return a random word of 2 to 4 syllables, capitalized.
+     */
+    public static String word(Random random) {
+        int syllableCount = 2 + random.nextInt(3);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllableCount; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+
+    /**
+     * @return <code>count</code> distinct-ish words.
+     */
+    public static String[] words(int count, long seed) {
+        Random random = new Random(seed);
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = word(random);
+        }
+        return words;
+    }
+
+    /**
+     * @return a date time formatted with one of the common date patterns.
+     */
+    public static String date(Random random) {
+        LocalDateTime dateTime = EPOCH.plusMinutes(random.nextInt(80 * 365 * 24 * 60));
+        String pattern = DATE_PATTERNS[random.nextInt(DATE_PATTERNS.length)];
+        return DateTimeFormatter.ofPattern(pattern, Locale.US).format(dateTime);
+    }
+
+    /**
+     * @return a time formatted with one of the common time patterns.
+     */
+    public static String time(Random random) {
+        LocalTime time = LocalTime.ofSecondOfDay(random.nextInt(24 * 60 * 60));
+        String pattern = TIME_PATTERNS[random.nextInt(TIME_PATTERNS.length)];
+        return DateTimeFormatter.ofPattern(pattern, Locale.US).format(time);
+    }
+
+    /**
+     * @return values of a column of dates written with several patterns, plus a share of values looking like dates
+     * but which are not (invalid days, text, numbers).
+     */
+    public static String[] dates(int count, long seed) {
+        Random random = new Random(seed);
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            switch (random.nextInt(10)) {
+            case 0:
+                values[i] = word(random) + ' ' + random.nextInt(10000);
+                break;
+            case 1:
+                values[i] = String.format("%04d-%02d-%02d", 1900 + random.nextInt(200), 1 + random.nextInt(12),
+                        32 + random.nextInt(60));
+                break;
+            case 2:
+                values[i] = time(random);
+                break;
+            default:
+                values[i] = date(random);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return values of all the types inferred by the type analyzer: empty, boolean, integer, double, date, time and
+     * string, with realistic proportions (mostly strings and numbers).
+     */
+    public static String[] mixedValues(int count, long seed) {
+        Random random = new Random(seed);
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(20);
+            if (kind == 0) {
+                values[i] = random.nextBoolean() ? "" : " ";
+            } else if (kind == 1) {
+                values[i] = random.nextBoolean() ? "true" : "FALSE";
+            } else if (kind < 6) {
+                values[i] = String.valueOf(random.nextInt(1000000) - 1000);
+            } else if (kind < 9) {
+                values[i] = String.format(Locale.US, "%.2f", random.nextDouble() * 10000);
+            } else if (kind == 9) {
+                values[i] = String.format(Locale.US, "%,.3f", random.nextDouble() * 10000000);
+            } else if (kind < 12) {
+                values[i] = date(random);
+            } else if (kind == 12) {
+                values[i] = time(random);
+            } else if (kind < 16) {
+                values[i] = word(random);
+            } else {
+                values[i] = word(random) + ' ' + word(random) + ' ' + random.nextInt(100);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return person like records (first name, last name, city, birth date) where about <code>duplicateRate</code> of
+     * the records are copies of a previous record with a few typos.
+     */
+    public static String[][] people(int count, double duplicateRate, long seed) {
+        Random random = new Random(seed);
+        String[][] records = new String[count][];
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && random.nextDouble() < duplicateRate) {
+                String[] original = records[random.nextInt(i)];
+                records[i] = new String[] { typo(original[0], random), typo(original[1], random), original[2],
+                        original[3] };
+            } else {
+                records[i] = new String[] { word(random), word(random).toUpperCase(Locale.US), word(random),
+                        LocalDate.ofEpochDay(random.nextInt(30000)).toString() };
+            }
+        }
+        return records;
+    }
+
+    private static String typo(String value, Random random) {
+        if (value.length() < 2 || random.nextBoolean()) {
+            return value;
+        }
+        char[] chars = value.toCharArray();
+        int i = 1 + random.nextInt(chars.length - 1);
+        chars[i] = SYLLABLES[random.nextInt(SYLLABLES.length)].charAt(0);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,73 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.talend.dataquality.statistics.type.TypeInferenceUtils;
+
+/**
+ * Throughput of {@link TypeInferenceUtils#getDataType(String)}, in values per second, on a column mixing all the
+ * inferred types.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypeInferenceBenchmark {
+
+    private static final int VALUE_COUNT = 10000;
+
+    private String[] mixedValues;
+
+    private String[] numbers;
+
+    @Setup
+    public void setUp() {
+        mixedValues = SyntheticData.mixedValues(VALUE_COUNT, 42);
+        numbers = new String[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            numbers[i] = i % 2 == 0 ? String.valueOf(i * 7919L) : (i * 7919L) + "." + (i % 100);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void getDataTypeMixed(Blackhole blackhole) {
+        for (String value : mixedValues) {
+            blackhole.consume(TypeInferenceUtils.getDataType(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void getDataTypeNumbers(Blackhole blackhole) {
+        for (String value : numbers) {
+            blackhole.consume(TypeInferenceUtils.getDataType(value));
+        }
+    }
+}
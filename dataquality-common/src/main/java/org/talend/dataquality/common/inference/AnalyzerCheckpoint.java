@@ -0,0 +1,176 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves and restores the per column statistics of an analyzer in a compact, versioned binary format, so that a long
+ * analysis can be checkpointed and resumed, or its partial results shipped to another JVM.<br>
+ * A checkpoint is made of a header (magic number, format version, {@link StatisticsCodec#getTypeId() statistics type}
+ * and number of columns) followed by the statistics of each column encoded by a {@link StatisticsCodec}.<br>
+ * To resume an analysis, call {@link Analyzer#init()} then add the restored statistics to the (empty) list returned
+ * by {@link Analyzer#getResult()} before submitting the remaining records.
+ */
+public final class AnalyzerCheckpoint {
+
+    /** First bytes of every checkpoint. */
+    public static final int MAGIC = 0x54445143; // "TDQC"
+
+    /** Version of the checkpoint format written by this class. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+    private AnalyzerCheckpoint() {
+        // no instance
+    }
+
+    /**
+     * Write the statistics of all columns to <code>out</code>. The stream is flushed but not closed.
+     *
+     * @param out the stream to write to.
+     * @param statistics the statistics of each column, as returned by {@link Analyzer#getResult()}.
+     * @param codec the codec of the statistics type.
+     */
+    public static <T> void write(OutputStream out, List<T> statistics, StatisticsCodec<T> codec) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out));
+        dataOut.writeInt(MAGIC);
+        writeVarLong(dataOut, FORMAT_VERSION);
+        writeString(dataOut, codec.getTypeId());
+        writeVarLong(dataOut, statistics.size());
+        for (T columnStatistics : statistics) {
+            codec.write(columnStatistics, dataOut);
+        }
+        dataOut.flush();
+    }
+
+    /**
+     * Read the statistics of all columns previously written with {@link #write(OutputStream, List, StatisticsCodec)}.
+     * The stream is not closed and is not read past the end of the checkpoint, so that what follows can still be read
+     * from it. As a consequence, the stream is read without any buffering: wrap it in a {@link BufferedInputStream}
+     * beforehand if it is not buffered and nothing else has to be read from it.
+     *
+     * @param in the stream to read from.
+     * @param codec the codec of the statistics type.
+     * @return the statistics of each column.
+     * @throws IOException if the stream is not a checkpoint of <code>codec</code>'s type, or if its format version is
+     * not supported.
+     */
+    public static <T> List<T> read(InputStream in, StatisticsCodec<T> codec) throws IOException {
+        // no buffering here, it would consume the bytes following the checkpoint
+        DataInputStream dataIn = in instanceof DataInputStream ? (DataInputStream) in : new DataInputStream(in);
+        if (dataIn.readInt() != MAGIC) {
+            throw new IOException("Not an analyzer checkpoint.");
+        }
+        long version = readVarLong(dataIn);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported checkpoint format version: " + version);
+        }
+        String typeId = readString(dataIn);
+        if (!codec.getTypeId().equals(typeId)) {
+            throw new IOException("Checkpoint contains statistics of type '" + typeId + "' instead of '"
+                    + codec.getTypeId() + "'.");
+        }
+        int size = (int) readVarLong(dataIn);
+        List<T> statistics = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            statistics.add(codec.read(dataIn));
+        }
+        return statistics;
+    }
+
+    /**
+     * Write a positive long in 1 to 10 bytes, 7 bits at a time.
+     */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    /**
+     * Read a long written with {@link #writeVarLong(DataOutput, long)}.
+     */
+    public static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length long.");
+    }
+
+    /**
+     * Write a string of any length (<code>null</code> allowed) as UTF-8 bytes preceded by their count.
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string written with {@link #writeString(DataOutput, String)}.
+     */
+    public static String readString(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Write a byte array preceded by its length.
+     */
+    public static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a byte array written with {@link #writeBytes(DataOutput, byte[])}.
+     */
+    public static byte[] readBytes(DataInput in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,146 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Call count and time spent by an analyzer wrapped in an {@link InstrumentedAnalyzer}. Times are wall clock times
+ * measured around each call, they include the time spent by the analyzer in its own sub-analyzers.
+ *
+ * @see #of(Analyzer)
+ */
+public final class AnalyzerMetrics implements Serializable {
+
+    private static final long serialVersionUID = -4215637346826203614L;
+
+    private final String analyzerName;
+
+    private long analyzeCallCount;
+
+    private long recordCount;
+
+    private long analyzeTimeNanos;
+
+    private long endTimeNanos;
+
+    AnalyzerMetrics(String analyzerName) {
+        this.analyzerName = analyzerName;
+    }
+
+    /**
+     * Get the metrics of an analyzer created with {@link InstrumentedAnalyzer#wrap(Analyzer)}, or of the instrumented
+     * members of an {@link Analyzers} composite (see {@link Analyzers#withMetrics(Analyzer...)}).
+     *
+     * @param analyzer An analyzer.
+     * @return The metrics of each instrumented analyzer, an empty list if <code>analyzer</code> is not instrumented.
+     */
+    public static List<AnalyzerMetrics> of(Analyzer<?> analyzer) {
+        if (analyzer instanceof InstrumentedAnalyzer) {
+            return Collections.singletonList(((InstrumentedAnalyzer<?>) analyzer).getMetrics());
+        }
+        if (analyzer instanceof Analyzers) {
+            List<AnalyzerMetrics> metrics = new ArrayList<>();
+            for (Analyzer<?> member : ((Analyzers) analyzer).getAnalyzers()) {
+                metrics.addAll(of(member));
+            }
+            return metrics;
+        }
+        return Collections.emptyList();
+    }
+
+    void recordAnalyze(int records, long nanos) {
+        analyzeCallCount++;
+        recordCount += records;
+        analyzeTimeNanos += nanos;
+    }
+
+    void recordEnd(long nanos) {
+        endTimeNanos += nanos;
+    }
+
+    void reset() {
+        analyzeCallCount = 0;
+        recordCount = 0;
+        analyzeTimeNanos = 0;
+        endTimeNanos = 0;
+    }
+
+    /**
+     * @return The metrics of both this and <code>another</code>, as a new instance.
+     */
+    public AnalyzerMetrics merge(AnalyzerMetrics another) {
+        AnalyzerMetrics merged = new AnalyzerMetrics(analyzerName);
+        merged.analyzeCallCount = analyzeCallCount + another.analyzeCallCount;
+        merged.recordCount = recordCount + another.recordCount;
+        merged.analyzeTimeNanos = analyzeTimeNanos + another.analyzeTimeNanos;
+        merged.endTimeNanos = endTimeNanos + another.endTimeNanos;
+        return merged;
+    }
+
+    /**
+     * @return The simple class name of the instrumented analyzer.
+     */
+    public String getAnalyzerName() {
+        return analyzerName;
+    }
+
+    /**
+     * @return The number of calls to <code>analyze</code> and <code>analyzeColumns</code>.
+     */
+    public long getAnalyzeCallCount() {
+        return analyzeCallCount;
+    }
+
+    /**
+     * @return The number of records analyzed (a call to <code>analyzeColumns</code> counts all rows of the batch).
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return The cumulative time spent in <code>analyze</code> and <code>analyzeColumns</code>, in nanoseconds.
+     */
+    public long getAnalyzeTimeNanos() {
+        return analyzeTimeNanos;
+    }
+
+    /**
+     * @return The time spent in <code>end</code>, in nanoseconds.
+     */
+    public long getEndTimeNanos() {
+        return endTimeNanos;
+    }
+
+    /**
+     * @return The number of records analyzed per second of analysis time, 0 if nothing was analyzed.
+     */
+    public double getRecordsPerSecond() {
+        if (analyzeTimeNanos == 0) {
+            return 0;
+        }
+        return recordCount * (double) TimeUnit.SECONDS.toNanos(1) / analyzeTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return analyzerName + ": " + recordCount + " records in " + analyzeCallCount + " calls, "
+                + TimeUnit.NANOSECONDS.toMillis(analyzeTimeNanos) + " ms (" + Math.round(getRecordsPerSecond())
+                + " records/s), end " + TimeUnit.NANOSECONDS.toMillis(endTimeNanos) + " ms";
+    }
+}
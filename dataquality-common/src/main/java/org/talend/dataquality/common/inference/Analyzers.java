@@ -16,16 +16,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang.NotImplementedException;
 import org.apache.log4j.Logger;
 
 /**
  * Provides a way to combine several {@link Analyzer} together and a
- * {@link org.talend.datascience.common.inference.Analyzers.Result result} that stores all underlying results.
+ * {@link org.talend.datascience.common.inference.Analyzers.Result result} that stores all underlying results.<br>
+ * The combined analyzers which are {@link ParseContextAware} share a {@link CellParseContext}.
  *
  * @see #with(Analyzer[])
  */
-public class Analyzers implements Analyzer<Analyzers.Result> {
+public class Analyzers implements ColumnarAnalyzer<Analyzers.Result>, ParseContextAware {
 
     private static final long serialVersionUID = 3718737129904789140L;
 
@@ -33,10 +33,37 @@ public class Analyzers implements Analyzer<Analyzers.Result> {
 
     private final Analyzer<?>[] analyzerArrays;
 
-    private final ResizableList<Result> results = new ResizableList<>(Result.class);
+    private static final ResizableList.ItemSupplier<Result> RESULT_SUPPLIER = new ResizableList.ItemSupplier<Result>() {
+
+        private static final long serialVersionUID = -6127493010256937466L;
+
+        @Override
+        public Result get() {
+            return new Result();
+        }
+    };
+
+    private final ResizableList<Result> results = new ResizableList<>(RESULT_SUPPLIER);
+
+    private CellParseContext parseContext;
 
     private Analyzers(Analyzer<?>... analyzers) {
         this.analyzerArrays = analyzers;
+        setParseContext(new CellParseContext());
+    }
+
+    /**
+     * Share <code>context</code> with all the underlying analyzers which are {@link ParseContextAware}, so that each
+     * cell of a record is parsed once for all of them. Called with a new context at creation.
+     */
+    @Override
+    public void setParseContext(CellParseContext context) {
+        this.parseContext = context;
+        for (Analyzer<?> analyzer : analyzerArrays) {
+            if (analyzer instanceof ParseContextAware) {
+                ((ParseContextAware) analyzer).setParseContext(context);
+            }
+        }
     }
 
     /**
@@ -49,6 +76,25 @@ public class Analyzers implements Analyzer<Analyzers.Result> {
         return new Analyzers(analyzers);
     }
 
+    /**
+     * Same as {@link #with(Analyzer[])}, each analyzer being {@link InstrumentedAnalyzer#wrap(Analyzer) instrumented}
+     * to find out which one takes the most time. Get the measures with {@link AnalyzerMetrics#of(Analyzer)}.
+     *
+     * @param analyzers The analyzers to be combined together.
+     * @return A single analyzer that ensure all underlying analyzers get called and measured.
+     */
+    public static Analyzer<Analyzers.Result> withMetrics(Analyzer<?>... analyzers) {
+        final Analyzer<?>[] instrumented = new Analyzer<?>[analyzers.length];
+        for (int i = 0; i < analyzers.length; i++) {
+            instrumented[i] = InstrumentedAnalyzer.wrap(analyzers[i]);
+        }
+        return new Analyzers(instrumented);
+    }
+
+    Analyzer<?>[] getAnalyzers() {
+        return analyzerArrays;
+    }
+
     @Override
     public void init() {
         for (Analyzer<?> analyzer : analyzerArrays) {
@@ -66,6 +112,64 @@ public class Analyzers implements Analyzer<Analyzers.Result> {
         return result;
     }
 
+    /**
+     * Analyze a batch with each underlying analyzer in turn. The parse context keeps the cells parsed by an analyzer
+     * for the whole batch (see {@link CellParseContext#setRow(int)}), so that each cell is still parsed once for all
+     * the analyzers.
+     */
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        boolean result = true;
+        results.resize(columns.length);
+        try {
+            for (Analyzer<?> analyzer : analyzerArrays) {
+                result &= analyzeColumns(analyzer, columns, rowCount, parseContext);
+            }
+        } finally {
+            if (parseContext != null) {
+                parseContext.setRow(0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Analyze a batch of records given as columns with the provided analyzer. If the analyzer is a
+     * {@link ColumnarAnalyzer}, the batch is handed over as is, otherwise each row is submitted with
+     * {@link Analyzer#analyze(String...)} (the same row array is reused from one row to the next).
+     *
+     * @param analyzer The analyzer to feed.
+     * @param columns The values of the batch, <code>columns[c][r]</code> is the value of column <i>c</i> in row
+     * <i>r</i>.
+     * @param rowCount The number of rows in the batch.
+     * @return <code>true</code> if analyze was ok for all rows, <code>false</code> otherwise.
+     */
+    public static boolean analyzeColumns(Analyzer<?> analyzer, String[][] columns, int rowCount) {
+        return analyzeColumns(analyzer, columns, rowCount, null);
+    }
+
+    /**
+     * Same as {@link #analyzeColumns(Analyzer, String[][], int)}, the row of <code>context</code> is set before each
+     * row is submitted to an analyzer which is not a {@link ColumnarAnalyzer}.
+     */
+    static boolean analyzeColumns(Analyzer<?> analyzer, String[][] columns, int rowCount, CellParseContext context) {
+        if (analyzer instanceof ColumnarAnalyzer) {
+            return ((ColumnarAnalyzer<?>) analyzer).analyzeColumns(columns, rowCount);
+        }
+        boolean result = true;
+        final String[] record = new String[columns.length];
+        for (int row = 0; row < rowCount; row++) {
+            if (context != null) {
+                context.setRow(row);
+            }
+            for (int col = 0; col < columns.length; col++) {
+                record[col] = columns[col][row];
+            }
+            result &= analyzer.analyze(record);
+        }
+        return result;
+    }
+
     @Override
     public void end() {
         for (Analyzer<?> executor : analyzerArrays) {
@@ -78,6 +182,7 @@ public class Analyzers implements Analyzer<Analyzers.Result> {
         for (Analyzer<?> analyzer : analyzerArrays) {
             final List<?> analysis = analyzer.getResult();
             if (analysis != null) {
+                results.resize(analysis.size());
                 for (int j = 0; j < analysis.size(); j++) {
                     results.get(j).add(analysis.get(j));
                 }
@@ -86,9 +191,56 @@ public class Analyzers implements Analyzer<Analyzers.Result> {
         return results;
     }
 
+    /**
+     * Merge this composite analyzer with another one. Each underlying analyzer is merged with the analyzer at the same
+     * position in <code>another</code>, so that partitions of a data set analyzed separately (in different threads or
+     * processes) can be combined into one {@link Result} per column.
+     * 
+     * @param another An other instance of {@link Analyzers} built with analyzers of the same types in the same order.
+     * @return new analyzer with this and another analyzer merged together.
+     * @throws IllegalArgumentException If <code>another</code> is not an instance of {@link Analyzers}, or if its
+     * analyzers differ in number, type or order.
+     */
     @Override
     public Analyzer<Result> merge(Analyzer<Result> another) {
-        throw new NotImplementedException();
+        if (another == null) {
+            LOGGER.warn("Another analyzer is null, have nothing to merge!");
+            return this;
+        }
+        if (!(another instanceof Analyzers)) {
+            throw new IllegalArgumentException("Wrong type error! Expected type is Analyzers");
+        }
+        final Analyzer<?>[] anotherAnalyzers = ((Analyzers) another).analyzerArrays;
+        if (anotherAnalyzers.length != analyzerArrays.length) {
+            throw new IllegalArgumentException("Unable to merge " + analyzerArrays.length + " analyzers with "
+                    + anotherAnalyzers.length + " analyzers");
+        }
+        final Analyzer<?>[] mergedAnalyzers = new Analyzer<?>[analyzerArrays.length];
+        for (int i = 0; i < analyzerArrays.length; i++) {
+            if (!sameType(analyzerArrays[i], anotherAnalyzers[i])) {
+                throw new IllegalArgumentException("Unable to merge " + analyzerArrays[i].getClass().getName()
+                        + " with " + anotherAnalyzers[i].getClass().getName() + " at position " + i);
+            }
+            mergedAnalyzers[i] = merge(analyzerArrays[i], anotherAnalyzers[i]);
+            if (mergedAnalyzers[i] == analyzerArrays[i]) {
+                // the merged composite sets its own parse context on its analyzers
+                throw new IllegalArgumentException(
+                        analyzerArrays[i].getClass().getName() + " does not return a new analyzer when merged");
+            }
+        }
+        return new Analyzers(mergedAnalyzers);
+    }
+
+    private static boolean sameType(Analyzer<?> analyzer, Analyzer<?> another) {
+        // instrumented analyzers are paired by the type of the analyzer they measure
+        return analyzer.getClass().equals(another.getClass()) && InstrumentedAnalyzer.unwrap(analyzer).getClass()
+                .equals(InstrumentedAnalyzer.unwrap(another).getClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Analyzer<T> merge(Analyzer<T> analyzer, Analyzer<?> another) {
+        // Both analyzers have the same class, hence the same result type.
+        return analyzer.merge((Analyzer<T>) another);
     }
 
     @Override
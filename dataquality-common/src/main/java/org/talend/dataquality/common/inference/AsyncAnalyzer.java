@@ -0,0 +1,306 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.log4j.Logger;
+import org.talend.dataquality.common.exception.DQCommonRuntimeException;
+
+/**
+ * A {@link Analyzer} implementation that decouples the threads submitting records from the analyzers: records are put
+ * in a bounded queue and analyzed by worker threads, each one with its own analyzer.
+ * <ul>
+ * <li>{@link #analyze(String...)} only enqueues a copy of the record and returns, unless the queue is full: producers
+ * then wait for the workers to catch up (backpressure), so memory use stays bounded.</li>
+ * <li>{@link #end()} waits for the queued records to be analyzed, stops the workers and merges their analyzers with
+ * {@link Analyzer#merge(Analyzer)}.</li>
+ * </ul>
+ * The typical call sequence is: {@link #init()} once, {@link #analyze(String...)} or
+ * {@link #analyzeColumns(String[][], int)} from one or several producer threads, then {@link #end()} and
+ * {@link #getResult()} once all producers are done. Analyzers provided by the supplier must implement
+ * {@link Analyzer#merge(Analyzer)} when there is more than one worker.<br>
+ * If an analyzer fails, the remaining records are discarded, {@link #analyze(String...)} returns <code>false</code>
+ * and {@link #end()} throws a {@link DQCommonRuntimeException}.
+ *
+ * @param <T> The type of results built by the underlying analyzers.
+ */
+public class AsyncAnalyzer<T> implements ColumnarAnalyzer<T> {
+
+    private static final long serialVersionUID = 4587307045297574781L;
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncAnalyzer.class);
+
+    private final AnalyzerSupplier<Analyzer<T>> supplier;
+
+    private final int workerCount;
+
+    private final int queueCapacity;
+
+    private transient BlockingQueue<Task> queue;
+
+    private transient List<Worker<T>> workers = new ArrayList<>();
+
+    private transient AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private transient boolean workersDone;
+
+    private Analyzer<T> mergedAnalyzer;
+
+    private AsyncAnalyzer(AnalyzerSupplier<Analyzer<T>> supplier, int workerCount, int queueCapacity) {
+        if (workerCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("At least one worker and a queue capacity of one are required.");
+        }
+        this.supplier = supplier;
+        this.workerCount = workerCount;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Creates an analyzer that analyzes records asynchronously.
+     *
+     * @param supplier The supplier of worker analyzers, called once per worker on {@link #init()}.
+     * @param workerCount The number of worker threads.
+     * @param queueCapacity The maximum number of records (or batches of records) waiting to be analyzed.
+     * @return An analyzer which result is the merge of all worker results.
+     */
+    public static <T> AsyncAnalyzer<T> make(AnalyzerSupplier<Analyzer<T>> supplier, int workerCount,
+            int queueCapacity) {
+        return new AsyncAnalyzer<>(supplier, workerCount, queueCapacity);
+    }
+
+    /**
+     * Starts the worker threads. Workers of a previous analysis are stopped and discarded.
+     */
+    @Override
+    public void init() {
+        stopWorkers();
+        mergedAnalyzer = null;
+        workersDone = false;
+        failure = new AtomicReference<>();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            Analyzer<T> analyzer = supplier.get();
+            analyzer.init();
+            Worker<T> worker = new Worker<>(analyzer, queue, failure);
+            worker.setName("AsyncAnalyzer-worker-" + i); //$NON-NLS-1$
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        for (Worker<T> worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Enqueues a copy of the record, waiting for space in the queue if needed.
+     *
+     * @return <code>false</code> if an analyzer has failed, <code>true</code> otherwise.
+     */
+    @Override
+    public boolean analyze(String... record) {
+        return enqueue(new Task(record.clone(), null, 0));
+    }
+
+    /**
+     * Enqueues a copy of the batch as a single item, waiting for space in the queue if needed.
+     *
+     * @return <code>false</code> if an analyzer has failed, <code>true</code> otherwise.
+     */
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        String[][] copy = new String[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            copy[i] = Arrays.copyOf(columns[i], rowCount);
+        }
+        return enqueue(new Task(null, copy, rowCount));
+    }
+
+    private boolean enqueue(Task task) {
+        if (queue == null) {
+            throw new DQCommonRuntimeException("init() must be called before analyzing records.");
+        }
+        if (failure.get() != null) {
+            return false;
+        }
+        try {
+            queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DQCommonRuntimeException("Interrupted while waiting for analyzers.", e);
+        }
+        return failure.get() == null;
+    }
+
+    /**
+     * Waits for all the queued records to be analyzed, then ends and merges the worker analyzers. Must be called once
+     * all producers are done with {@link #analyze(String...)}.
+     *
+     * @throws DQCommonRuntimeException if an analyzer failed.
+     */
+    @Override
+    public void end() {
+        if (queue == null || mergedAnalyzer != null) {
+            return;
+        }
+        if (!workersDone) {
+            try {
+                for (int i = 0; i < workers.size(); i++) {
+                    queue.put(Task.END);
+                }
+                for (Worker<T> worker : workers) {
+                    worker.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DQCommonRuntimeException("Interrupted while waiting for analyzers.", e);
+            }
+            workersDone = true;
+        }
+        if (failure.get() != null) {
+            throw new DQCommonRuntimeException("Unable to analyze records.", failure.get());
+        }
+        Analyzer<T> merged = null;
+        for (Worker<T> worker : workers) {
+            worker.analyzer.end();
+            merged = merged == null ? worker.analyzer : merged.merge(worker.analyzer);
+        }
+        mergedAnalyzer = merged;
+    }
+
+    /**
+     * @return The merged result of all the workers, {@link #end()} is called first if needed.
+     */
+    @Override
+    public List<T> getResult() {
+        end();
+        if (mergedAnalyzer == null) {
+            // Not initialized.
+            return new ArrayList<>();
+        }
+        return mergedAnalyzer.getResult();
+    }
+
+    @Override
+    public Analyzer<T> merge(Analyzer<T> another) {
+        end();
+        if (mergedAnalyzer == null) {
+            return another;
+        }
+        if (another instanceof AsyncAnalyzer) {
+            AsyncAnalyzer<T> anotherAsync = (AsyncAnalyzer<T>) another;
+            anotherAsync.end();
+            if (anotherAsync.mergedAnalyzer == null) {
+                return mergedAnalyzer;
+            }
+            return mergedAnalyzer.merge(anotherAsync.mergedAnalyzer);
+        }
+        return mergedAnalyzer.merge(another);
+    }
+
+    /**
+     * Stops the workers (records still in the queue are discarded) and closes their analyzers.
+     */
+    @Override
+    public void close() throws Exception {
+        stopWorkers();
+        for (Worker<T> worker : workers) {
+            try {
+                worker.analyzer.close();
+            } catch (Exception e) {
+                LOGGER.error("Unable to close " + worker.analyzer, e);
+            }
+        }
+    }
+
+    private void stopWorkers() {
+        if (workers == null) {
+            // deserialized instance
+            workers = new ArrayList<>();
+        }
+        for (Worker<T> worker : workers) {
+            worker.interrupt();
+        }
+        if (queue != null) {
+            queue.clear();
+        }
+    }
+
+    /**
+     * A record, a batch of records or the end of the analysis.
+     */
+    private static final class Task {
+
+        static final Task END = new Task(null, null, 0);
+
+        final String[] record;
+
+        final String[][] columns;
+
+        final int rowCount;
+
+        Task(String[] record, String[][] columns, int rowCount) {
+            this.record = record;
+            this.columns = columns;
+            this.rowCount = rowCount;
+        }
+    }
+
+    private static final class Worker<T> extends Thread {
+
+        private final Analyzer<T> analyzer;
+
+        private final BlockingQueue<Task> queue;
+
+        private final AtomicReference<Throwable> failure;
+
+        Worker(Analyzer<T> analyzer, BlockingQueue<Task> queue, AtomicReference<Throwable> failure) {
+            this.analyzer = analyzer;
+            this.queue = queue;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Task task;
+                while ((task = queue.take()) != Task.END) {
+                    if (failure.get() != null) {
+                        // drain the queue so that producers are not blocked
+                        continue;
+                    }
+                    try {
+                        if (task.record != null) {
+                            analyzer.analyze(task.record);
+                        } else {
+                            Analyzers.analyzeColumns(analyzer, task.columns, task.rowCount);
+                        }
+                    } catch (Throwable e) {
+                        // errors too, otherwise producers and end() would wait forever for this worker
+                        LOGGER.error("Unable to analyze records in " + getName(), e);
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // stopped by close() or init()
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
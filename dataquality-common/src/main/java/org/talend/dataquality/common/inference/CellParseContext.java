@@ -0,0 +1,168 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers what analyzers parsed out of the cells of the current record, so that analyzers combined with
+ * {@link Analyzers#with(Analyzer...)} parse each cell once: the first analyzer that needs a parsed form of a cell (its
+ * inferred type, its numeric value...) stores it, the next ones read it back.
+ * <p>
+ * Each parsed form is identified by a {@link Key}. For each key, column and row, the context keeps the last parsed
+ * value and the cell it was parsed from. An entry is only returned for the very same cell instance, so the context
+ * never has to be cleared between records and stays correct when analyzers are called outside of {@link Analyzers}.
+ * This requires the parsing of a key to depend on the cell value only.
+ * <p>
+ * A single record uses row 0. When a batch is analyzed column by column (see {@link ColumnarAnalyzer}), each analyzer
+ * completes the whole batch before the next one starts, so the analyzers {@link #setRow(int) select the row} of each
+ * cell they parse: the parsed forms of the whole batch are then available to the next analyzers.
+ * <p>
+ * <b>Important note:</b> This class is <b>NOT</b> thread safe, like the {@link Analyzers} sharing it.
+ *
+ * @see ParseContextAware
+ */
+public class CellParseContext implements Serializable {
+
+    private static final long serialVersionUID = -5218442381264547071L;
+
+    /** Stored for parsing results which are <code>null</code>, e.g. a value which is not a number. */
+    private static final Object NULL_RESULT = new Object();
+
+    private static final Object[] NO_ENTRY = new Object[0];
+
+    private static final Object[][] NO_COLUMN = new Object[0][];
+
+    /** Parsed forms by key, column and row. */
+    private transient Object[][][] results = new Object[0][][];
+
+    /** Cells of the parsed forms by key, column and row. */
+    private transient String[][][] cells = new String[0][][];
+
+    private transient int row;
+
+    /**
+     * Identifies one parsed form of a cell.
+     *
+     * @param <V> The type of the parsed form.
+     */
+    public static final class Key<V> {
+
+        private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+        private final int index;
+
+        private final String name;
+
+        private Key(String name) {
+            this.index = NEXT_INDEX.getAndIncrement();
+            this.name = name;
+        }
+
+        /**
+         * @param name a description of the parsed form, for debugging purpose.
+         * @return a new key, usually kept in a constant.
+         */
+        public static <V> Key<V> create(String name) {
+            return new Key<>(name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Select the row of the batch the next calls refer to, until the next call of this method. Analyzers processing a
+     * batch column by column call it for each cell, {@link Analyzers} calls it for each row of the batch submitted to
+     * the other analyzers. Entries are matched by cell instance whatever the row, so a wrong row only prevents sharing.
+     *
+     * @param row The row of the next cells in the batch, 0 for single records.
+     */
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    /**
+     * @return <code>true</code> if a parsed form of this very <code>cell</code> instance is available for the column,
+     * even if it is <code>null</code>.
+     */
+    public boolean contains(Key<?> key, int column, String cell) {
+        return cell != null && lookup(key, column, cell) != null;
+    }
+
+    /**
+     * @return the parsed form of this very <code>cell</code> instance in the column, or <code>null</code> if it has not
+     * been stored (or is <code>null</code>, see {@link #contains(Key, int, String)}).
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Key<V> key, int column, String cell) {
+        Object result = cell == null ? null : lookup(key, column, cell);
+        return result == NULL_RESULT ? null : (V) result;
+    }
+
+    /**
+     * Store the parsed form of <code>cell</code> in the column. Nothing is stored for <code>null</code> cells.
+     */
+    public <V> void put(Key<V> key, int column, String cell, V parsed) {
+        if (cell == null || column < 0 || row < 0) {
+            return;
+        }
+        ensureCapacity(key.index, column, row);
+        results[key.index][column][row] = parsed == null ? NULL_RESULT : parsed;
+        cells[key.index][column][row] = cell;
+    }
+
+    private Object lookup(Key<?> key, int column, String cell) {
+        if (results == null || key.index >= results.length || column < 0 || column >= results[key.index].length
+                || row < 0 || row >= results[key.index][column].length) {
+            return null;
+        }
+        return cells[key.index][column][row] == cell ? results[key.index][column][row] : null;
+    }
+
+    private void ensureCapacity(int keyIndex, int column, int row) {
+        if (results == null) {
+            // deserialized context
+            results = new Object[0][][];
+            cells = new String[0][][];
+        }
+        if (keyIndex >= results.length) {
+            int oldLength = results.length;
+            results = Arrays.copyOf(results, keyIndex + 1);
+            cells = Arrays.copyOf(cells, keyIndex + 1);
+            for (int i = oldLength; i < results.length; i++) {
+                results[i] = NO_COLUMN;
+                cells[i] = new String[0][];
+            }
+        }
+        if (column >= results[keyIndex].length) {
+            int oldLength = results[keyIndex].length;
+            int length = Math.max(column + 1, oldLength * 2);
+            results[keyIndex] = Arrays.copyOf(results[keyIndex], length);
+            cells[keyIndex] = Arrays.copyOf(cells[keyIndex], length);
+            for (int i = oldLength; i < length; i++) {
+                results[keyIndex][i] = NO_ENTRY;
+                cells[keyIndex][i] = new String[0];
+            }
+        }
+        if (row >= results[keyIndex][column].length) {
+            int length = Math.max(row + 1, results[keyIndex][column].length * 2);
+            results[keyIndex][column] = Arrays.copyOf(results[keyIndex][column], length);
+            cells[keyIndex][column] = Arrays.copyOf(cells[keyIndex][column], length);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+/**
+ * An {@link Analyzer} that can also analyze a batch of records given column by column. This avoids allocating one
+ * array per record and lets implementations loop over the values of a column at once.<br>
+ * Analyzing a batch must give the same result as calling {@link #analyze(String...)} for each row of the batch. Use
+ * {@link Analyzers#analyzeColumns(Analyzer, String[][], int)} to feed a batch to any analyzer, whether it implements
+ * this interface or not.
+ *
+ * @param <T> The type of results built by the implementation.
+ */
+public interface ColumnarAnalyzer<T> extends Analyzer<T> {
+
+    /**
+     * Analyze a batch of records (rows) given as columns.
+     *
+     * @param columns The values of the batch, <code>columns[c][r]</code> is the value of column <i>c</i> in row
+     * <i>r</i>. Each column array holds at least <code>rowCount</code> values, values beyond <code>rowCount</code> are
+     * ignored.
+     * @param rowCount The number of rows in the batch.
+     * @return <code>true</code> if analyze was ok, <code>false</code> otherwise.
+     */
+    boolean analyzeColumns(String[][] columns, int rowCount);
+}
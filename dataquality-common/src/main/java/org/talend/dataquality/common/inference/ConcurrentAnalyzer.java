@@ -21,7 +21,9 @@ import org.talend.dataquality.common.exception.DQCommonRuntimeException;
 
 /**
  * A {@link Analyzer} implementation that allows use of an Analyzer pool by several threads. Please note analyzer
- * instance is <b>only</b> returned to the pool on {@link #close()} call.
+ * instance is <b>only</b> returned to the pool on {@link #close()} call.<br>
+ * Note that {@link #getResult()} only returns the result of the calling thread's analyzer, use
+ * {@link ParallelAnalyzer} to get the result of all threads merged together.
  */
 public class ConcurrentAnalyzer<T> implements Analyzer<T> {
 
@@ -0,0 +1,150 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import java.util.List;
+
+/**
+ * An {@link Analyzer} that measures the calls to another analyzer: number of calls, number of records and time spent
+ * (see {@link AnalyzerMetrics}). Metrics are reset by {@link #init()} and complete once {@link #end()} returns.<br>
+ * Instrumentation is opt-in: analyzers which are not wrapped are called directly and pay nothing. To find out which
+ * analyzer of a composite is the slowest, create it with {@link Analyzers#withMetrics(Analyzer...)} and read
+ * {@link AnalyzerMetrics#of(Analyzer)} after the analysis.
+ *
+ * @param <T> The type of results built by the wrapped analyzer.
+ */
+public class InstrumentedAnalyzer<T> implements ColumnarAnalyzer<T>, ParseContextAware {
+
+    private static final long serialVersionUID = 5527096823140531869L;
+
+    private final Analyzer<T> delegate;
+
+    private final AnalyzerMetrics metrics;
+
+    private CellParseContext parseContext;
+
+    private InstrumentedAnalyzer(Analyzer<T> delegate, AnalyzerMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Wraps <code>analyzer</code> to measure it. An analyzer already instrumented is returned as is.
+     *
+     * @param analyzer The analyzer to measure.
+     * @return An analyzer with the same results as <code>analyzer</code>.
+     */
+    public static <T> Analyzer<T> wrap(Analyzer<T> analyzer) {
+        if (analyzer instanceof InstrumentedAnalyzer) {
+            return analyzer;
+        }
+        return new InstrumentedAnalyzer<>(analyzer, new AnalyzerMetrics(analyzer.getClass().getSimpleName()));
+    }
+
+    /**
+     * @return The analyzer itself if it is not instrumented, the analyzer it wraps otherwise.
+     */
+    static Analyzer<?> unwrap(Analyzer<?> analyzer) {
+        if (analyzer instanceof InstrumentedAnalyzer) {
+            return ((InstrumentedAnalyzer<?>) analyzer).delegate;
+        }
+        return analyzer;
+    }
+
+    /**
+     * @return The measures of the wrapped analyzer since the last {@link #init()}.
+     */
+    public AnalyzerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The measured analyzer.
+     */
+    public Analyzer<T> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void setParseContext(CellParseContext context) {
+        this.parseContext = context;
+        if (delegate instanceof ParseContextAware) {
+            ((ParseContextAware) delegate).setParseContext(context);
+        }
+    }
+
+    @Override
+    public void init() {
+        metrics.reset();
+        delegate.init();
+    }
+
+    @Override
+    public boolean analyze(String... record) {
+        final long start = System.nanoTime();
+        try {
+            return delegate.analyze(record);
+        } finally {
+            metrics.recordAnalyze(1, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        final long start = System.nanoTime();
+        try {
+            return Analyzers.analyzeColumns(delegate, columns, rowCount, parseContext);
+        } finally {
+            metrics.recordAnalyze(rowCount, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void end() {
+        final long start = System.nanoTime();
+        try {
+            delegate.end();
+        } finally {
+            metrics.recordEnd(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<T> getResult() {
+        return delegate.getResult();
+    }
+
+    /**
+     * Merges the wrapped analyzers, the result is instrumented with the sum of both metrics.
+     */
+    @Override
+    public Analyzer<T> merge(Analyzer<T> another) {
+        if (another instanceof InstrumentedAnalyzer) {
+            InstrumentedAnalyzer<T> anotherInstrumented = (InstrumentedAnalyzer<T>) another;
+            return new InstrumentedAnalyzer<>(delegate.merge(anotherInstrumented.delegate),
+                    metrics.merge(anotherInstrumented.metrics));
+        }
+        final AnalyzerMetrics copy = metrics.merge(new AnalyzerMetrics(metrics.getAnalyzerName()));
+        return new InstrumentedAnalyzer<>(delegate.merge(another), copy);
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+
+    @Override
+    public String toString() {
+        return metrics.toString();
+    }
+}
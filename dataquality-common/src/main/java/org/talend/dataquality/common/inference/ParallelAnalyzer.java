@@ -0,0 +1,174 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+/**
+ * A {@link Analyzer} implementation that allows several threads to analyze records concurrently. Unlike
+ * {@link ConcurrentAnalyzer}, the result covers the records of <b>all</b> threads:
+ * <ul>
+ * <li>Each thread gets its own analyzer from the supplier on its first call, and keeps it (no pool borrowing on the
+ * per-record path).</li>
+ * <li>{@link #end()} ends every worker analyzer and merges them together with {@link Analyzer#merge(Analyzer)}.</li>
+ * </ul>
+ * The typical call sequence is: {@link #init()} once, {@link #analyze(String...)} from any number of threads, then
+ * {@link #end()} and {@link #getResult()} once all workers are done. Analyzers provided by the supplier must implement
+ * {@link Analyzer#merge(Analyzer)}.
+ *
+ * @param <T> The type of results built by the underlying analyzers.
+ */
+public class ParallelAnalyzer<T> implements ColumnarAnalyzer<T> {
+
+    private static final long serialVersionUID = -2617322394925735520L;
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelAnalyzer.class);
+
+    private final AnalyzerSupplier<Analyzer<T>> supplier;
+
+    private final List<Analyzer<T>> workers = new ArrayList<>();
+
+    private transient volatile ThreadLocal<Analyzer<T>> threadLocal;
+
+    private Analyzer<T> mergedAnalyzer;
+
+    private ParallelAnalyzer(AnalyzerSupplier<Analyzer<T>> supplier) {
+        this.supplier = supplier;
+        this.threadLocal = newThreadLocal();
+    }
+
+    /**
+     * Creates an analyzer that analyzes records with one analyzer per calling thread.
+     *
+     * @param supplier The supplier of worker analyzers, called once per thread.
+     * @return An analyzer which result is the merge of all worker results.
+     */
+    public static <T> Analyzer<T> make(AnalyzerSupplier<Analyzer<T>> supplier) {
+        return new ParallelAnalyzer<>(supplier);
+    }
+
+    private ThreadLocal<Analyzer<T>> newThreadLocal() {
+        return new ThreadLocal<Analyzer<T>>() {
+
+            @Override
+            protected Analyzer<T> initialValue() {
+                synchronized (workers) {
+                    final Analyzer<T> analyzer = supplier.get();
+                    analyzer.init();
+                    workers.add(analyzer);
+                    return analyzer;
+                }
+            }
+        };
+    }
+
+    /**
+     * Prepare for a new analysis: analyzers of a previous analysis are discarded and each thread will get a new one on
+     * its next call.
+     */
+    @Override
+    public void init() {
+        synchronized (workers) {
+            workers.clear();
+            mergedAnalyzer = null;
+            threadLocal = newThreadLocal();
+        }
+    }
+
+    @Override
+    public boolean analyze(String... record) {
+        return threadLocal.get().analyze(record);
+    }
+
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        return Analyzers.analyzeColumns(threadLocal.get(), columns, rowCount);
+    }
+
+    /**
+     * Ends all worker analyzers and merges them into a new analyzer of the supplier, the workers are left unchanged.
+     * Must be called once all threads are done with {@link #analyze(String...)}, the next calls do nothing until
+     * {@link #init()}.
+     */
+    @Override
+    public void end() {
+        synchronized (workers) {
+            if (mergedAnalyzer != null || workers.isEmpty()) {
+                return;
+            }
+            // some analyzers merge into the analyzer merge() is called on
+            Analyzer<T> merged = supplier.get();
+            merged.init();
+            for (Analyzer<T> worker : workers) {
+                worker.end();
+                merged = merged.merge(worker);
+            }
+            merged.end();
+            mergedAnalyzer = merged;
+        }
+    }
+
+    /**
+     * @return The merged result of all the threads, {@link #end()} is called first if needed.
+     */
+    @Override
+    public List<T> getResult() {
+        if (mergedAnalyzer == null) {
+            end();
+        }
+        if (mergedAnalyzer == null) {
+            // No record analyzed at all.
+            return new ArrayList<>();
+        }
+        return mergedAnalyzer.getResult();
+    }
+
+    @Override
+    public Analyzer<T> merge(Analyzer<T> another) {
+        if (mergedAnalyzer == null) {
+            end();
+        }
+        if (mergedAnalyzer == null) {
+            return another;
+        }
+        if (another instanceof ParallelAnalyzer) {
+            ParallelAnalyzer<T> anotherParallel = (ParallelAnalyzer<T>) another;
+            if (anotherParallel.mergedAnalyzer == null) {
+                anotherParallel.end();
+            }
+            if (anotherParallel.mergedAnalyzer == null) {
+                return mergedAnalyzer;
+            }
+            return mergedAnalyzer.merge(anotherParallel.mergedAnalyzer);
+        }
+        return mergedAnalyzer.merge(another);
+    }
+
+    @Override
+    public void close() throws Exception {
+        synchronized (workers) {
+            for (Analyzer<T> worker : workers) {
+                try {
+                    worker.close();
+                } catch (Exception e) {
+                    LOGGER.error("Unable to close " + worker, e);
+                }
+            }
+            threadLocal.remove();
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+/**
+ * Implemented by analyzers able to share parsed cells with the other analyzers of an {@link Analyzers}, which sets
+ * the same {@link CellParseContext} on all of them.
+ */
+public interface ParseContextAware {
+
+    /**
+     * @param context the context shared by the analyzers of the same record, never <code>null</code>.
+     */
+    void setParseContext(CellParseContext context);
+}
@@ -13,28 +13,35 @@
 package org.talend.dataquality.common.inference;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
+import java.lang.reflect.Constructor;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.RandomAccess;
 
 import org.talend.dataquality.common.exception.DQCommonRuntimeException;
 
 /**
  * A {@link List} that can resize to a given maximum size and ensure that all index in list have an instance of
- * <i>T</i>. <b>Important:</b>type <i>T</i> must have a public zero args constructor.
+ * <i>T</i>. New instances are created by an {@link ItemSupplier}, or by the public zero args constructor of <i>T</i>
+ * when the list is created with {@link #ResizableList(Class)}.<br>
+ * Items are kept in an array grown on {@link #resize(int)}, so that getting the item of a column in the per-record
+ * path of analyzers is a plain array access.
  * 
- * @param <T> A class with a zero-arg constructor.
+ * @param <T> The type of items.
  * @see #resize(int)
  */
-public class ResizableList<T> implements List<T>, Serializable {
+public class ResizableList<T> extends AbstractList<T> implements RandomAccess, Serializable {
 
-    private static final long serialVersionUID = -4643753633617225999L;
+    private static final long serialVersionUID = 3571907452831126638L;
 
-    private Class<T> itemClass;
+    private static final Object[] EMPTY_ITEMS = new Object[0];
 
-    private List<T> innerList;
+    private ItemSupplier<T> itemSupplier;
+
+    private Object[] items = EMPTY_ITEMS;
+
+    private int size;
 
     /**
      * Creates a list with explicit {@link #resize(int) resize} that contains instances of <i>T</i>.
@@ -43,13 +50,20 @@ public class ResizableList<T> implements List<T>, Serializable {
      * @throws IllegalArgumentException If <code>itemClass</code> does not have a zero args constructor.
      */
     public ResizableList(Class<T> itemClass) {
-        try {
-            itemClass.getConstructor();
-        } catch (NoSuchMethodException e) {
-            throw new IllegalArgumentException("Item class must have a zero arg constructor.", e); //$NON-NLS-1$
+        this.itemSupplier = new ConstructorItemSupplier<>(itemClass);
+    }
+
+    /**
+     * Creates a list with explicit {@link #resize(int) resize} that contains instances of <i>T</i> provided by
+     * <code>itemSupplier</code>.
+     * 
+     * @param itemSupplier The supplier called once for each new item.
+     */
+    public ResizableList(ItemSupplier<T> itemSupplier) {
+        if (itemSupplier == null) {
+            throw new IllegalArgumentException("Item supplier cannot be null."); //$NON-NLS-1$
         }
-        this.itemClass = itemClass;
-        this.innerList = new ArrayList<T>();
+        this.itemSupplier = itemSupplier;
     }
 
     /**
@@ -58,7 +72,8 @@ public class ResizableList<T> implements List<T>, Serializable {
      * @param copyOfList list to be initialized.
      */
     public ResizableList(List<T> copyOfList) {
-        this.innerList = copyOfList;
+        this.items = copyOfList.toArray();
+        this.size = items.length;
     }
 
     /**
@@ -69,144 +84,133 @@ public class ResizableList<T> implements List<T>, Serializable {
      * no new elements were added.
      */
     public boolean resize(int size) {
-        try {
+        if (size <= this.size) {
             if (size < 0) {
-                throw new IllegalArgumentException("Size must be a positive number.");
+                throw new DQCommonRuntimeException("Unable to resize list of items.",
+                        new IllegalArgumentException("Size must be a positive number."));
             }
-            final int missing = size - innerList.size();
-            boolean addedMissing = missing > 0;
-            for (int i = 0; i < missing; i++) {
-                innerList.add(itemClass.newInstance());
+            return false;
+        }
+        if (itemSupplier == null) {
+            throw new DQCommonRuntimeException("Unable to resize list of items.",
+                    new IllegalStateException("No item supplier for a list created from a copy."));
+        }
+        ensureCapacity(size);
+        try {
+            for (int i = this.size; i < size; i++) {
+                items[i] = itemSupplier.get();
+                this.size++;
+                modCount++;
             }
-            return addedMissing;
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             throw new DQCommonRuntimeException("Unable to resize list of items.", e);
         }
+        return true;
     }
 
-    @Override
-    public int size() {
-        return innerList.size();
-    }
-
-    @Override
-    public boolean isEmpty() {
-        return innerList.isEmpty();
-    }
-
-    @Override
-    public boolean contains(Object o) {
-        return innerList.contains(o);
-    }
-
-    @Override
-    public Iterator<T> iterator() {
-        return innerList.iterator();
-    }
-
-    @Override
-    public Object[] toArray() {
-        return innerList.toArray();
-    }
-
-    @Override
-    public <T1> T1[] toArray(T1[] t1s) {
-        return innerList.toArray(t1s);
-    }
-
-    @Override
-    public boolean add(T t) {
-        return innerList.add(t);
+    private void ensureCapacity(int capacity) {
+        if (capacity > items.length) {
+            items = Arrays.copyOf(items, Math.max(capacity, items.length + (items.length >> 1)));
+        }
     }
 
-    @Override
-    public boolean remove(Object o) {
-        return innerList.remove(o);
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
     }
 
     @Override
-    public boolean containsAll(Collection<?> collection) {
-        return innerList.containsAll(collection);
+    public int size() {
+        return size;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
-    public boolean addAll(Collection<? extends T> collection) {
-        return innerList.addAll(collection);
+    public T get(int i) {
+        checkIndex(i);
+        return (T) items[i];
     }
 
     @Override
-    public boolean addAll(int i, Collection<? extends T> collection) {
-        return innerList.addAll(i, collection);
+    public T set(int i, T t) {
+        final T previous = get(i);
+        items[i] = t;
+        return previous;
     }
 
     @Override
-    public boolean removeAll(Collection<?> collection) {
-        return innerList.removeAll(collection);
+    public void add(int i, T t) {
+        if (i < 0 || i > size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(items, i, items, i + 1, size - i);
+        items[i] = t;
+        size++;
+        modCount++;
     }
 
     @Override
-    public boolean retainAll(Collection<?> collection) {
-        return innerList.retainAll(collection);
+    public T remove(int i) {
+        final T previous = get(i);
+        System.arraycopy(items, i + 1, items, i, size - i - 1);
+        items[--size] = null;
+        modCount++;
+        return previous;
     }
 
     @Override
     public void clear() {
-        innerList.clear();
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        return innerList.equals(o);
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        modCount++;
     }
 
-    @Override
-    public int hashCode() {
-        return innerList.hashCode();
-    }
-
-    @Override
-    public T get(int i) {
-        return innerList.get(i);
-    }
-
-    @Override
-    public T set(int i, T t) {
-        return innerList.set(i, t);
-    }
+    /**
+     * Provides the new items of a {@link ResizableList}.
+     * 
+     * @param <T> The type of items.
+     */
+    public interface ItemSupplier<T> extends Serializable {
 
-    @Override
-    public void add(int i, T t) {
-        innerList.add(i, t);
+        /**
+         * @return a new item.
+         */
+        T get();
     }
 
-    @Override
-    public T remove(int i) {
-        return innerList.remove(i);
-    }
+    /**
+     * Creates items with the public zero args constructor of their class.
+     */
+    private static class ConstructorItemSupplier<T> implements ItemSupplier<T> {
 
-    @Override
-    public int indexOf(Object o) {
-        return innerList.indexOf(o);
-    }
+        private static final long serialVersionUID = 2962581420335185745L;
 
-    @Override
-    public int lastIndexOf(Object o) {
-        return innerList.lastIndexOf(o);
-    }
+        private final Class<T> itemClass;
 
-    @Override
-    public ListIterator<T> listIterator() {
-        return innerList.listIterator();
-    }
+        private transient Constructor<T> constructor;
 
-    @Override
-    public ListIterator<T> listIterator(int i) {
-        return innerList.listIterator(i);
-    }
+        ConstructorItemSupplier(Class<T> itemClass) {
+            try {
+                this.constructor = itemClass.getConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Item class must have a zero arg constructor.", e); //$NON-NLS-1$
+            }
+            this.itemClass = itemClass;
+        }
 
-    @Override
-    public List<T> subList(int i, int i1) {
-        return innerList.subList(i, i1);
+        @Override
+        public T get() {
+            try {
+                if (constructor == null) {
+                    constructor = itemClass.getConstructor();
+                }
+                return constructor.newInstance();
+            } catch (Exception e) {
+                throw new DQCommonRuntimeException("Unable to create an instance of " + itemClass.getName(), e);
+            }
+        }
     }
 
 }
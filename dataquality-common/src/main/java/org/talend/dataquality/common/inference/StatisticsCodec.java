@@ -0,0 +1,42 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of the statistics of one column, used by {@link AnalyzerCheckpoint} to save and restore analyzer
+ * state.
+ *
+ * @param <T> The type of statistics encoded.
+ */
+public interface StatisticsCodec<T> {
+
+    /**
+     * @return an identifier of the encoded statistics type, written in the checkpoint header and checked on restore.
+     * It must not change once checkpoints have been written.
+     */
+    String getTypeId();
+
+    /**
+     * Write the state of <code>statistics</code>.
+     */
+    void write(T statistics, DataOutput out) throws IOException;
+
+    /**
+     * Read statistics previously written with {@link #write(Object, DataOutput)}.
+     */
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,71 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readVarLong;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeVarLong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * {@link StatisticsCodec} of {@link ValueQualityStatistics}: the four counts followed by the invalid and unknown
+ * values.
+ */
+public class ValueQualityStatisticsCodec implements StatisticsCodec<ValueQualityStatistics> {
+
+    @Override
+    public String getTypeId() {
+        return "valueQuality"; //$NON-NLS-1$
+    }
+
+    @Override
+    public void write(ValueQualityStatistics statistics, DataOutput out) throws IOException {
+        writeVarLong(out, statistics.getValidCount());
+        writeVarLong(out, statistics.getEmptyCount());
+        writeVarLong(out, statistics.getInvalidCount());
+        writeVarLong(out, statistics.getUnknownCount());
+        writeValues(out, statistics.getInvalidValues());
+        writeValues(out, statistics.getUnknownValues());
+    }
+
+    @Override
+    public ValueQualityStatistics read(DataInput in) throws IOException {
+        ValueQualityStatistics statistics = new ValueQualityStatistics();
+        statistics.setValidCount(readVarLong(in));
+        statistics.setEmptyCount(readVarLong(in));
+        statistics.setInvalidCount(readVarLong(in));
+        statistics.setUnknownCount(readVarLong(in));
+        readValues(in, statistics.getInvalidValues());
+        readValues(in, statistics.getUnknownValues());
+        return statistics;
+    }
+
+    private static void writeValues(DataOutput out, Set<String> values) throws IOException {
+        writeVarLong(out, values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void readValues(DataInput in, Set<String> values) throws IOException {
+        long size = readVarLong(in);
+        for (long i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+    }
+}
@@ -12,6 +12,8 @@
 // ============================================================================
 package org.talend.dataquality.common.regex;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -25,11 +27,35 @@ public abstract class ChainResponsibilityHandler {
      */
     protected ChainResponsibilityHandler successor;
 
+    /**
+     * Classifier of the chain this handler is the head of, published as a whole so that concurrent callers never see a
+     * chain without its classifier.
+     */
+    private transient volatile ClassifiedChain classifiedChain;
+
     /**
      * 
-     * Handle the request
+     * Handle the request: replace the characters matched by the regex of this handler and of its successors.<br>
+     * The replacements of the whole chain are precomputed per code point (see {@link CodePointClassifier}), so the
+     * value is scanned only once whatever the length of the chain.
      */
     public String handleRequest(String value) {
+        if (value == null) {
+            return null;
+        }
+        ClassifiedChain classified = classifiedChain;
+        if (classified == null || !isChain(classified.chain)) {
+            ChainResponsibilityHandler[] chain = toChain();
+            classified = new ClassifiedChain(chain, CodePointClassifier.of(chain));
+            classifiedChain = classified;
+        }
+        return classified.classifier.classify(value);
+    }
+
+    /**
+     * Handle the request with one regex replacement per handler of the chain.
+     */
+    String handleRequestByRegex(String value) {
         String tempValue = value;
         if (this.canHandler(value)) {
             Pattern pattern = getRegex();
@@ -39,7 +65,30 @@ public abstract class ChainResponsibilityHandler {
         if (this.getSuccessor() == null) {
             return tempValue;
         }
-        return this.getSuccessor().handleRequest(tempValue);
+        return this.getSuccessor().handleRequestByRegex(tempValue);
+    }
+
+    private ChainResponsibilityHandler[] toChain() {
+        List<ChainResponsibilityHandler> chain = new ArrayList<>();
+        for (ChainResponsibilityHandler handler = this; handler != null; handler = handler.getSuccessor()) {
+            chain.add(handler);
+        }
+        return chain.toArray(new ChainResponsibilityHandler[chain.size()]);
+    }
+
+    /**
+     * @return whether the handlers starting from this one are still <code>chain</code>, successors may have been linked
+     * since the classifier was built.
+     */
+    private boolean isChain(ChainResponsibilityHandler[] chain) {
+        ChainResponsibilityHandler handler = this;
+        for (ChainResponsibilityHandler expected : chain) {
+            if (handler != expected) {
+                return false;
+            }
+            handler = handler.getSuccessor();
+        }
+        return handler == null;
     }
 
     /**
@@ -81,4 +130,19 @@ public abstract class ChainResponsibilityHandler {
         return successor;
     }
 
+    /**
+     * A chain of handlers and the classifier built from it.
+     */
+    private static final class ClassifiedChain {
+
+        private final ChainResponsibilityHandler[] chain;
+
+        private final CodePointClassifier classifier;
+
+        ClassifiedChain(ChainResponsibilityHandler[] chain, CodePointClassifier classifier) {
+            this.chain = chain;
+            this.classifier = classifier;
+        }
+    }
+
 }
@@ -0,0 +1,129 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.regex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces the characters of a value the way a chain of {@link ChainResponsibilityHandler} does, in a single pass.
+ * <p>
+ * The handler regexes are character classes, so the result of the chain is computed independently for each code point.
+ * It is precomputed once for all the characters of the Basic Multilingual Plane into a lookup table, and computed on
+ * first use for supplementary code points (e.g. CJK extension B ideographs).
+ * <p>
+ * Classifiers are shared between chains made of the same handler classes, which is the case of the chains created by
+ * {@link HandlerFactory}: handlers are expected to always return the same regex and replacement.
+ */
+final class CodePointClassifier {
+
+    private static final ConcurrentMap<List<Class<?>>, CodePointClassifier> CLASSIFIERS = new ConcurrentHashMap<>();
+
+    /** Marks the BMP characters which result of the chain is not a single char. */
+    private static final char NOT_SINGLE_CHAR = '\uFFFF';
+
+    private final ChainResponsibilityHandler head;
+
+    private final char[] bmpTable = new char[Character.MAX_VALUE + 1];
+
+    /** Results which are not a single char: some BMP characters and the supplementary code points met so far. */
+    private final ConcurrentMap<Integer, String> otherResults = new ConcurrentHashMap<>();
+
+    private CodePointClassifier(ChainResponsibilityHandler[] chain) {
+        this.head = chain[0];
+        Pattern[] patterns = new Pattern[chain.length];
+        String[] replacements = new String[chain.length];
+        Matcher[] matchers = new Matcher[chain.length];
+        for (int i = 0; i < chain.length; i++) {
+            patterns[i] = chain[i].getRegex();
+            replacements[i] = chain[i].getReplaceStr();
+            matchers[i] = patterns[i] == null ? null : patterns[i].matcher("");
+        }
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            String result = String.valueOf((char) c);
+            for (int i = 0; i < chain.length; i++) {
+                if (chain[i].canHandler(result)) {
+                    Matcher matcher = matchers[i].reset(result);
+                    if (matcher.find()) {
+                        result = matcher.replaceAll(replacements[i]);
+                    }
+                }
+            }
+            if (result.length() == 1) {
+                bmpTable[c] = result.charAt(0);
+            } else {
+                bmpTable[c] = NOT_SINGLE_CHAR;
+                otherResults.put(c, result);
+            }
+        }
+    }
+
+    /**
+     * @return the classifier of the given handler chain, built on first call for this sequence of handler classes.
+     */
+    static CodePointClassifier of(ChainResponsibilityHandler[] chain) {
+        Class<?>[] handlerClasses = new Class<?>[chain.length];
+        for (int i = 0; i < chain.length; i++) {
+            handlerClasses[i] = chain[i].getClass();
+        }
+        List<Class<?>> key = Arrays.<Class<?>> asList(handlerClasses);
+        CodePointClassifier classifier = CLASSIFIERS.get(key);
+        if (classifier == null) {
+            classifier = new CodePointClassifier(chain);
+            CodePointClassifier existing = CLASSIFIERS.putIfAbsent(key, classifier);
+            if (existing != null) {
+                classifier = existing;
+            }
+        }
+        return classifier;
+    }
+
+    /**
+     * @return the value with each code point replaced as the handler chain would.
+     */
+    String classify(String value) {
+        int length = value.length();
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                sb.append(classifySupplementary(Character.toCodePoint(c, value.charAt(++i))));
+                continue;
+            }
+            char mapped = bmpTable[c];
+            if (mapped == NOT_SINGLE_CHAR) {
+                String result = otherResults.get((int) c);
+                if (result != null) {
+                    sb.append(result);
+                    continue;
+                }
+            }
+            sb.append(mapped);
+        }
+        return sb.toString();
+    }
+
+    private String classifySupplementary(int codePoint) {
+        String result = otherResults.get(codePoint);
+        if (result == null) {
+            // thread safe: new matchers are created by the regex path
+            result = head.handleRequestByRegex(new String(Character.toChars(codePoint)));
+            otherResults.putIfAbsent(codePoint, result);
+        }
+        return result;
+    }
+}
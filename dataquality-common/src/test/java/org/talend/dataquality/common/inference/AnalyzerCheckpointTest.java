@@ -0,0 +1,134 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AnalyzerCheckpointTest {
+
+    @Test
+    public void testValueQualityRoundTrip() throws IOException {
+        ValueQualityStatistics first = new ValueQualityStatistics();
+        first.setValidCount(123456789L);
+        first.setEmptyCount(2);
+        first.setInvalidCount(3);
+        first.setUnknownCount(1);
+        first.appendInvalidValue("abc");
+        first.appendInvalidValue("été");
+        first.appendUnknownValue("x");
+        ValueQualityStatistics second = new ValueQualityStatistics();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.write(out, Arrays.asList(first, second), new ValueQualityStatisticsCodec());
+        List<ValueQualityStatistics> restored = AnalyzerCheckpoint.read(new ByteArrayInputStream(out.toByteArray()),
+                new ValueQualityStatisticsCodec());
+
+        assertEquals(2, restored.size());
+        assertEquals(123456789L, restored.get(0).getValidCount());
+        assertEquals(2, restored.get(0).getEmptyCount());
+        assertEquals(3, restored.get(0).getInvalidCount());
+        assertEquals(1, restored.get(0).getUnknownCount());
+        assertEquals(first.getInvalidValues(), restored.get(0).getInvalidValues());
+        assertEquals(first.getUnknownValues(), restored.get(0).getUnknownValues());
+        assertEquals(0, restored.get(1).getCount());
+    }
+
+    @Test
+    public void testResumeAnalysis() throws IOException {
+        ParallelAnalyzerTest.EmptyCountAnalyzer analyzer = new ParallelAnalyzerTest.EmptyCountAnalyzer();
+        analyzer.init();
+        analyzer.analyze("a", "");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.write(out, analyzer.getResult(), new ValueQualityStatisticsCodec());
+
+        ParallelAnalyzerTest.EmptyCountAnalyzer resumed = new ParallelAnalyzerTest.EmptyCountAnalyzer();
+        resumed.init();
+        resumed.getResult().addAll(AnalyzerCheckpoint.read(new ByteArrayInputStream(out.toByteArray()),
+                new ValueQualityStatisticsCodec()));
+        resumed.analyze("", "b");
+
+        assertEquals(1, resumed.getResult().get(0).getValidCount());
+        assertEquals(1, resumed.getResult().get(0).getEmptyCount());
+        assertEquals(1, resumed.getResult().get(1).getValidCount());
+        assertEquals(1, resumed.getResult().get(1).getEmptyCount());
+    }
+
+    @Test
+    public void testStreamUsableAfterRead() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.write(out, Arrays.asList(new ValueQualityStatistics()), new ValueQualityStatisticsCodec());
+        out.write(new byte[] { 42, 43 });
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        assertEquals(1, AnalyzerCheckpoint.read(in, new ValueQualityStatisticsCodec()).size());
+        assertEquals(42, in.read());
+        assertEquals(43, in.read());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testWrongTypeRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.write(out, Arrays.asList(new ValueQualityStatistics()), new ValueQualityStatisticsCodec());
+        try {
+            AnalyzerCheckpoint.read(new ByteArrayInputStream(out.toByteArray()), new ValueQualityStatisticsCodec() {
+
+                @Override
+                public String getTypeId() {
+                    return "other";
+                }
+            });
+            fail("Checkpoint of another type should be rejected");
+        } catch (IOException e) {
+            // expected
+        }
+        try {
+            AnalyzerCheckpoint.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 }),
+                    new ValueQualityStatisticsCodec());
+            fail("Stream which is not a checkpoint should be rejected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testVarLongAndString() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        long[] values = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, Long.MAX_VALUE };
+        for (long value : values) {
+            AnalyzerCheckpoint.writeVarLong(out, value);
+        }
+        AnalyzerCheckpoint.writeString(out, null);
+        AnalyzerCheckpoint.writeString(out, "");
+        AnalyzerCheckpoint.writeString(out, "東京");
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (long value : values) {
+            assertEquals(value, AnalyzerCheckpoint.readVarLong(in));
+        }
+        assertNull(AnalyzerCheckpoint.readString(in));
+        assertEquals("", AnalyzerCheckpoint.readString(in));
+        assertEquals("東京", AnalyzerCheckpoint.readString(in));
+    }
+}
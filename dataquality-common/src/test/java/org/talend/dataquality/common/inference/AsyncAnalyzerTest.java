@@ -0,0 +1,155 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.talend.dataquality.common.exception.DQCommonRuntimeException;
+
+public class AsyncAnalyzerTest {
+
+    private static final AnalyzerSupplier<Analyzer<ValueQualityStatistics>> SUPPLIER = new AnalyzerSupplier<Analyzer<ValueQualityStatistics>>() {
+
+        @Override
+        public Analyzer<ValueQualityStatistics> get() {
+            return new ParallelAnalyzerTest.EmptyCountAnalyzer();
+        }
+    };
+
+    @Test
+    public void testRecordsOfAllProducersAnalyzed() throws Exception {
+        // small queue: producers are slowed down by the workers
+        final Analyzer<ValueQualityStatistics> analyzer = AsyncAnalyzer.make(SUPPLIER, 3, 4);
+        analyzer.init();
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            producers.add(new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    String[] record = new String[2];
+                    for (int j = 0; j < 1000; j++) {
+                        // the record array is reused, as readers usually do
+                        record[0] = String.valueOf(j);
+                        record[1] = j % 4 == 0 ? "" : "value";
+                        analyzer.analyze(record);
+                    }
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        analyzer.end();
+
+        List<ValueQualityStatistics> result = analyzer.getResult();
+        assertEquals(2, result.size());
+        assertEquals(4000, result.get(0).getValidCount());
+        assertEquals(3000, result.get(1).getValidCount());
+        assertEquals(1000, result.get(1).getEmptyCount());
+        analyzer.close();
+    }
+
+    @Test
+    public void testAnalyzeColumns() throws Exception {
+        AsyncAnalyzer<ValueQualityStatistics> analyzer = AsyncAnalyzer.make(SUPPLIER, 2, 1);
+        analyzer.init();
+        String[][] columns = new String[][] { { "a", "", "b", "ignored" } };
+        analyzer.analyzeColumns(columns, 3);
+        columns[0][0] = "";
+        analyzer.analyzeColumns(columns, 3);
+        analyzer.end();
+        assertEquals(3, analyzer.getResult().get(0).getValidCount());
+        assertEquals(3, analyzer.getResult().get(0).getEmptyCount());
+        analyzer.close();
+    }
+
+    @Test
+    public void testAnalyzerFailure() throws Exception {
+        Analyzer<ValueQualityStatistics> analyzer = AsyncAnalyzer.make(SUPPLIER, 2, 2);
+        analyzer.init();
+        analyzer.analyze("a");
+        // EmptyCountAnalyzer does not support null values
+        analyzer.analyze((String) null);
+        for (int i = 0; i < 100; i++) {
+            analyzer.analyze("b");
+        }
+        try {
+            analyzer.end();
+            fail("The failure of an analyzer should be reported");
+        } catch (DQCommonRuntimeException e) {
+            assertEquals(NullPointerException.class, e.getCause().getClass());
+        }
+        analyzer.close();
+    }
+
+    @Test(timeout = 30000)
+    public void testAnalyzerError() throws Exception {
+        Analyzer<ValueQualityStatistics> analyzer = AsyncAnalyzer.make(
+                new AnalyzerSupplier<Analyzer<ValueQualityStatistics>>() {
+
+                    @Override
+                    public Analyzer<ValueQualityStatistics> get() {
+                        return new ParallelAnalyzerTest.EmptyCountAnalyzer() {
+
+                            private static final long serialVersionUID = 1L;
+
+                            @Override
+                            public boolean analyze(String... record) {
+                                if ("error".equals(record[0])) {
+                                    throw new StackOverflowError();
+                                }
+                                return super.analyze(record);
+                            }
+                        };
+                    }
+                }, 1, 1);
+        analyzer.init();
+        analyzer.analyze("error");
+        // the queue is full unless the worker keeps draining it
+        for (int i = 0; i < 100; i++) {
+            analyzer.analyze("b");
+        }
+        try {
+            analyzer.end();
+            fail("The error of an analyzer should be reported");
+        } catch (DQCommonRuntimeException e) {
+            assertEquals(StackOverflowError.class, e.getCause().getClass());
+        }
+        analyzer.close();
+    }
+
+    @Test
+    public void testInitRestartsAnalysis() throws Exception {
+        Analyzer<ValueQualityStatistics> analyzer = AsyncAnalyzer.make(SUPPLIER, 2, 10);
+        analyzer.init();
+        analyzer.analyze("a");
+        analyzer.end();
+        assertEquals(1, analyzer.getResult().get(0).getValidCount());
+
+        analyzer.init();
+        analyzer.analyze("");
+        analyzer.end();
+        assertEquals(0, analyzer.getResult().get(0).getValidCount());
+        assertEquals(1, analyzer.getResult().get(0).getEmptyCount());
+        analyzer.close();
+    }
+}
@@ -0,0 +1,83 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CellParseContextTest {
+
+    private static final CellParseContext.Key<Integer> LENGTH = CellParseContext.Key.create("length");
+
+    private static final CellParseContext.Key<Double> NUMBER = CellParseContext.Key.create("number");
+
+    @Test
+    public void testSameCellOnly() {
+        CellParseContext context = new CellParseContext();
+        String cell = new String("abc");
+        assertFalse(context.contains(LENGTH, 0, cell));
+        context.put(LENGTH, 0, cell, 3);
+
+        assertTrue(context.contains(LENGTH, 0, cell));
+        assertEquals(Integer.valueOf(3), context.get(LENGTH, 0, cell));
+        // another instance of the same value, another column, another key
+        assertNull(context.get(LENGTH, 0, new String("abc")));
+        assertNull(context.get(LENGTH, 5, cell));
+        assertFalse(context.contains(NUMBER, 0, cell));
+    }
+
+    @Test
+    public void testNullParsedForm() {
+        CellParseContext context = new CellParseContext();
+        String cell = "not a number";
+        context.put(NUMBER, 3, cell, null);
+        assertTrue(context.contains(NUMBER, 3, cell));
+        assertNull(context.get(NUMBER, 3, cell));
+        context.put(NUMBER, 3, null, 1.0);
+        assertFalse(context.contains(NUMBER, 3, null));
+    }
+
+    @Test
+    public void testNextRecordReplacesEntry() {
+        CellParseContext context = new CellParseContext();
+        String first = "1";
+        String second = "22";
+        context.put(LENGTH, 0, first, 1);
+        context.put(LENGTH, 0, second, 2);
+        assertNull(context.get(LENGTH, 0, first));
+        assertEquals(Integer.valueOf(2), context.get(LENGTH, 0, second));
+    }
+
+    @Test
+    public void testBatchRows() {
+        CellParseContext context = new CellParseContext();
+        String[] column = new String[] { "1", "22", "333" };
+        for (int row = 0; row < column.length; row++) {
+            context.setRow(row);
+            context.put(LENGTH, 2, column[row], column[row].length());
+        }
+        // the whole batch is kept for the next analyzer
+        for (int row = 0; row < column.length; row++) {
+            context.setRow(row);
+            assertEquals(Integer.valueOf(row + 1), context.get(LENGTH, 2, column[row]));
+        }
+        // another row of the batch holds another cell
+        assertNull(context.get(LENGTH, 2, column[0]));
+        context.setRow(0);
+        assertEquals(Integer.valueOf(1), context.get(LENGTH, 2, column[0]));
+    }
+}
@@ -0,0 +1,81 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.talend.dataquality.common.inference.ParallelAnalyzerTest.EmptyCountAnalyzer;
+
+public class InstrumentedAnalyzerTest {
+
+    @Test
+    public void testMetrics() throws Exception {
+        Analyzer<ValueQualityStatistics> analyzer = InstrumentedAnalyzer.wrap(new EmptyCountAnalyzer());
+        analyzer.init();
+        analyzer.analyze("a", "");
+        analyzer.analyze("b", "c");
+        Analyzers.analyzeColumns(analyzer, new String[][] { { "d", "e", "f" }, { "", "", "g" } }, 3);
+        analyzer.end();
+
+        assertEquals(5, analyzer.getResult().get(0).getValidCount());
+        assertEquals(3, analyzer.getResult().get(1).getEmptyCount());
+        List<AnalyzerMetrics> metrics = AnalyzerMetrics.of(analyzer);
+        assertEquals(1, metrics.size());
+        AnalyzerMetrics analyzerMetrics = metrics.get(0);
+        assertEquals("EmptyCountAnalyzer", analyzerMetrics.getAnalyzerName());
+        assertEquals(3, analyzerMetrics.getAnalyzeCallCount());
+        assertEquals(5, analyzerMetrics.getRecordCount());
+        assertTrue(analyzerMetrics.getAnalyzeTimeNanos() > 0);
+        assertTrue(analyzerMetrics.getRecordsPerSecond() > 0);
+
+        analyzer.init();
+        assertEquals(0, analyzerMetrics.getRecordCount());
+        assertEquals(0, analyzerMetrics.getAnalyzeTimeNanos());
+        analyzer.close();
+    }
+
+    @Test
+    public void testWrapOnce() {
+        Analyzer<ValueQualityStatistics> analyzer = InstrumentedAnalyzer.wrap(new EmptyCountAnalyzer());
+        assertSame(analyzer, InstrumentedAnalyzer.wrap(analyzer));
+        assertTrue(AnalyzerMetrics.of(new EmptyCountAnalyzer()).isEmpty());
+    }
+
+    @Test
+    public void testCompositeMetricsAndMerge() throws Exception {
+        Analyzer<Analyzers.Result> first = Analyzers.withMetrics(new EmptyCountAnalyzer());
+        Analyzer<Analyzers.Result> second = Analyzers.withMetrics(new EmptyCountAnalyzer());
+        first.init();
+        second.init();
+        first.analyze("a");
+        first.analyze("");
+        second.analyze("b");
+        first.end();
+        second.end();
+        assertEquals(2, AnalyzerMetrics.of(first).get(0).getRecordCount());
+
+        Analyzer<Analyzers.Result> merged = first.merge(second);
+        List<AnalyzerMetrics> metrics = AnalyzerMetrics.of(merged);
+        assertEquals(1, metrics.size());
+        assertEquals(3, metrics.get(0).getRecordCount());
+        assertEquals(3, metrics.get(0).getAnalyzeCallCount());
+        ValueQualityStatistics stats = merged.getResult().get(0).get(ValueQualityStatistics.class);
+        assertEquals(2, stats.getValidCount());
+        assertEquals(1, stats.getEmptyCount());
+    }
+}
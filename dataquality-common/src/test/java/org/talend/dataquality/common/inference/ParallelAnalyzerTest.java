@@ -0,0 +1,201 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.inference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ParallelAnalyzerTest {
+
+    private static final AnalyzerSupplier<Analyzer<ValueQualityStatistics>> SUPPLIER = new AnalyzerSupplier<Analyzer<ValueQualityStatistics>>() {
+
+        @Override
+        public Analyzer<ValueQualityStatistics> get() {
+            return new EmptyCountAnalyzer();
+        }
+    };
+
+    @Test
+    public void testResultMergedFromAllThreads() throws Exception {
+        final Analyzer<ValueQualityStatistics> analyzer = ParallelAnalyzer.make(SUPPLIER);
+        analyzer.init();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            workers.add(new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        analyzer.analyze(String.valueOf(j), j % 4 == 0 ? "" : "value");
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        analyzer.end();
+
+        List<ValueQualityStatistics> result = analyzer.getResult();
+        assertEquals(2, result.size());
+        assertEquals(8000, result.get(0).getValidCount());
+        assertEquals(0, result.get(0).getEmptyCount());
+        assertEquals(6000, result.get(1).getValidCount());
+        assertEquals(2000, result.get(1).getEmptyCount());
+        analyzer.close();
+    }
+
+    @Test
+    public void testInitDiscardsPreviousAnalysis() throws Exception {
+        Analyzer<ValueQualityStatistics> analyzer = ParallelAnalyzer.make(SUPPLIER);
+        analyzer.init();
+        analyzer.analyze("a");
+        analyzer.end();
+        assertEquals(1, analyzer.getResult().get(0).getValidCount());
+
+        analyzer.init();
+        analyzer.analyze("");
+        analyzer.end();
+        assertEquals(0, analyzer.getResult().get(0).getValidCount());
+        assertEquals(1, analyzer.getResult().get(0).getEmptyCount());
+    }
+
+    @Test
+    public void testEndTwice() throws Exception {
+        final Analyzer<ValueQualityStatistics> analyzer = ParallelAnalyzer
+                .make(new AnalyzerSupplier<Analyzer<ValueQualityStatistics>>() {
+
+                    @Override
+                    public Analyzer<ValueQualityStatistics> get() {
+                        return new InPlaceMergeAnalyzer();
+                    }
+                });
+        analyzer.init();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            workers.add(new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100; j++) {
+                        analyzer.analyze("1");
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        analyzer.end();
+        assertEquals(200, analyzer.getResult().get(0).getValidCount());
+        analyzer.end();
+        assertEquals(200, analyzer.getResult().get(0).getValidCount());
+        analyzer.close();
+    }
+
+    @Test
+    public void testNoRecord() throws Exception {
+        Analyzer<ValueQualityStatistics> analyzer = ParallelAnalyzer.make(SUPPLIER);
+        analyzer.init();
+        analyzer.end();
+        assertTrue(analyzer.getResult().isEmpty());
+    }
+
+    /**
+     * A mergeable analyzer counting empty and non empty values.
+     */
+    static class EmptyCountAnalyzer implements Analyzer<ValueQualityStatistics> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ResizableList<ValueQualityStatistics> results = new ResizableList<>(ValueQualityStatistics.class);
+
+        @Override
+        public void init() {
+            results.clear();
+        }
+
+        @Override
+        public boolean analyze(String... record) {
+            results.resize(record.length);
+            for (int i = 0; i < record.length; i++) {
+                if (record[i].isEmpty()) {
+                    results.get(i).incrementEmpty();
+                } else {
+                    results.get(i).incrementValid();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public List<ValueQualityStatistics> getResult() {
+            return results;
+        }
+
+        @Override
+        public Analyzer<ValueQualityStatistics> merge(Analyzer<ValueQualityStatistics> another) {
+            EmptyCountAnalyzer merged = new EmptyCountAnalyzer();
+            merged.results.resize(Math.max(results.size(), another.getResult().size()));
+            for (int i = 0; i < merged.results.size(); i++) {
+                ValueQualityStatistics mergedStats = merged.results.get(i);
+                for (List<ValueQualityStatistics> stats : new List[] { results, another.getResult() }) {
+                    if (i < stats.size()) {
+                        mergedStats.setValidCount(mergedStats.getValidCount() + stats.get(i).getValidCount());
+                        mergedStats.setEmptyCount(mergedStats.getEmptyCount() + stats.get(i).getEmptyCount());
+                    }
+                }
+            }
+            return merged;
+        }
+
+        @Override
+        public void close() throws Exception {
+        }
+    }
+
+    /**
+     * Like {@link EmptyCountAnalyzer}, but merged into the analyzer merge is called on.
+     */
+    static class InPlaceMergeAnalyzer extends EmptyCountAnalyzer {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Analyzer<ValueQualityStatistics> merge(Analyzer<ValueQualityStatistics> another) {
+            ResizableList<ValueQualityStatistics> results = (ResizableList<ValueQualityStatistics>) getResult();
+            results.resize(Math.max(results.size(), another.getResult().size()));
+            for (int i = 0; i < another.getResult().size(); i++) {
+                ValueQualityStatistics stats = results.get(i);
+                stats.setValidCount(stats.getValidCount() + another.getResult().get(i).getValidCount());
+                stats.setEmptyCount(stats.getEmptyCount() + another.getResult().get(i).getEmptyCount());
+            }
+            return this;
+        }
+    }
+}
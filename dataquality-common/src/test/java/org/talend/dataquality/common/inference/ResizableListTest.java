@@ -16,6 +16,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -97,6 +99,44 @@ public class ResizableListTest {
         assertFalse(list.resize(1)); // List has already size > 1, no new item added
     }
 
+    @Test
+    public void testResizeWithSupplier() throws Exception {
+        ResizableList<Item> supplied = new ResizableList<>(new ResizableList.ItemSupplier<Item>() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Item get() {
+                Item item = new Item();
+                item.index += 10;
+                return item;
+            }
+        });
+        assertTrue(supplied.resize(20));
+        assertEquals(20, supplied.size());
+        assertEquals(10, supplied.get(0).getIndex());
+        assertEquals(29, supplied.get(19).getIndex());
+        assertFalse(supplied.resize(3));
+        supplied.clear();
+        assertEquals(0, supplied.size());
+        assertTrue(supplied.resize(1));
+        assertEquals(30, supplied.get(0).getIndex());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfSize() throws Exception {
+        list.resize(2);
+        list.get(2);
+    }
+
+    @Test(expected = DQCommonRuntimeException.class)
+    public void testResizeCopyOfList() throws Exception {
+        ResizableList<Item> copy = new ResizableList<>(Arrays.asList(new Item(), new Item()));
+        assertEquals(2, copy.size());
+        assertFalse(copy.resize(1));
+        copy.resize(3);
+    }
+
     // Test class for asserts on invalid input for resizable list
     public static class InvalidItem {
 
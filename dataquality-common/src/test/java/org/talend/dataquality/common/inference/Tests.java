@@ -18,6 +18,7 @@ import org.junit.runners.Suite.SuiteClasses;
 import org.talend.dataquality.common.regex.FullwidthLatinLowercasedLettersTest;
 import org.talend.dataquality.common.regex.FullwidthLatinNumbersTest;
 import org.talend.dataquality.common.regex.FullwidthLatinUppercasedLettersTest;
+import org.talend.dataquality.common.regex.HandlerFactoryTest;
 import org.talend.dataquality.common.regex.HangulTest;
 import org.talend.dataquality.common.regex.HiraganaSmallTest;
 import org.talend.dataquality.common.regex.HiraganaTest;
@@ -30,8 +31,10 @@ import org.talend.dataquality.common.regex.KatakanaTest;
  *
  */
 @RunWith(Suite.class)
-@SuiteClasses({ ResizableListTest.class, KatakanaTest.class, KatakanaSmallTest.class, KanjiTest.class, HiraganaTest.class,
-        HiraganaSmallTest.class, HangulTest.class, FullwidthLatinUppercasedLettersTest.class, FullwidthLatinNumbersTest.class,
-        FullwidthLatinLowercasedLettersTest.class })
+@SuiteClasses({ ResizableListTest.class, ParallelAnalyzerTest.class, AnalyzerCheckpointTest.class, KatakanaTest.class,
+        KatakanaSmallTest.class, KanjiTest.class, HiraganaTest.class, HiraganaSmallTest.class, HangulTest.class,
+        FullwidthLatinUppercasedLettersTest.class, FullwidthLatinNumbersTest.class,
+        FullwidthLatinLowercasedLettersTest.class, HandlerFactoryTest.class, CellParseContextTest.class,
+        AsyncAnalyzerTest.class, InstrumentedAnalyzerTest.class })
 public class Tests {
 }
@@ -0,0 +1,61 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.common.regex;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HandlerFactoryTest {
+
+    private static final String[] VALUES = { "", "talend", "Talend 2016 | ÀÉÎõü×÷", //$NON-NLS-1$ //$NON-NLS-2$
+            "如果ｔａｌｅｎｄ算第二的话，那么还有谁能是最强的呢？", "ひらがなぁぃカタカナァィｶﾀｶﾅｧ한국어ＡＢＣａｂｃ０１２", //$NON-NLS-1$ //$NON-NLS-2$
+            "𠀀𠀁𪛖a𝒜b", "\uD800x\uDC00", "|\uFFFF" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+    @Test
+    public void testEastAsiaHandlerSameAsRegexChain() {
+        assertSameAsRegexChain(HandlerFactory.createEastAsiaPatternHandler());
+    }
+
+    @Test
+    public void testLatinHandlerSameAsRegexChain() {
+        assertSameAsRegexChain(HandlerFactory.createLatinPatternHandler());
+    }
+
+    @Test
+    public void testSuccessorLinkedAfterFirstRequest() {
+        ChainResponsibilityHandler handler = new Kanji();
+        Assert.assertEquals("Cｔ", handler.handleRequest("如ｔ")); //$NON-NLS-1$ //$NON-NLS-2$
+        handler.linkSuccessor(new FullwidthLatinLowercasedLetters());
+        Assert.assertEquals("Ca", handler.handleRequest("如ｔ")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private void assertSameAsRegexChain(ChainResponsibilityHandler handler) {
+        for (String value : VALUES) {
+            Assert.assertEquals(handler.handleRequestByRegex(value), handler.handleRequest(value));
+        }
+        StringBuilder allChars = new StringBuilder();
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            if (!Character.isSurrogate((char) c)) {
+                allChars.append((char) c);
+            }
+        }
+        Assert.assertEquals(handler.handleRequestByRegex(allChars.toString()),
+                handler.handleRequest(allChars.toString()));
+        StringBuilder supplementaryChars = new StringBuilder();
+        for (int cp = Character.MIN_SUPPLEMENTARY_CODE_POINT; cp <= Character.MAX_CODE_POINT; cp += 97) {
+            supplementaryChars.appendCodePoint(cp);
+        }
+        Assert.assertEquals(handler.handleRequestByRegex(supplementaryChars.toString()),
+                handler.handleRequest(supplementaryChars.toString()));
+    }
+}
@@ -18,6 +18,7 @@ import java.util.Map.Entry;
 
 import org.apache.commons.lang3.NotImplementedException;
 import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.ColumnarAnalyzer;
 import org.talend.dataquality.common.inference.Metadata;
 import org.talend.dataquality.common.inference.ResizableList;
 import org.talend.dataquality.semantic.exception.DQSemanticRuntimeException;
@@ -31,13 +32,13 @@ import org.talend.dataquality.semantic.recognizer.CategoryRecognizerBuilder;
  * @see Analyzer
  * 
  */
-public class SemanticAnalyzer implements Analyzer<SemanticType> {
+public class SemanticAnalyzer implements ColumnarAnalyzer<SemanticType> {
 
     private static final long serialVersionUID = 6808620909722453108L;
 
     private static float DEFAULT_WEIGHT_VALUE = 0.1f;
 
-    private final ResizableList<SemanticType> results = new ResizableList<>(SemanticType.class);
+    private final ResizableList<SemanticType> results = new ResizableList<>(SemanticType::new);
 
     private final Map<Integer, CategoryRecognizer> columnIdxToCategoryRecognizer = new HashMap<>();
 
@@ -131,7 +132,33 @@ public class SemanticAnalyzer implements Analyzer<SemanticType> {
         return true;
     }
 
-    private void resizeCategoryRecognizer(String[] record) {
+    /**
+     * Analyze a batch of records given as columns, one category recognizer processing a whole column at a time. The
+     * limit of rows to handle applies as if each row was analyzed with {@link #analyze(String...)}.
+     */
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        results.resize(columns.length);
+        resizeCategoryRecognizer(columns);
+        int rowsToHandle = rowCount;
+        if (limit > 0) {
+            rowsToHandle = Math.max(0, Math.min(rowCount, limit - currentCount));
+        }
+        for (int i = 0; i < columns.length; i++) {
+            CategoryRecognizer categoryRecognizer = columnIdxToCategoryRecognizer.get(i);
+            if (categoryRecognizer == null) {
+                throw new DQSemanticRuntimeException("CategoryRecognizer is null for column i=" + i);
+            }
+            final String[] column = columns[i];
+            for (int row = 0; row < rowsToHandle; row++) {
+                categoryRecognizer.process(column[row]);
+            }
+        }
+        currentCount += rowsToHandle;
+        return true;
+    }
+
+    private void resizeCategoryRecognizer(Object[] record) {
         if (columnIdxToCategoryRecognizer.size() > 0) {
             // already resized
             return;
@@ -40,7 +40,7 @@ public class SemanticQualityAnalyzer extends QualityAnalyzer<ValueQualityStatist
 
     private static final Logger LOG = Logger.getLogger(SemanticQualityAnalyzer.class);
 
-    private final ResizableList<ValueQualityStatistics> results = new ResizableList<>(ValueQualityStatistics.class);
+    private final ResizableList<ValueQualityStatistics> results = new ResizableList<>(ValueQualityStatistics::new);
 
     private final Map<String, LFUCache<String, Boolean>> knownValidationCategoryCache = new HashMap<>();
 
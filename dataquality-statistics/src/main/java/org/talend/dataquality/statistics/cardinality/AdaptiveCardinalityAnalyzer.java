@@ -0,0 +1,163 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.cardinality;
+
+import java.util.List;
+
+import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.ColumnarAnalyzer;
+import org.talend.dataquality.common.inference.ResizableList;
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
+
+import com.clearspring.analytics.stream.cardinality.CardinalityMergeException;
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
+
+/**
+ * Count the distinct values exactly, as {@link CardinalityAnalyzer} does, until a column has more distinct values than
+ * the threshold, then estimate them with a {@link HyperLogLogPlus}, as {@link CardinalityHLLAnalyzer} does, without
+ * losing the values counted so far. See {@link AdaptiveCardinalityStatistics#isExact()} to know whether the distinct
+ * count of a column is exact.<br/>
+ * Analyzers with the same precision can be merged.
+ */
+public class AdaptiveCardinalityAnalyzer implements ColumnarAnalyzer<AdaptiveCardinalityStatistics> {
+
+    private static final long serialVersionUID = -3145532986457829071L;
+
+    static final int DEFAULT_THRESHOLD = 100000;
+
+    private int threshold = DEFAULT_THRESHOLD;
+
+    private int precision = CardinalityHLLAnalyzer.DEFAULT_PRECISION;
+
+    private int sparsePrecision = CardinalityHLLAnalyzer.DEFAULT_SPARSE_PRECISION;
+
+    private ResizableList<AdaptiveCardinalityStatistics> cardinalityStatistics = new ResizableList<>(
+            this::newStatistics);
+
+    public AdaptiveCardinalityAnalyzer() {
+    }
+
+    /**
+     * @param threshold the number of distinct values of a column beyond which its distinct count is estimated.
+     */
+    public AdaptiveCardinalityAnalyzer(int threshold) {
+        setThreshold(threshold);
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Set the number of distinct values of a column beyond which its distinct count is estimated, for the columns
+     * analyzed after the next call to {@link #init()}.
+     *
+     * @throws IllegalArgumentException if the threshold is negative.
+     */
+    public void setThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative: " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * Set the precisions of the {@link HyperLogLogPlus} estimators, see
+     * {@link CardinalityHLLAnalyzer#setPrecision(int, int)}.
+     *
+     * @throws IllegalArgumentException if the precisions are out of range.
+     */
+    public void setPrecision(int precision, int sparsePrecision) {
+        CardinalityHLLAnalyzer.checkPrecision(precision, sparsePrecision);
+        this.precision = precision;
+        this.sparsePrecision = sparsePrecision;
+    }
+
+    private AdaptiveCardinalityStatistics newStatistics() {
+        return new AdaptiveCardinalityStatistics(threshold, precision, sparsePrecision);
+    }
+
+    @Override
+    public boolean analyze(String... record) {
+        if (record == null) {
+            return true;
+        }
+        cardinalityStatistics.resize(record.length);
+        for (int i = 0; i < record.length; i++) {
+            final AdaptiveCardinalityStatistics cardStats = cardinalityStatistics.get(i);
+            cardStats.add(record[i]);
+            cardStats.incrementCount();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        cardinalityStatistics.resize(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            final AdaptiveCardinalityStatistics cardStats = cardinalityStatistics.get(i);
+            final String[] column = columns[i];
+            for (int row = 0; row < rowCount; row++) {
+                cardStats.add(column[row]);
+            }
+            cardStats.setCount(cardStats.getCount() + rowCount);
+        }
+        return true;
+    }
+
+    /**
+     * Merge the statistics of each column with the ones of another analyzer with the same precision.
+     *
+     * @throws DQStatisticsRuntimeException if the estimators of a column cannot be merged.
+     */
+    @Override
+    public Analyzer<AdaptiveCardinalityStatistics> merge(Analyzer<AdaptiveCardinalityStatistics> another) {
+        AdaptiveCardinalityAnalyzer mergedAnalyzer = new AdaptiveCardinalityAnalyzer(threshold);
+        mergedAnalyzer.precision = precision;
+        mergedAnalyzer.sparsePrecision = sparsePrecision;
+        List<AdaptiveCardinalityStatistics> anotherStatistics = another.getResult();
+        mergedAnalyzer.cardinalityStatistics.resize(Math.max(cardinalityStatistics.size(), anotherStatistics.size()));
+        for (int i = 0; i < mergedAnalyzer.cardinalityStatistics.size(); i++) {
+            AdaptiveCardinalityStatistics mergedStats = mergedAnalyzer.cardinalityStatistics.get(i);
+            try {
+                if (i < cardinalityStatistics.size()) {
+                    mergedStats.merge(cardinalityStatistics.get(i));
+                }
+                if (i < anotherStatistics.size()) {
+                    mergedStats.merge(anotherStatistics.get(i));
+                }
+            } catch (CardinalityMergeException e) {
+                throw new DQStatisticsRuntimeException("Unable to merge the cardinalities of column " + i, e);
+            }
+        }
+        return mergedAnalyzer;
+    }
+
+    @Override
+    public void init() {
+        cardinalityStatistics.clear();
+    }
+
+    @Override
+    public void end() {
+    }
+
+    @Override
+    public List<AdaptiveCardinalityStatistics> getResult() {
+        return cardinalityStatistics;
+    }
+
+    @Override
+    public void close() throws Exception {
+    }
+}
@@ -0,0 +1,168 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.cardinality;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.clearspring.analytics.stream.cardinality.CardinalityMergeException;
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
+
+/**
+ * Cardinality statistics which are exact while the column has few distinct values, and estimated beyond.<br>
+ * The distinct values are kept in a set, as by {@link CardinalityStatistics}, until their number exceeds the
+ * threshold. They are then offered to a {@link HyperLogLogPlus} and the set is dropped, so that the memory used by a
+ * column is bounded whatever its cardinality. {@link #isExact()} tells which of the two produced the distinct count.
+ * The <code>null</code> value is counted apart and never estimated.
+ */
+public class AdaptiveCardinalityStatistics extends AbstractCardinalityStatistics<AdaptiveCardinalityStatistics> {
+
+    private final int threshold;
+
+    private final int precision;
+
+    private final int sparsePrecision;
+
+    private Set<Object> distinctData = new HashSet<>();
+
+    private HyperLogLogPlus estimator = null;
+
+    private boolean nullValue;
+
+    public AdaptiveCardinalityStatistics() {
+        this(AdaptiveCardinalityAnalyzer.DEFAULT_THRESHOLD, CardinalityHLLAnalyzer.DEFAULT_PRECISION,
+                CardinalityHLLAnalyzer.DEFAULT_SPARSE_PRECISION);
+    }
+
+    /**
+     * @param threshold the number of distinct values beyond which the distinct count is estimated.
+     * @param precision the precision of the {@link HyperLogLogPlus}, see {@link CardinalityHLLAnalyzer#setPrecision}.
+     * @param sparsePrecision the sparse precision of the {@link HyperLogLogPlus}.
+     * @throws IllegalArgumentException if the threshold is negative or the precisions are out of range.
+     */
+    public AdaptiveCardinalityStatistics(int threshold, int precision, int sparsePrecision) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative: " + threshold);
+        }
+        CardinalityHLLAnalyzer.checkPrecision(precision, sparsePrecision);
+        this.threshold = threshold;
+        this.precision = precision;
+        this.sparsePrecision = sparsePrecision;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getSparsePrecision() {
+        return sparsePrecision;
+    }
+
+    /**
+     * @return true if the distinct count is exact, false if it is estimated.
+     */
+    public boolean isExact() {
+        return estimator == null;
+    }
+
+    /**
+     * @return the non null distinct values, an empty set once the distinct count is estimated.
+     */
+    public Set<Object> getDistinctData() {
+        return isExact() ? Collections.unmodifiableSet(distinctData) : Collections.emptySet();
+    }
+
+    /**
+     * @return the estimator of the non null distinct values, <code>null</code> while the distinct count is exact.
+     */
+    public HyperLogLogPlus getEstimator() {
+        return estimator;
+    }
+
+    /**
+     * @return true if the <code>null</code> value was added.
+     */
+    public boolean hasNullValue() {
+        return nullValue;
+    }
+
+    void setNullValue(boolean nullValue) {
+        this.nullValue = nullValue;
+    }
+
+    void setEstimator(HyperLogLogPlus estimator) {
+        this.estimator = estimator;
+        this.distinctData = null;
+    }
+
+    @Override
+    public long getDistinctCount() {
+        long distinctCount = isExact() ? distinctData.size() : estimator.cardinality();
+        return nullValue ? distinctCount + 1 : distinctCount;
+    }
+
+    @Override
+    public void add(Object colObj) {
+        if (colObj == null) {
+            nullValue = true;
+        } else if (isExact()) {
+            if (distinctData.add(colObj) && distinctData.size() > threshold) {
+                toEstimator();
+            }
+        } else {
+            estimator.offer(colObj);
+        }
+    }
+
+    /**
+     * Offer the distinct values to a new estimator, then drop them.
+     */
+    private void toEstimator() {
+        HyperLogLogPlus hyperLogLogPlus = new HyperLogLogPlus(precision, sparsePrecision);
+        for (Object value : distinctData) {
+            hyperLogLogPlus.offer(value);
+        }
+        setEstimator(hyperLogLogPlus);
+    }
+
+    /**
+     * <b>This method merges two instances of AdaptiveCardinalityStatistics. </b>
+     * <p>
+     * The result stays exact if both instances are exact and their union does not exceed the threshold of this
+     * instance. Otherwise the estimators are merged, an exact instance offering its distinct values to the estimator.
+     * </p>
+     *
+     * @param other An other instance of AdaptiveCardinalityStatistics
+     * @throws CardinalityMergeException if the estimators do not have the same precision.
+     */
+    @Override
+    public void merge(AdaptiveCardinalityStatistics other) throws CardinalityMergeException {
+        super.count += other.count;
+        nullValue |= other.nullValue;
+        if (other.isExact()) {
+            for (Object value : other.distinctData) {
+                add(value);
+            }
+            return;
+        }
+        if (isExact()) {
+            toEstimator();
+        }
+        estimator.addAll(other.estimator);
+    }
+}
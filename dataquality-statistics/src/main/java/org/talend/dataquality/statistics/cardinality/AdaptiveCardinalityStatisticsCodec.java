@@ -0,0 +1,85 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.cardinality;
+
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readBytes;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readVarLong;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeBytes;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeVarLong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.talend.dataquality.common.inference.StatisticsCodec;
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
+
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
+
+/**
+ * {@link StatisticsCodec} of {@link AdaptiveCardinalityStatistics}: the count, the threshold and precisions, whether
+ * the <code>null</code> value was added, then either the distinct string values or the compact serialized form of the
+ * estimator.
+ */
+public class AdaptiveCardinalityStatisticsCodec implements StatisticsCodec<AdaptiveCardinalityStatistics> {
+
+    @Override
+    public String getTypeId() {
+        return "adaptiveCardinality"; //$NON-NLS-1$
+    }
+
+    @Override
+    public void write(AdaptiveCardinalityStatistics statistics, DataOutput out) throws IOException {
+        writeVarLong(out, statistics.getCount());
+        writeVarLong(out, statistics.getThreshold());
+        out.writeByte(statistics.getPrecision());
+        out.writeByte(statistics.getSparsePrecision());
+        out.writeBoolean(statistics.hasNullValue());
+        out.writeBoolean(statistics.isExact());
+        if (statistics.isExact()) {
+            writeVarLong(out, statistics.getDistinctData().size());
+            for (Object value : statistics.getDistinctData()) {
+                if (!(value instanceof String)) {
+                    throw new DQStatisticsRuntimeException(
+                            "Unsupported distinct value type: " + value.getClass().getName());
+                }
+                writeString(out, (String) value);
+            }
+        } else {
+            writeBytes(out, statistics.getEstimator().getBytes());
+        }
+    }
+
+    @Override
+    public AdaptiveCardinalityStatistics read(DataInput in) throws IOException {
+        long count = readVarLong(in);
+        int threshold = (int) readVarLong(in);
+        int precision = in.readByte();
+        int sparsePrecision = in.readByte();
+        AdaptiveCardinalityStatistics statistics = new AdaptiveCardinalityStatistics(threshold, precision,
+                sparsePrecision);
+        statistics.setCount(count);
+        statistics.setNullValue(in.readBoolean());
+        if (in.readBoolean()) {
+            long size = readVarLong(in);
+            for (long i = 0; i < size; i++) {
+                statistics.add(readString(in));
+            }
+        } else {
+            statistics.setEstimator(HyperLogLogPlus.Builder.build(readBytes(in)));
+        }
+        return statistics;
+    }
+}
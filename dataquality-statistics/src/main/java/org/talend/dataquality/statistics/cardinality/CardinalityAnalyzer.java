@@ -14,21 +14,22 @@ package org.talend.dataquality.statistics.cardinality;
 
 import java.util.List;
 
-import org.apache.commons.lang.NotImplementedException;
 import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.ColumnarAnalyzer;
 import org.talend.dataquality.common.inference.ResizableList;
 
 /**
  * Be caution that this implementation will lead to serious memory issues when data becoming large. Use {
- * {@link CardinalityHLLAnalyzer} instead by loose the precision.
+ * {@link CardinalityHLLAnalyzer} instead by loose the precision, or {@link AdaptiveCardinalityAnalyzer} to loose it
+ * only for the columns with many distinct values.
  *
  * @author zhao
  */
-public class CardinalityAnalyzer implements Analyzer<CardinalityStatistics> {
+public class CardinalityAnalyzer implements ColumnarAnalyzer<CardinalityStatistics> {
 
     private static final long serialVersionUID = 1386109348901204598L;
 
-    private ResizableList<CardinalityStatistics> cardinalityStatistics = new ResizableList<>(CardinalityStatistics.class);
+    private ResizableList<CardinalityStatistics> cardinalityStatistics = new ResizableList<>(CardinalityStatistics::new);
 
     @Override
     public boolean analyze(String... record) {
@@ -46,9 +47,35 @@ public class CardinalityAnalyzer implements Analyzer<CardinalityStatistics> {
 
     }
 
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        cardinalityStatistics.resize(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            final CardinalityStatistics cardStats = cardinalityStatistics.get(i);
+            final String[] column = columns[i];
+            for (int row = 0; row < rowCount; row++) {
+                cardStats.add(column[row]);
+            }
+            cardStats.setCount(cardStats.getCount() + rowCount);
+        }
+        return true;
+    }
+
     @Override
     public Analyzer<CardinalityStatistics> merge(Analyzer<CardinalityStatistics> another) {
-        throw new NotImplementedException();
+        CardinalityAnalyzer mergedAnalyzer = new CardinalityAnalyzer();
+        List<CardinalityStatistics> anotherStatistics = another.getResult();
+        mergedAnalyzer.cardinalityStatistics.resize(Math.max(cardinalityStatistics.size(), anotherStatistics.size()));
+        for (int i = 0; i < mergedAnalyzer.cardinalityStatistics.size(); i++) {
+            CardinalityStatistics mergedStats = mergedAnalyzer.cardinalityStatistics.get(i);
+            if (i < cardinalityStatistics.size()) {
+                mergedStats.merge(cardinalityStatistics.get(i));
+            }
+            if (i < anotherStatistics.size()) {
+                mergedStats.merge(anotherStatistics.get(i));
+            }
+        }
+        return mergedAnalyzer;
     }
 
     @Override
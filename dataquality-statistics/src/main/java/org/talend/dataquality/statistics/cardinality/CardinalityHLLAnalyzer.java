@@ -14,19 +14,26 @@ package org.talend.dataquality.statistics.cardinality;
 
 import java.util.List;
 
-import org.apache.commons.lang.NotImplementedException;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.ResizableList;
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
 
+import com.clearspring.analytics.stream.cardinality.CardinalityMergeException;
 import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
 
 /**
  * Using hyperloglog estimating cardinalities (distinct count)<br/>
- * Parameter <code>rsd</code> can be set in order to have a better balance between precision and space. by {
- * {@link #setRelativeStandardDeviation(int)}<br/>
- * See more description about this parameter at <a href=
- * "https://github.com/addthis/stream-lib/blob/master/src/main/java/com/clearspring/analytics/stream/cardinality/HyperLogLog.java#L93"
- * >Hyper log log parameter</a>
+ * Each column is estimated by a {@link HyperLogLogPlus}, sparse at low cardinality. Its precision can be set in order
+ * to have a better balance between precision and space by {@link #setPrecision(int, int)}: the dense representation
+ * uses 2<sup>p</sup> registers for a relative standard deviation of about 1.04 / sqrt(2<sup>p</sup>), 0.2% with the
+ * default precision of 18, the highest one. The {@link HyperLogLog} of the former versions had 2<sup>20</sup> registers
+ * for 0.1%, at four times the memory of a dense estimator of precision 18: it can still be used with
+ * {@link #setRelativeStandardDeviation(int) setRelativeStandardDeviation(20)}.<br/>
+ * See more description about these parameters at <a href=
+ * "https://github.com/addthis/stream-lib/blob/master/src/main/java/com/clearspring/analytics/stream/cardinality/HyperLogLogPlus.java"
+ * >Hyper log log plus parameters</a><br/>
+ * Analyzers with the same precision can be merged, e.g. to union the distinct values of several partitions.
  *
  * @author zhao
  */
@@ -34,22 +41,62 @@ public class CardinalityHLLAnalyzer implements Analyzer<CardinalityHLLStatistics
 
     private static final long serialVersionUID = -5813206492367921798L;
 
-    int rsd = 20; // relative standard deviation
+    static final int DEFAULT_PRECISION = 18;
+
+    static final int DEFAULT_SPARSE_PRECISION = 25;
+
+    int rsd = 20; // log2 of the number of registers, named after the relative standard deviation
+
+    private boolean useHyperLogLog = false;
+
+    private int precision = DEFAULT_PRECISION;
+
+    private int sparsePrecision = DEFAULT_SPARSE_PRECISION;
 
     private ResizableList<CardinalityHLLStatistics> cardinalityStatistics = null;
 
     @Override
     public void init() {
-        cardinalityStatistics = new ResizableList<>(CardinalityHLLStatistics.class);
+        cardinalityStatistics = new ResizableList<>(CardinalityHLLStatistics::new);
     }
 
     /**
-     * Set the hyper log log parameter
+     * Estimate the cardinalities with a {@link HyperLogLog} instead of a {@link HyperLogLogPlus}, as the former
+     * versions did.
      *
-     * @param rsd
+     * @param rsd despite its name, the log2 of the number of registers of the {@link HyperLogLog}: 20 for the former
+     * default.
+     * @deprecated use {@link #setPrecision(int, int)}.
      */
+    @Deprecated
     public void setRelativeStandardDeviation(int rsd) {
         this.rsd = rsd;
+        this.useHyperLogLog = true;
+    }
+
+    /**
+     * Set the precisions of the {@link HyperLogLogPlus} estimators.
+     *
+     * @param precision the number of bits of the register index in the dense representation, from 4 to 18.
+     * @param sparsePrecision the number of bits of the register index in the sparse representation, from
+     * <code>precision</code> to 32, or 0 to disable the sparse representation.
+     * @throws IllegalArgumentException if the precisions are out of range.
+     */
+    public void setPrecision(int precision, int sparsePrecision) {
+        checkPrecision(precision, sparsePrecision);
+        this.precision = precision;
+        this.sparsePrecision = sparsePrecision;
+        this.useHyperLogLog = false;
+    }
+
+    static void checkPrecision(int precision, int sparsePrecision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18: " + precision);
+        }
+        if (sparsePrecision != 0 && (sparsePrecision < precision || sparsePrecision > 32)) {
+            throw new IllegalArgumentException(
+                    "Sparse precision must be 0 or between " + precision + " and 32: " + sparsePrecision);
+        }
     }
 
     @Override
@@ -60,8 +107,12 @@ public class CardinalityHLLAnalyzer implements Analyzer<CardinalityHLLStatistics
         cardinalityStatistics.resize(record.length);
         for (int i = 0; i < record.length; i++) {
             final CardinalityHLLStatistics cardStats = cardinalityStatistics.get(i);
-            if (cardStats.getHyperLogLog() == null) {
-                cardStats.setHyperLogLog(new HyperLogLog(rsd));
+            if (cardStats.getEstimator() == null) {
+                if (useHyperLogLog) {
+                    cardStats.setHyperLogLog(new HyperLogLog(rsd));
+                } else {
+                    cardStats.setHyperLogLogPlus(new HyperLogLogPlus(precision, sparsePrecision));
+                }
             }
             cardStats.add(record[i]);
             cardStats.incrementCount();
@@ -73,9 +124,40 @@ public class CardinalityHLLAnalyzer implements Analyzer<CardinalityHLLStatistics
     public void end() {
     }
 
+    /**
+     * Merge the estimators of each column with the ones of another analyzer with the same precision.
+     *
+     * @throws DQStatisticsRuntimeException if the estimators of a column cannot be merged.
+     */
     @Override
     public Analyzer<CardinalityHLLStatistics> merge(Analyzer<CardinalityHLLStatistics> another) {
-        throw new NotImplementedException();
+        CardinalityHLLAnalyzer mergedAnalyzer = new CardinalityHLLAnalyzer();
+        mergedAnalyzer.rsd = rsd;
+        mergedAnalyzer.useHyperLogLog = useHyperLogLog;
+        mergedAnalyzer.precision = precision;
+        mergedAnalyzer.sparsePrecision = sparsePrecision;
+        mergedAnalyzer.init();
+        List<CardinalityHLLStatistics> anotherStatistics = another.getResult();
+        int size = Math.max(sizeOf(cardinalityStatistics), sizeOf(anotherStatistics));
+        mergedAnalyzer.cardinalityStatistics.resize(size);
+        for (int i = 0; i < size; i++) {
+            CardinalityHLLStatistics mergedStats = mergedAnalyzer.cardinalityStatistics.get(i);
+            try {
+                if (i < sizeOf(cardinalityStatistics)) {
+                    mergedStats.merge(cardinalityStatistics.get(i));
+                }
+                if (i < sizeOf(anotherStatistics)) {
+                    mergedStats.merge(anotherStatistics.get(i));
+                }
+            } catch (CardinalityMergeException e) {
+                throw new DQStatisticsRuntimeException("Unable to merge the cardinalities of column " + i, e);
+            }
+        }
+        return mergedAnalyzer;
+    }
+
+    private static int sizeOf(List<?> statistics) {
+        return statistics == null ? 0 : statistics.size();
     }
 
     @Override
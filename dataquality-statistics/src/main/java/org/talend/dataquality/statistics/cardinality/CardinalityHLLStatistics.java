@@ -14,44 +14,81 @@ package org.talend.dataquality.statistics.cardinality;
 
 import com.clearspring.analytics.stream.cardinality.CardinalityMergeException;
 import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
+import com.clearspring.analytics.stream.cardinality.ICardinality;
 
 /**
- * Cardinality statistics bean of hyper log log .
+ * Cardinality statistics bean of hyper log log .<br>
+ * The distinct count is estimated by a {@link HyperLogLogPlus} (HLL++), which stays in a sparse representation while
+ * the cardinality is low, so that low cardinality columns take little memory. The {@link HyperLogLog} of the former
+ * versions is still supported. Estimators of the same kind and precision are merged register by register, and
+ * {@link ICardinality#getBytes()} gives their compact serialized form.
  *
  * @author zhao
  */
 public class CardinalityHLLStatistics extends AbstractCardinalityStatistics<CardinalityHLLStatistics> {
 
-    private HyperLogLog hyperLogLog = null;
+    private ICardinality estimator = null;
 
+    /**
+     * @return the {@link HyperLogLog} estimator, <code>null</code> if the estimator is a {@link HyperLogLogPlus} (the
+     * default one) or if there is no estimator yet.
+     * @deprecated use {@link #getEstimator()} instead, which returns the estimator whatever its kind.
+     */
+    @Deprecated
     public HyperLogLog getHyperLogLog() {
-        return hyperLogLog;
+        return estimator instanceof HyperLogLog ? (HyperLogLog) estimator : null;
     }
 
     public void setHyperLogLog(HyperLogLog hyperLogLog2) {
-        this.hyperLogLog = hyperLogLog2;
+        this.estimator = hyperLogLog2;
+    }
+
+    /**
+     * @return the {@link HyperLogLogPlus} estimator, <code>null</code> if the estimator is a {@link HyperLogLog}.
+     */
+    public HyperLogLogPlus getHyperLogLogPlus() {
+        return estimator instanceof HyperLogLogPlus ? (HyperLogLogPlus) estimator : null;
+    }
+
+    public void setHyperLogLogPlus(HyperLogLogPlus hyperLogLogPlus) {
+        this.estimator = hyperLogLogPlus;
+    }
+
+    /**
+     * @return the cardinality estimator, a {@link HyperLogLogPlus} or a {@link HyperLogLog}.
+     */
+    public ICardinality getEstimator() {
+        return estimator;
+    }
+
+    void setEstimator(ICardinality estimator) {
+        this.estimator = estimator;
     }
 
     public long getDistinctCount() {
-        return hyperLogLog.cardinality();
+        return estimator == null ? 0 : estimator.cardinality();
     }
 
     public void add(Object colObj) {
-        this.hyperLogLog.offer(colObj);
+        this.estimator.offer(colObj);
     }
 
     /**
      * <b>This method merges two instances of CardinalityHLLStatistics. </b>
      * <p>
-     * If the other instance is a instance of CardinalityHLLStatistics but its {@link HyperLogLog} instance
-     * cannot be merged with the current HyperLogLog instance, this method will throw the exception triggered by
-     * the {@link HyperLogLog#addAll(HyperLogLog)} method.
+     * The estimators are merged register by register. If the estimator of the other instance cannot be merged with
+     * the current one (another kind of estimator, or another precision), this method will throw the exception
+     * triggered by the {@link ICardinality#merge(ICardinality...)} method. An instance without estimator takes a copy
+     * of the other estimator.
      * </p>
      *
      * @param other An other instance of CardinalityHLLStatistics
      */
     public void merge(CardinalityHLLStatistics other) throws CardinalityMergeException {
-        this.hyperLogLog.addAll(other.hyperLogLog);
+        if (other.estimator != null) {
+            this.estimator = estimator == null ? other.estimator.merge() : estimator.merge(other.estimator);
+        }
         super.count += other.count;
     }
 }
@@ -0,0 +1,81 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.cardinality;
+
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readBytes;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readVarLong;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeBytes;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeVarLong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.talend.dataquality.common.inference.StatisticsCodec;
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
+
+import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
+import com.clearspring.analytics.stream.cardinality.ICardinality;
+
+/**
+ * {@link StatisticsCodec} of {@link CardinalityHLLStatistics}: the count, the kind of estimator, then the compact
+ * serialized form of the estimator given by {@link ICardinality#getBytes()} (the sparse list of a sparse
+ * {@link HyperLogLogPlus}, or its registers).
+ */
+public class CardinalityHLLStatisticsCodec implements StatisticsCodec<CardinalityHLLStatistics> {
+
+    private static final int NO_ESTIMATOR = 0;
+
+    private static final int HYPER_LOG_LOG = 1;
+
+    private static final int HYPER_LOG_LOG_PLUS = 2;
+
+    @Override
+    public String getTypeId() {
+        return "cardinalityHLL"; //$NON-NLS-1$
+    }
+
+    @Override
+    public void write(CardinalityHLLStatistics statistics, DataOutput out) throws IOException {
+        writeVarLong(out, statistics.getCount());
+        ICardinality estimator = statistics.getEstimator();
+        if (estimator == null) {
+            out.writeByte(NO_ESTIMATOR);
+        } else if (estimator instanceof HyperLogLogPlus) {
+            out.writeByte(HYPER_LOG_LOG_PLUS);
+            writeBytes(out, estimator.getBytes());
+        } else if (estimator instanceof HyperLogLog) {
+            out.writeByte(HYPER_LOG_LOG);
+            writeBytes(out, estimator.getBytes());
+        } else {
+            throw new DQStatisticsRuntimeException(
+                    "Unsupported cardinality estimator: " + estimator.getClass().getName());
+        }
+    }
+
+    @Override
+    public CardinalityHLLStatistics read(DataInput in) throws IOException {
+        CardinalityHLLStatistics statistics = new CardinalityHLLStatistics();
+        statistics.setCount(readVarLong(in));
+        int kind = in.readByte();
+        if (kind == HYPER_LOG_LOG_PLUS) {
+            statistics.setHyperLogLogPlus(HyperLogLogPlus.Builder.build(readBytes(in)));
+        } else if (kind == HYPER_LOG_LOG) {
+            statistics.setHyperLogLog(HyperLogLog.Builder.build(readBytes(in)));
+        } else if (kind != NO_ESTIMATOR) {
+            throw new IOException("Unknown cardinality estimator kind: " + kind);
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,76 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.cardinality;
+
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readVarLong;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeVarLong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.talend.dataquality.common.inference.StatisticsCodec;
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
+
+/**
+ * {@link StatisticsCodec} of {@link CardinalityStatistics}: the count followed by the distinct values, which may be
+ * <code>null</code> or strings as added by {@link CardinalityAnalyzer}.
+ */
+public class CardinalityStatisticsCodec implements StatisticsCodec<CardinalityStatistics> {
+
+    private static final int NULL_VALUE = 0;
+
+    private static final int STRING_VALUE = 1;
+
+    @Override
+    public String getTypeId() {
+        return "cardinality"; //$NON-NLS-1$
+    }
+
+    @Override
+    public void write(CardinalityStatistics statistics, DataOutput out) throws IOException {
+        writeVarLong(out, statistics.getCount());
+        writeVarLong(out, statistics.getDistinctData().size());
+        for (Object value : statistics.getDistinctData()) {
+            if (value == null) {
+                out.writeByte(NULL_VALUE);
+            } else if (value instanceof String) {
+                out.writeByte(STRING_VALUE);
+                writeString(out, (String) value);
+            } else {
+                throw new DQStatisticsRuntimeException(
+                        "Unsupported distinct value type: " + value.getClass().getName());
+            }
+        }
+    }
+
+    @Override
+    public CardinalityStatistics read(DataInput in) throws IOException {
+        CardinalityStatistics statistics = new CardinalityStatistics();
+        statistics.setCount(readVarLong(in));
+        long size = readVarLong(in);
+        for (long i = 0; i < size; i++) {
+            int tag = in.readByte();
+            if (tag == NULL_VALUE) {
+                statistics.add(null);
+            } else if (tag == STRING_VALUE) {
+                statistics.add(readString(in));
+            } else {
+                throw new IOException("Unknown distinct value tag: " + tag);
+            }
+        }
+        return statistics;
+    }
+}
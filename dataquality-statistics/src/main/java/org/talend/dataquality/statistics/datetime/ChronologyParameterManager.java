@@ -32,7 +32,22 @@ public class ChronologyParameterManager {
 
     private static final Locale DEFAULT_LOCALE = Locale.US;
 
-    private static Map<String, Locale> localeEraMap = null;
+    private static final Map<String, Locale> LOCALE_ERA_MAP = new HashMap<>();
+
+    static {
+        Locale localeTH = new Locale("th"); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("AD", Locale.US); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("BC", Locale.US); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("明治", Locale.JAPANESE); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("平成", Locale.JAPANESE); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("昭和", Locale.JAPANESE); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("大正", Locale.JAPANESE); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("هـ", new Locale("ar")); //$NON-NLS-1$//$NON-NLS-2$
+        LOCALE_ERA_MAP.put("民國", Locale.TRADITIONAL_CHINESE); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("民國前", Locale.TRADITIONAL_CHINESE); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("พ.ศ.", localeTH); //$NON-NLS-1$
+        LOCALE_ERA_MAP.put("ปีก่อนคริสต์กาลที่", localeTH); //$NON-NLS-1$
+    }
 
     private ChronologyParameterManager() {
 
@@ -59,10 +74,9 @@ public class ChronologyParameterManager {
         }
         int indexOf = value.indexOf(' ');
         if (indexOf != -1) {
-            initMapIfNeeded();
             // extract the era from the end of value.
             String era = value.substring(indexOf + 1, value.length());
-            Locale locale = localeEraMap.get(era);
+            Locale locale = LOCALE_ERA_MAP.get(era);
             if (locale != null) {
                 return locale;
             }
@@ -71,28 +85,6 @@ public class ChronologyParameterManager {
 
     }
 
-    /**
-     * 
-     * initialize localeEraMap once.
-     */
-    private static void initMapIfNeeded() {
-        if (localeEraMap == null) {
-            localeEraMap = new HashMap<>();
-            Locale localeTH = new Locale("th"); //$NON-NLS-1$
-            localeEraMap.put("AD", Locale.US); //$NON-NLS-1$
-            localeEraMap.put("BC", Locale.US); //$NON-NLS-1$
-            localeEraMap.put("明治", Locale.JAPANESE); //$NON-NLS-1$
-            localeEraMap.put("平成", Locale.JAPANESE); //$NON-NLS-1$
-            localeEraMap.put("昭和", Locale.JAPANESE); //$NON-NLS-1$
-            localeEraMap.put("大正", Locale.JAPANESE); //$NON-NLS-1$
-            localeEraMap.put("هـ", new Locale("ar")); //$NON-NLS-1$//$NON-NLS-2$
-            localeEraMap.put("民國", Locale.TRADITIONAL_CHINESE); //$NON-NLS-1$
-            localeEraMap.put("民國前", Locale.TRADITIONAL_CHINESE); //$NON-NLS-1$
-            localeEraMap.put("พ.ศ.", localeTH); //$NON-NLS-1$
-            localeEraMap.put("ปีก่อนคริสต์กาลที่", localeTH); //$NON-NLS-1$
-        }
-    }
-
     /**
      * 
      * Set Chronology for DateTimeFormatter by Locale.
@@ -51,12 +51,19 @@ public final class CustomDateTimePatternManager {
     }
 
     private static boolean isMatchCustomPatterns(String value, List<String> customPatterns, Locale locale) {
+        return findCustomPattern(value, customPatterns, locale) != null;
+    }
+
+    /**
+     * @return The first custom pattern which validates <code>value</code>, <code>null</code> if there is none.
+     */
+    static String findCustomPattern(String value, List<String> customPatterns, Locale locale) {
         for (String pattern : customPatterns) {
             if (SystemDateTimePatternManager.isMatchDateTimePattern(value, pattern, locale)) {
-                return true;
+                return pattern;
             }
         }
-        return false;
+        return null;
     }
 
     // for junit only
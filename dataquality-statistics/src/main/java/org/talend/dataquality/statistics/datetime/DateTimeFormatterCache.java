@@ -0,0 +1,158 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.datetime;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Thread-safe and size-bounded cache of {@link DateTimeFormatter} by pattern and locale.<br>
+ * Formatters are looked up by locale then by pattern, so that a lookup does not build any key. When the cache holds
+ * more than its maximum size, the formatters which were not looked up again since they were cached or since the
+ * previous eviction are removed (second chance eviction) until the cache is back to three quarters of its maximum
+ * size.<br>
+ * The factory may return <code>null</code> for an invalid pattern, this result is cached as well.
+ */
+final class DateTimeFormatterCache {
+
+    static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final int maxSize;
+
+    private final ConcurrentMap<Locale, ConcurrentMap<String, CachedFormatter>> formattersByLocale = //
+            new ConcurrentHashMap<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    DateTimeFormatterCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    DateTimeFormatterCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize); //$NON-NLS-1$
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param pattern A date time pattern.
+     * @param locale A locale.
+     * @param factory Creates the formatter when it is not cached yet. Two threads missing the same formatter at the
+     * same time may both call it, only one of the formatters is kept.
+     * @return The cached formatter of <code>pattern</code> and <code>locale</code>, possibly <code>null</code>.
+     */
+    DateTimeFormatter get(String pattern, Locale locale, BiFunction<String, Locale, DateTimeFormatter> factory) {
+        ConcurrentMap<String, CachedFormatter> formatters = formattersByLocale.get(locale);
+        if (formatters == null) {
+            ConcurrentMap<String, CachedFormatter> created = new ConcurrentHashMap<>();
+            formatters = formattersByLocale.putIfAbsent(locale, created);
+            if (formatters == null) {
+                formatters = created;
+            }
+        }
+        CachedFormatter cached = formatters.get(pattern);
+        if (cached == null) {
+            CachedFormatter created = new CachedFormatter(factory.apply(pattern, locale));
+            cached = formatters.putIfAbsent(pattern, created);
+            if (cached == null) {
+                if (size.incrementAndGet() > maxSize) {
+                    evict();
+                }
+                return created.formatter;
+            }
+        }
+        if (!cached.used) {
+            cached.used = true;
+        }
+        return cached.formatter;
+    }
+
+    /**
+     * Removes all the formatters.
+     */
+    void clear() {
+        evictionLock.lock();
+        try {
+            for (Map<String, CachedFormatter> formatters : formattersByLocale.values()) {
+                Iterator<CachedFormatter> iterator = formatters.values().iterator();
+                while (iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                    size.decrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of cached formatters.
+     */
+    int size() {
+        return size.get();
+    }
+
+    private void evict() {
+        // a thread which cannot take the lock leaves the eviction to the thread holding it, which checks the size
+        // again after releasing the lock
+        while (size.get() > maxSize && evictionLock.tryLock()) {
+            try {
+                final int target = maxSize - maxSize / 4;
+                // a formatter spared by the first pass is removed by the second one unless it is used in between,
+                // the next passes remove formatters whatever their use so that concurrent lookups cannot defeat the
+                // bound
+                boolean removable = true;
+                for (int pass = 0; removable && size.get() > target; pass++) {
+                    removable = pass < 2;
+                    for (Map<String, CachedFormatter> formatters : formattersByLocale.values()) {
+                        Iterator<CachedFormatter> iterator = formatters.values().iterator();
+                        while (iterator.hasNext() && size.get() > target) {
+                            CachedFormatter cached = iterator.next();
+                            if (cached.used && pass < 2) {
+                                cached.used = false;
+                            } else {
+                                iterator.remove();
+                                size.decrementAndGet();
+                                removable = true;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private static final class CachedFormatter {
+
+        private final DateTimeFormatter formatter;
+
+        private volatile boolean used;
+
+        private CachedFormatter(DateTimeFormatter formatter) {
+            this.formatter = formatter;
+        }
+    }
+}
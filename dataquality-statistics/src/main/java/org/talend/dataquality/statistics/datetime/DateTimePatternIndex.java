@@ -0,0 +1,534 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.datetime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+
+/**
+ * Index of grouped date or time regexes by the shape of the values they can match.<br>
+ * The shape of a regex is computed once from its source: possible lengths, possible numbers of digits, of letters and
+ * of other characters, and the set of character kinds it can contain (digit, letter, each ASCII punctuation
+ * character, other). The shape of a value is computed with a single scan of its characters, and
+ * {@link #getCandidates(String)} only returns the regexes whose shape can contain it, bucketed by value length.<br>
+ * The filter is conservative: a regex which is not anchored with <code>^...$</code> or which uses a construct not
+ * understood here is always a candidate, so that the regexes matching a value are exactly the same as without the
+ * index.
+ */
+final class DateTimePatternIndex {
+
+    /**
+     * Values longer than this (in code points) are checked against all regexes which can be that long.
+     */
+    private static final int MAX_INDEXED_LENGTH = 64;
+
+    private final List<Candidate> allCandidates;
+
+    /**
+     * Candidates which may match a value of each length, the last bucket for the lengths above
+     * {@link #MAX_INDEXED_LENGTH}.
+     */
+    private final List<List<Candidate>> candidatesByLength;
+
+    DateTimePatternIndex(List<Map<Pattern, String>> patternGroupList) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (int group = 0; group < patternGroupList.size(); group++) {
+            for (Entry<Pattern, String> entry : patternGroupList.get(group).entrySet()) {
+                candidates.add(new Candidate(group, entry.getKey(), entry.getValue(),
+                        RegexShapeParser.parse(entry.getKey().pattern())));
+            }
+        }
+        allCandidates = Collections.unmodifiableList(candidates);
+        candidatesByLength = new ArrayList<>(MAX_INDEXED_LENGTH + 2);
+        for (int length = 0; length <= MAX_INDEXED_LENGTH + 1; length++) {
+            List<Candidate> bucket = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                if (candidate.shape == null || candidate.shape.acceptsLength(length)) {
+                    bucket.add(candidate);
+                }
+            }
+            candidatesByLength.add(bucket);
+        }
+    }
+
+    /**
+     * @return The regexes which may match <code>value</code>, in the order of the pattern files.
+     */
+    List<Candidate> getCandidates(String value) {
+        final Shape valueShape = Shape.ofValue(value);
+        if (valueShape == null) {
+            return allCandidates;
+        }
+        final List<Candidate> bucket = candidatesByLength.get(Math.min(valueShape.minLength, MAX_INDEXED_LENGTH + 1));
+        final List<Candidate> candidates = new ArrayList<>();
+        for (Candidate candidate : bucket) {
+            if (candidate.shape == null || candidate.shape.accepts(valueShape)) {
+                candidates.add(candidate);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * A regex of the pattern files with its format.
+     */
+    static final class Candidate {
+
+        private final int group;
+
+        private final Pattern pattern;
+
+        private final String format;
+
+        /** <code>null</code> when the regex cannot be filtered. */
+        private final Shape shape;
+
+        private Candidate(int group, Pattern pattern, String format, Shape shape) {
+            this.group = group;
+            this.pattern = pattern;
+            this.format = format;
+            this.shape = shape;
+        }
+
+        /**
+         * @return The index of the group of the regex in the pattern file.
+         */
+        int getGroup() {
+            return group;
+        }
+
+        Pattern getPattern() {
+            return pattern;
+        }
+
+        String getFormat() {
+            return format;
+        }
+
+        boolean isFiltered() {
+            return shape != null;
+        }
+    }
+
+    /**
+     * Bounds of the character counts of a regex, or exact counts of a value (minimum equal to maximum).
+     */
+    static final class Shape {
+
+        static final int UNBOUNDED = Integer.MAX_VALUE;
+
+        static final long DIGIT = 1L;
+
+        static final long LETTER = 1L << 1;
+
+        static final long OTHER = 1L << 2;
+
+        /** Kind of each ASCII character, with one bit for each printable one which is neither a digit nor a letter. */
+        private static final long[] ASCII_KINDS = new long[128];
+
+        static final long ALL_KINDS;
+
+        static {
+            long all = DIGIT | LETTER | OTHER;
+            int bit = 3;
+            for (char ch = 0; ch < ASCII_KINDS.length; ch++) {
+                if (ch >= '0' && ch <= '9') {
+                    ASCII_KINDS[ch] = DIGIT;
+                } else if (Character.isLetter(ch)) {
+                    ASCII_KINDS[ch] = LETTER;
+                } else if (ch >= ' ' && ch < 127) {
+                    ASCII_KINDS[ch] = 1L << bit++;
+                    all |= ASCII_KINDS[ch];
+                } else {
+                    ASCII_KINDS[ch] = OTHER;
+                }
+            }
+            ALL_KINDS = all;
+        }
+
+        final int minLength;
+
+        final int maxLength;
+
+        final int minDigits;
+
+        final int maxDigits;
+
+        final int minLetters;
+
+        final int maxLetters;
+
+        final int minOthers;
+
+        final int maxOthers;
+
+        final long kinds;
+
+        private Shape(int[] bounds, long kinds) {
+            this.minLength = bounds[0];
+            this.maxLength = bounds[1];
+            this.minDigits = bounds[2];
+            this.maxDigits = bounds[3];
+            this.minLetters = bounds[4];
+            this.maxLetters = bounds[5];
+            this.minOthers = bounds[6];
+            this.maxOthers = bounds[7];
+            this.kinds = kinds;
+        }
+
+        static long kindOf(int codePoint) {
+            if (codePoint < ASCII_KINDS.length) {
+                return ASCII_KINDS[codePoint];
+            }
+            return Character.isLetter(codePoint) ? LETTER : OTHER;
+        }
+
+        /**
+         * @return The shape of one character of any of the given kinds.
+         */
+        static Shape ofCharacter(long kinds) {
+            final long otherKinds = kinds & ~(DIGIT | LETTER);
+            return new Shape(new int[] { 1, 1, //
+                    kinds == DIGIT ? 1 : 0, (kinds & DIGIT) != 0 ? 1 : 0, //
+                    kinds == LETTER ? 1 : 0, (kinds & LETTER) != 0 ? 1 : 0, //
+                    otherKinds == kinds ? 1 : 0, otherKinds != 0 ? 1 : 0 }, kinds);
+        }
+
+        /**
+         * @return The shape of an empty sequence.
+         */
+        static Shape empty() {
+            return new Shape(new int[8], 0);
+        }
+
+        /**
+         * @return The shape of <code>value</code>, or <code>null</code> if it ends with a line terminator (a
+         * <code>$</code> may match before it).
+         */
+        static Shape ofValue(String value) {
+            final int length = value.length();
+            if (length > 0 && isLineTerminator(value.charAt(length - 1))) {
+                return null;
+            }
+            int codePointCount = 0;
+            int digits = 0;
+            int letters = 0;
+            long kinds = 0;
+            for (int i = 0; i < length;) {
+                final int codePoint = value.codePointAt(i);
+                final long kind = kindOf(codePoint);
+                if (kind == DIGIT) {
+                    digits++;
+                } else if (kind == LETTER) {
+                    letters++;
+                }
+                kinds |= kind;
+                codePointCount++;
+                i += Character.charCount(codePoint);
+            }
+            final int others = codePointCount - digits - letters;
+            return new Shape(
+                    new int[] { codePointCount, codePointCount, digits, digits, letters, letters, others, others },
+                    kinds);
+        }
+
+        private static boolean isLineTerminator(char ch) {
+            return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+        }
+
+        /**
+         * @return The shape of this followed by <code>next</code>.
+         */
+        Shape then(Shape next) {
+            return new Shape(new int[] { add(minLength, next.minLength), add(maxLength, next.maxLength),
+                    add(minDigits, next.minDigits), add(maxDigits, next.maxDigits), add(minLetters, next.minLetters),
+                    add(maxLetters, next.maxLetters), add(minOthers, next.minOthers), add(maxOthers, next.maxOthers) },
+                    kinds | next.kinds);
+        }
+
+        /**
+         * @return The shape of this or <code>alternative</code>.
+         */
+        Shape or(Shape alternative) {
+            return new Shape(new int[] { Math.min(minLength, alternative.minLength),
+                    Math.max(maxLength, alternative.maxLength), Math.min(minDigits, alternative.minDigits),
+                    Math.max(maxDigits, alternative.maxDigits), Math.min(minLetters, alternative.minLetters),
+                    Math.max(maxLetters, alternative.maxLetters), Math.min(minOthers, alternative.minOthers),
+                    Math.max(maxOthers, alternative.maxOthers) }, kinds | alternative.kinds);
+        }
+
+        /**
+         * @return The shape of this repeated from <code>min</code> to <code>max</code> times.
+         */
+        Shape repeat(int min, int max) {
+            return new Shape(new int[] { multiply(minLength, min), multiply(maxLength, max),
+                    multiply(minDigits, min), multiply(maxDigits, max), multiply(minLetters, min),
+                    multiply(maxLetters, max), multiply(minOthers, min), multiply(maxOthers, max) },
+                    max == 0 ? 0 : kinds);
+        }
+
+        /**
+         * @return false if no value of <code>length</code> code points (or more, above {@link #MAX_INDEXED_LENGTH})
+         * can be matched by a regex with this shape.
+         */
+        boolean acceptsLength(int length) {
+            if (length > MAX_INDEXED_LENGTH) {
+                return maxLength >= length;
+            }
+            return minLength <= length && length <= maxLength;
+        }
+
+        /**
+         * @return false if a value with the given shape cannot be matched by a regex with this shape.
+         */
+        boolean accepts(Shape value) {
+            return (value.kinds & ~kinds) == 0 //
+                    && minLength <= value.minLength && value.minLength <= maxLength //
+                    && minDigits <= value.minDigits && value.minDigits <= maxDigits //
+                    && minLetters <= value.minLetters && value.minLetters <= maxLetters //
+                    && minOthers <= value.minOthers && value.minOthers <= maxOthers;
+        }
+
+        private static int add(int a, int b) {
+            return (int) Math.min((long) a + b, UNBOUNDED);
+        }
+
+        private static int multiply(int a, int times) {
+            if (a == 0 || times == 0) {
+                return 0;
+            }
+            return (int) Math.min((long) a * times, UNBOUNDED);
+        }
+    }
+
+    /**
+     * Computes the {@link Shape} of a regex anchored with <code>^...$</code>. Supports literals, escaped
+     * punctuation, <code>.</code>, <code>\d</code>, <code>\p{L}</code>, character classes with ranges, groups,
+     * alternations and quantifiers; anything else makes the regex unfiltered.
+     */
+    static final class RegexShapeParser {
+
+        /** Ranges wider than this are assumed to contain all kinds of characters. */
+        private static final int MAX_SCANNED_RANGE = 256;
+
+        private final String regex;
+
+        private int pos;
+
+        private RegexShapeParser(String regex) {
+            this.regex = regex;
+        }
+
+        /**
+         * @return The shape of the values matched by <code>regex</code>, or <code>null</code> if it cannot be computed.
+         * A top-level alternation such as <code>^a|b$</code> is not anchored on both ends (<code>^a</code> or
+         * <code>b$</code>), so its shape is not computed.
+         */
+        static Shape parse(String regex) {
+            final int length = regex.length();
+            if (length < 2 || regex.charAt(0) != '^' || regex.charAt(length - 1) != '$'
+                    || regex.charAt(length - 2) == '\\') {
+                return null;
+            }
+            RegexShapeParser parser = new RegexShapeParser(regex.substring(1, length - 1));
+            try {
+                // a sequence only: parsing stops at a '|' outside of groups and character classes
+                Shape shape = parser.parseSequence();
+                return parser.pos == parser.regex.length() ? shape : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private Shape parseAlternation() {
+            Shape shape = parseSequence();
+            while (pos < regex.length() && regex.charAt(pos) == '|') {
+                pos++;
+                shape = shape.or(parseSequence());
+            }
+            return shape;
+        }
+
+        private Shape parseSequence() {
+            Shape shape = Shape.empty();
+            while (pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+                shape = shape.then(parseQuantifier(parseAtom()));
+            }
+            return shape;
+        }
+
+        private Shape parseAtom() {
+            final int codePoint = regex.codePointAt(pos);
+            pos += Character.charCount(codePoint);
+            switch (codePoint) {
+            case '(':
+                if (pos < regex.length() && regex.charAt(pos) == '?') {
+                    throw unsupported();
+                }
+                Shape group = parseAlternation();
+                expect(')');
+                return group;
+            case '[':
+                return Shape.ofCharacter(parseClass());
+            case '\\':
+                return Shape.ofCharacter(parseEscape());
+            case '.':
+                return Shape.ofCharacter(Shape.ALL_KINDS);
+            case '^':
+            case '$':
+            case ')':
+            case '?':
+            case '*':
+            case '+':
+            case '{':
+                throw unsupported();
+            default:
+                return Shape.ofCharacter(Shape.kindOf(codePoint));
+            }
+        }
+
+        private Shape parseQuantifier(Shape atom) {
+            if (pos >= regex.length()) {
+                return atom;
+            }
+            final Shape quantified;
+            switch (regex.charAt(pos)) {
+            case '?':
+                pos++;
+                quantified = atom.repeat(0, 1);
+                break;
+            case '*':
+                pos++;
+                quantified = atom.repeat(0, Shape.UNBOUNDED);
+                break;
+            case '+':
+                pos++;
+                quantified = atom.repeat(1, Shape.UNBOUNDED);
+                break;
+            case '{':
+                pos++;
+                final int min = parseNumber();
+                int max = min;
+                if (pos < regex.length() && regex.charAt(pos) == ',') {
+                    pos++;
+                    max = pos < regex.length() && regex.charAt(pos) == '}' ? Shape.UNBOUNDED : parseNumber();
+                }
+                expect('}');
+                quantified = atom.repeat(min, max);
+                break;
+            default:
+                return atom;
+            }
+            // reluctant and possessive quantifiers match the same values
+            if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) {
+                pos++;
+            }
+            return quantified;
+        }
+
+        /**
+         * @return The kinds of the characters of a class, <code>[</code> excluded.
+         */
+        private long parseClass() {
+            if (pos < regex.length() && regex.charAt(pos) == '^') {
+                throw unsupported();
+            }
+            long kinds = 0;
+            boolean first = true;
+            while (pos < regex.length() && (first || regex.charAt(pos) != ']')) {
+                first = false;
+                final int from = regex.codePointAt(pos);
+                pos += Character.charCount(from);
+                if (from == '[' || from == '&') {
+                    throw unsupported();
+                }
+                if (from == '\\') {
+                    kinds |= parseEscape();
+                } else if (pos + 1 < regex.length() && regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']') {
+                    pos++;
+                    final int to = regex.codePointAt(pos);
+                    pos += Character.charCount(to);
+                    if (to == '\\' || to == '[') {
+                        throw unsupported();
+                    }
+                    kinds |= kindsOfRange(from, to);
+                } else {
+                    kinds |= Shape.kindOf(from);
+                }
+            }
+            expect(']');
+            return kinds;
+        }
+
+        private static long kindsOfRange(int from, int to) {
+            if (to < from) {
+                throw unsupported();
+            }
+            if (to - from > MAX_SCANNED_RANGE) {
+                return Shape.ALL_KINDS;
+            }
+            long kinds = 0;
+            for (int codePoint = from; codePoint <= to; codePoint++) {
+                kinds |= Shape.kindOf(codePoint);
+            }
+            return kinds;
+        }
+
+        /**
+         * @return The kinds of the characters matched by an escape, <code>\</code> excluded.
+         */
+        private long parseEscape() {
+            if (pos >= regex.length()) {
+                throw unsupported();
+            }
+            final char escaped = regex.charAt(pos++);
+            if (escaped == 'd') {
+                return Shape.DIGIT;
+            }
+            if (escaped == 'p' && regex.startsWith("{L}", pos)) { //$NON-NLS-1$
+                pos += 3;
+                return Shape.LETTER;
+            }
+            if (escaped < 128 && !Character.isLetterOrDigit(escaped)) {
+                return Shape.kindOf(escaped);
+            }
+            throw unsupported();
+        }
+
+        private int parseNumber() {
+            final int start = pos;
+            while (pos < regex.length() && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '9') {
+                pos++;
+            }
+            if (pos == start || pos - start > 6) {
+                throw unsupported();
+            }
+            return Integer.parseInt(regex.substring(start, pos));
+        }
+
+        private void expect(char expected) {
+            if (pos >= regex.length() || regex.charAt(pos) != expected) {
+                throw unsupported();
+            }
+            pos++;
+        }
+
+        private static IllegalArgumentException unsupported() {
+            return new IllegalArgumentException("Unsupported regex construct"); //$NON-NLS-1$
+        }
+    }
+}
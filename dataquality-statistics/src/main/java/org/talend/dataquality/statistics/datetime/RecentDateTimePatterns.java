@@ -0,0 +1,171 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.datetime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Date and time detection which remembers the patterns that recently validated values of one column.<br>
+ * The values of a column usually share one or two formats: {@link #isDate(String)} and {@link #isTime(String)} first
+ * try the few patterns which matched the previous values, most recent first, and only search all the custom and
+ * system patterns when none of them validates the value. The answers are the same as
+ * {@link CustomDateTimePatternManager#isDate(String, List, Locale)} and
+ * {@link SystemDateTimePatternManager#isTime(String)}.<br>
+ * Use one instance per column. <b>Important note:</b> This class is <b>NOT</b> thread safe.
+ */
+public final class RecentDateTimePatterns {
+
+    /**
+     * Number of patterns remembered for each kind (custom, system date, system time).
+     */
+    static final int CAPACITY = 4;
+
+    private static final Locale DEFAULT_LOCALE = Locale.US;
+
+    private final List<String> customPatterns;
+
+    private final Locale locale;
+
+    private final RecentList<String> recentCustomPatterns = new RecentList<>();
+
+    private final RecentList<DateTimePatternIndex.Candidate> recentDatePatterns = new RecentList<>();
+
+    private final RecentList<DateTimePatternIndex.Candidate> recentTimePatterns = new RecentList<>();
+
+    /**
+     * Date and time detection with the system patterns only.
+     */
+    public RecentDateTimePatterns() {
+        this(Collections.<String> emptyList());
+    }
+
+    /**
+     * @param customPatterns Custom date patterns checked before the system ones, with the US locale.
+     */
+    public RecentDateTimePatterns(List<String> customPatterns) {
+        this(customPatterns, DEFAULT_LOCALE);
+    }
+
+    /**
+     * @param customPatterns Custom date patterns checked before the system ones.
+     * @param locale The locale of the custom patterns.
+     */
+    public RecentDateTimePatterns(List<String> customPatterns, Locale locale) {
+        this.customPatterns = Collections.unmodifiableList(new ArrayList<>(customPatterns));
+        this.locale = locale;
+    }
+
+    /**
+     * @return The custom date patterns.
+     */
+    public List<String> getCustomPatterns() {
+        return customPatterns;
+    }
+
+    /**
+     * Same as {@link CustomDateTimePatternManager#isDate(String, List, Locale)} with the custom patterns and locale of
+     * this instance.
+     *
+     * @param value the value to check.
+     * @return true if the value is a date.
+     */
+    public boolean isDate(String value) {
+        for (int i = 0; i < recentCustomPatterns.size(); i++) {
+            if (SystemDateTimePatternManager.isMatchDateTimePattern(value, recentCustomPatterns.get(i), locale)) {
+                recentCustomPatterns.promote(i);
+                return true;
+            }
+        }
+        for (int i = 0; i < recentDatePatterns.size(); i++) {
+            if (SystemDateTimePatternManager.isDate(value, recentDatePatterns.get(i))) {
+                recentDatePatterns.promote(i);
+                return true;
+            }
+        }
+        final String customPattern = CustomDateTimePatternManager.findCustomPattern(value, customPatterns, locale);
+        if (customPattern != null) {
+            recentCustomPatterns.add(customPattern);
+            return true;
+        }
+        final DateTimePatternIndex.Candidate datePattern = SystemDateTimePatternManager.findDatePattern(value);
+        if (datePattern != null) {
+            recentDatePatterns.add(datePattern);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link SystemDateTimePatternManager#isTime(String)}.
+     *
+     * @param value the value to check.
+     * @return true if the value is a time.
+     */
+    public boolean isTime(String value) {
+        for (int i = 0; i < recentTimePatterns.size(); i++) {
+            if (SystemDateTimePatternManager.isTime(value, recentTimePatterns.get(i))) {
+                recentTimePatterns.promote(i);
+                return true;
+            }
+        }
+        final DateTimePatternIndex.Candidate timePattern = SystemDateTimePatternManager.findTimePattern(value);
+        if (timePattern != null) {
+            recentTimePatterns.add(timePattern);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The last {@link #CAPACITY} items added, most recently used first.
+     */
+    private static final class RecentList<T> {
+
+        private final Object[] items = new Object[CAPACITY];
+
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(int index) {
+            return (T) items[index];
+        }
+
+        /**
+         * Moves the item at <code>index</code> to the front.
+         */
+        void promote(int index) {
+            if (index > 0) {
+                final Object item = items[index];
+                System.arraycopy(items, 0, items, 1, index);
+                items[0] = item;
+            }
+        }
+
+        /**
+         * Adds an item at the front, the least recently used one is dropped if the list is full.
+         */
+        void add(T item) {
+            final int moved = Math.min(size, CAPACITY - 1);
+            System.arraycopy(items, 0, items, 1, moved);
+            items[0] = item;
+            size = moved + 1;
+        }
+    }
+}
@@ -14,22 +14,21 @@ package org.talend.dataquality.statistics.datetime;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.text.ParsePosition;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
-import java.time.format.DateTimeParseException;
 import java.time.format.ResolverStyle;
 import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalQueries;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
@@ -54,7 +53,17 @@ public class SystemDateTimePatternManager {
 
     private static List<Map<Pattern, String>> TIME_PATTERN_GROUP_LIST = new ArrayList<Map<Pattern, String>>();
 
-    private static Map<String, DateTimeFormatter> dateTimeFormatterCache = new HashMap<String, DateTimeFormatter>();
+    private static DateTimePatternIndex DATE_PATTERN_INDEX;
+
+    private static DateTimePatternIndex TIME_PATTERN_INDEX;
+
+    /**
+     * Formatters of the system, custom and chronology patterns, shared by all threads.
+     */
+    private static final DateTimeFormatterCache DATE_TIME_FORMATTER_CACHE = new DateTimeFormatterCache();
+
+    private static final BiFunction<String, Locale, DateTimeFormatter> FORMATTER_FACTORY = //
+            SystemDateTimePatternManager::createDateTimeFormatter;
 
     private static final String PATTERN_SUFFIX_ERA = "G"; //$NON-NLS-1$
 
@@ -67,10 +76,12 @@ public class SystemDateTimePatternManager {
         } catch (IOException e) {
             LOGGER.error("Unable to get date patterns.", e);
         }
+        DATE_PATTERN_INDEX = new DateTimePatternIndex(DATE_PATTERN_GROUP_LIST);
+        TIME_PATTERN_INDEX = new DateTimePatternIndex(TIME_PATTERN_GROUP_LIST);
 
     }
 
-    private static void loadPatterns(String patternFileName, List<Map<Pattern, String>> patternParsers) throws IOException {
+    static void loadPatterns(String patternFileName, List<Map<Pattern, String>> patternParsers) throws IOException {
         InputStream stream = SystemDateTimePatternManager.class.getResourceAsStream(patternFileName);
         try {
             List<String> lines = IOUtils.readLines(stream, "UTF-8");
@@ -102,14 +113,7 @@ public class SystemDateTimePatternManager {
      * @return true if the value is a date.
      */
     public static boolean isDate(String value) {
-        if (StringUtils.isEmpty(value)) {
-            return false;
-        }
-        // The length of date strings must not be less than 6, and must not exceed 64.
-        if (value.length() < 6 || value.length() > 64) {
-            return false;
-        }
-        return isDateTime(DATE_PATTERN_GROUP_LIST, value);
+        return findDatePattern(value) != null;
     }
 
     /**
@@ -119,56 +123,96 @@ public class SystemDateTimePatternManager {
      * @return true if the value is type "Time", false otherwise.
      */
     public static boolean isTime(String value) {
-        if (StringUtils.isEmpty(value)) {
-            return false;
+        return findTimePattern(value) != null;
+    }
+
+    /**
+     * @return The first system date pattern which validates <code>value</code>, <code>null</code> if it is not a
+     * date.
+     */
+    static DateTimePatternIndex.Candidate findDatePattern(String value) {
+        if (!hasDateLength(value)) {
+            return null;
         }
-        // The length of date strings must not be less than 4, and must not exceed 24.
-        if (value.length() < 4 || value.length() > 24) {
-            return false;
+        return findDateTimePattern(DATE_PATTERN_INDEX, value);
+    }
+
+    /**
+     * @return The first system time pattern which validates <code>value</code>, <code>null</code> if it is not a
+     * time.
+     */
+    static DateTimePatternIndex.Candidate findTimePattern(String value) {
+        if (!hasTimeLength(value)) {
+            return null;
         }
-        return isDateTime(TIME_PATTERN_GROUP_LIST, value);
+        return findDateTimePattern(TIME_PATTERN_INDEX, value);
     }
 
-    private static boolean isDateTime(List<Map<Pattern, String>> patternGroupList, String value) {
-        if (StringUtils.isNotEmpty(value)) {
-            // at least 3 digit
-            boolean hasEnoughDigits = false;
-            int digitCount = 0;
-            for (int i = 0; i < value.length(); i++) {
-                char ch = value.charAt(i);
-                if (ch >= '0' && ch <= '9') {
-                    digitCount++;
-                    if (digitCount > 2) {
-                        hasEnoughDigits = true;
-                        break;
-                    }
-                }
-            }
-            if (!hasEnoughDigits) {
-                return false;
-            }
+    /**
+     * @param datePattern A pattern returned by {@link #findDatePattern(String)}.
+     * @return true if <code>value</code> is a date validated by <code>datePattern</code>.
+     */
+    static boolean isDate(String value, DateTimePatternIndex.Candidate datePattern) {
+        return hasDateLength(value) && hasEnoughDigits(value) && isMatchCandidate(value, datePattern);
+    }
 
-            // Check the value with a list of regex patterns
-            for (Map<Pattern, String> patternMap : patternGroupList) {
-                for (Entry<Pattern, String> entry : patternMap.entrySet()) {
-                    Pattern parser = entry.getKey();
-                    try {
-                        if (parser.matcher(value).find()) {
-                            String dateFormat = entry.getValue();
-                            if (isMatchDateTimePattern(value, dateFormat, SYSTEM_LOCALE)) {
-                                return true;
-                            }
-                        }
-                    } catch (Exception e) {
-                        LOGGER.debug(e.getMessage(), e);
-                        // ignore
-                    }
+    /**
+     * @param timePattern A pattern returned by {@link #findTimePattern(String)}.
+     * @return true if <code>value</code> is a time validated by <code>timePattern</code>.
+     */
+    static boolean isTime(String value, DateTimePatternIndex.Candidate timePattern) {
+        return hasTimeLength(value) && hasEnoughDigits(value) && isMatchCandidate(value, timePattern);
+    }
+
+    private static boolean hasDateLength(String value) {
+        // The length of date strings must not be less than 6, and must not exceed 64.
+        return StringUtils.isNotEmpty(value) && value.length() >= 6 && value.length() <= 64;
+    }
+
+    private static boolean hasTimeLength(String value) {
+        // The length of date strings must not be less than 4, and must not exceed 24.
+        return StringUtils.isNotEmpty(value) && value.length() >= 4 && value.length() <= 24;
+    }
+
+    private static boolean hasEnoughDigits(String value) {
+        // at least 3 digit
+        int digitCount = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                digitCount++;
+                if (digitCount > 2) {
+                    return true;
                 }
             }
         }
         return false;
     }
 
+    private static DateTimePatternIndex.Candidate findDateTimePattern(DateTimePatternIndex patternIndex, String value) {
+        if (!hasEnoughDigits(value)) {
+            return null;
+        }
+        // Check the value with the regex patterns which may match its shape
+        for (DateTimePatternIndex.Candidate candidate : patternIndex.getCandidates(value)) {
+            if (isMatchCandidate(value, candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isMatchCandidate(String value, DateTimePatternIndex.Candidate candidate) {
+        try {
+            return candidate.getPattern().matcher(value).find()
+                    && isMatchDateTimePattern(value, candidate.getFormat(), SYSTEM_LOCALE);
+        } catch (Exception e) {
+            LOGGER.debug(e.getMessage(), e);
+            // ignore
+            return false;
+        }
+    }
+
     /**
      * Replace the value with date pattern string.
      * 
@@ -176,7 +220,7 @@ public class SystemDateTimePatternManager {
      * @return date pattern string.
      */
     public static Set<String> datePatternReplace(String value) {
-        return dateTimePatternReplace(DATE_PATTERN_GROUP_LIST, value);
+        return dateTimePatternReplace(DATE_PATTERN_INDEX, value);
     }
 
     /**
@@ -186,23 +230,25 @@ public class SystemDateTimePatternManager {
      * @return
      */
     public static Set<String> timePatternReplace(String value) {
-        return dateTimePatternReplace(TIME_PATTERN_GROUP_LIST, value);
+        return dateTimePatternReplace(TIME_PATTERN_INDEX, value);
     }
 
-    private static Set<String> dateTimePatternReplace(List<Map<Pattern, String>> patternGroupList, String value) {
+    private static Set<String> dateTimePatternReplace(DateTimePatternIndex patternIndex, String value) {
         if (StringUtils.isEmpty(value)) {
             return Collections.singleton(StringUtils.EMPTY);
         }
         HashSet<String> resultSet = new HashSet<>();
-        for (Map<Pattern, String> patternMap : patternGroupList) {
-            for (Entry<Pattern, String> entry : patternMap.entrySet()) {
-                Pattern parser = entry.getKey();
-                if (parser.matcher(value).find()) {
-                    resultSet.add(entry.getValue());
+        int currentGroup = -1;
+        for (DateTimePatternIndex.Candidate candidate : patternIndex.getCandidates(value)) {
+            if (candidate.getGroup() != currentGroup) {
+                // the formats of the first group with a matching regex
+                if (!resultSet.isEmpty()) {
+                    return resultSet;
                 }
+                currentGroup = candidate.getGroup();
             }
-            if (!resultSet.isEmpty()) {
-                return resultSet;
+            if (candidate.getPattern().matcher(value).find()) {
+                resultSet.add(candidate.getFormat());
             }
         }
         return resultSet;
@@ -218,40 +264,54 @@ public class SystemDateTimePatternManager {
         if (locale == null || StringUtils.isEmpty(customPattern)) {
             return null;
         }
-        String localeStr = locale.toString();
-        DateTimeFormatter formatter = dateTimeFormatterCache.get(customPattern + localeStr);
-        if (formatter == null) {
-            try {
-                // TDQ-13936 add Chronology for specified Locale.
-                if (customPattern.contains(PATTERN_SUFFIX_ERA)) {
-                    formatter = ChronologyParameterManager.getDateTimeFormatterWithChronology(customPattern, locale);
-                } else {
-                    // TDQ-14421 use ResolverStyle.STRICT to validate a date. such as "2017-02-29" should be
-                    // invalid.STRICT model for pattern without G,should replace 'y' with 'u'.see Java DOC.
-                    String customPatternStrict = customPattern.replace('y', 'u');
-                    formatter = new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(customPatternStrict)
-                            .toFormatter(locale).withResolverStyle(ResolverStyle.STRICT);
-                }
-            } catch (IllegalArgumentException e) {
-                LOGGER.debug(e.getMessage(), e);
-                return null;
+        return DATE_TIME_FORMATTER_CACHE.get(customPattern, locale, FORMATTER_FACTORY);
+    }
+
+    // for junit only
+    static void renewCache() {
+        DATE_TIME_FORMATTER_CACHE.clear();
+    }
+
+    private static DateTimeFormatter createDateTimeFormatter(String customPattern, Locale locale) {
+        try {
+            // TDQ-13936 add Chronology for specified Locale.
+            if (customPattern.contains(PATTERN_SUFFIX_ERA)) {
+                return ChronologyParameterManager.getDateTimeFormatterWithChronology(customPattern, locale);
             }
-            dateTimeFormatterCache.put(customPattern + localeStr, formatter);
+            // TDQ-14421 use ResolverStyle.STRICT to validate a date. such as "2017-02-29" should be
+            // invalid.STRICT model for pattern without G,should replace 'y' with 'u'.see Java DOC.
+            String customPatternStrict = customPattern.replace('y', 'u');
+            return new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(customPatternStrict)
+                    .toFormatter(locale).withResolverStyle(ResolverStyle.STRICT);
+        } catch (IllegalArgumentException e) {
+            LOGGER.debug(e.getMessage(), e);
+            return null;
         }
-        return formatter;
     }
 
-    private static boolean validateWithDateTimeFormatter(String value, DateTimeFormatter formatter) {
+    /**
+     * Same as checking the result of <code>formatter.parse(value)</code>, without throwing and catching a
+     * {@link java.time.format.DateTimeParseException} for each value which does not match the formatter: the value is
+     * parsed with a {@link ParsePosition}, which reports the failure by a <code>null</code> result or an error index.
+     * Only the values matching the formatter but invalid (such as "2017-02-30") still raise an exception internally,
+     * when they are resolved.
+     */
+    static boolean validateWithDateTimeFormatter(String value, DateTimeFormatter formatter) {
         if (formatter != null) {
+            final ParsePosition position = new ParsePosition(0);
+            final Object temporal;
             try {
-                final TemporalAccessor temporal = formatter.parse(value);
-                if (temporal != null && (temporal.query(TemporalQueries.localDate()) != null
-                        || temporal.query(TemporalQueries.localTime()) != null)) {
-                    return true;
-                }
-            } catch (DateTimeParseException e) {
+                temporal = formatter.toFormat().parseObject(value, position);
+            } catch (RuntimeException e) {
+                return false;
+            }
+            // parse(value) also requires the whole value to be parsed
+            if (temporal == null || position.getErrorIndex() >= 0 || position.getIndex() < value.length()) {
                 return false;
             }
+            final TemporalAccessor accessor = (TemporalAccessor) temporal;
+            return accessor.query(TemporalQueries.localDate()) != null
+                    || accessor.query(TemporalQueries.localTime()) != null;
         }
         return false;
     }
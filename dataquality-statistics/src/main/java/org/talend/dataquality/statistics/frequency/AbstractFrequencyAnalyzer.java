@@ -12,11 +12,14 @@
 // ============================================================================
 package org.talend.dataquality.statistics.frequency;
 
+import java.io.Closeable;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.commons.lang.NotImplementedException;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.ResizableList;
+import org.talend.dataquality.statistics.frequency.impl.AbstractFrequencyEvaluator;
 import org.talend.dataquality.statistics.frequency.impl.CMSFrequencyEvaluator;
 import org.talend.dataquality.statistics.frequency.impl.EFrequencyAlgorithm;
 import org.talend.dataquality.statistics.frequency.impl.NaiveFrequencyEvaluator;
@@ -53,6 +56,9 @@ public abstract class AbstractFrequencyAnalyzer<T extends AbstractFrequencyStati
     public void init() {
         if (freqTableStatistics != null) {
             freqTableStatistics.clear();
+        } else {
+            // an empty result list is available right after init, e.g. to restore a checkpoint
+            initFreqTableList(0);
         }
     }
 
@@ -79,8 +85,43 @@ public abstract class AbstractFrequencyAnalyzer<T extends AbstractFrequencyStati
     public void end() {
     }
 
+    /**
+     * Merge the frequency tables of each column with the ones of another analyzer. The tables must have been computed
+     * with the same algorithm and parameters, see {@link AbstractFrequencyEvaluator#merge(AbstractFrequencyEvaluator)}.
+     * A column only analyzed by one of the analyzers gets a {@link AbstractFrequencyEvaluator#copy() copy} of its
+     * table, so that closing either analyzer does not release the resources of the merged one.
+     * 
+     * @throws NotImplementedException if the analyzer does not implement {@link #newAnalyzer()}, or if the evaluator of
+     * a column only analyzed by one of the analyzers does not implement {@link AbstractFrequencyEvaluator#copy()}.
+     */
     @Override
     public Analyzer<T> merge(Analyzer<T> another) {
+        AbstractFrequencyAnalyzer<T> mergedAnalyzer = newAnalyzer();
+        mergedAnalyzer.setAlgorithm(algorithm);
+        List<T> results = getResult() == null ? Collections.<T> emptyList() : getResult();
+        List<T> anotherResults = another.getResult() == null ? Collections.<T> emptyList() : another.getResult();
+        mergedAnalyzer.initFreqTableList(Math.max(results.size(), anotherResults.size()));
+        for (int i = 0; i < mergedAnalyzer.freqTableStatistics.size(); i++) {
+            if (i >= anotherResults.size()) {
+                mergedAnalyzer.freqTableStatistics.get(i).setEvaluator(results.get(i).getEvaluator().copy());
+            } else if (i >= results.size()) {
+                mergedAnalyzer.freqTableStatistics.get(i).setEvaluator(anotherResults.get(i).getEvaluator().copy());
+            } else {
+                AbstractFrequencyEvaluator evaluator = results.get(i).getEvaluator();
+                mergedAnalyzer.freqTableStatistics.get(i)
+                        .setEvaluator(evaluator.merge(anotherResults.get(i).getEvaluator()));
+            }
+        }
+        return mergedAnalyzer;
+    }
+
+    /**
+     * Create an analyzer of the same type and settings as this one, without any result, to hold the merge of this
+     * analyzer with another one.
+     * 
+     * @return a new analyzer.
+     */
+    protected AbstractFrequencyAnalyzer<T> newAnalyzer() {
         throw new NotImplementedException();
     }
 
@@ -89,9 +130,19 @@ public abstract class AbstractFrequencyAnalyzer<T extends AbstractFrequencyStati
         return freqTableStatistics;
     }
 
+    /**
+     * Release the resources of the frequency tables, e.g. the temporary files of
+     * {@link EFrequencyAlgorithm#EXTERNAL_SORT}. The results must not be used afterwards.
+     */
     @Override
     public void close() throws Exception {
-
+        if (freqTableStatistics != null) {
+            for (T statistics : freqTableStatistics) {
+                if (statistics.getEvaluator() instanceof Closeable) {
+                    ((Closeable) statistics.getEvaluator()).close();
+                }
+            }
+        }
     }
 
 }
@@ -17,6 +17,7 @@ import java.util.Map;
 import org.talend.dataquality.statistics.frequency.impl.AbstractFrequencyEvaluator;
 import org.talend.dataquality.statistics.frequency.impl.CMSFrequencyEvaluator;
 import org.talend.dataquality.statistics.frequency.impl.EFrequencyAlgorithm;
+import org.talend.dataquality.statistics.frequency.impl.ExternalSortFrequencyEvaluator;
 import org.talend.dataquality.statistics.frequency.impl.NaiveFrequencyEvaluator;
 import org.talend.dataquality.statistics.frequency.impl.SSFrequencyEvaluator;
 
@@ -46,6 +47,9 @@ public abstract class AbstractFrequencyStatistics {
         case COUNT_MIN_SKETCH:
             evaluator = new CMSFrequencyEvaluator();
             break;
+        case EXTERNAL_SORT:
+            evaluator = new ExternalSortFrequencyEvaluator();
+            break;
         }
     }
 
@@ -69,12 +73,26 @@ public abstract class AbstractFrequencyStatistics {
         return evaluator.getFrequency(item);
     }
 
+    /**
+     * Get the maximum difference between the frequencies of this table and the actual ones.
+     * 
+     * @return the error bound, 0 when the frequencies are exact.
+     * @see AbstractFrequencyEvaluator#getErrorBound()
+     */
+    public long getErrorBound() {
+        return evaluator.getErrorBound();
+    }
+
     /**
      * Parameters set as:<br>
      * {@link CMSFrequencyEvaluator#EPS }<br>
      * {@link CMSFrequencyEvaluator#SEED}<br>
      * {@link CMSFrequencyEvaluator#CONFIDENCE}<br>
-     * {@link SSFrequencyEvaluator#CAPACITY}
+     * {@link CMSFrequencyEvaluator#TOP_K_CAPACITY}<br>
+     * {@link SSFrequencyEvaluator#CAPACITY}<br>
+     * {@link NaiveFrequencyEvaluator#INTERN_VALUES}<br>
+     * {@link ExternalSortFrequencyEvaluator#MEMORY_BUDGET}<br>
+     * {@link ExternalSortFrequencyEvaluator#SPILL_DIRECTORY}
      * 
      * @param params
      */
@@ -85,4 +103,12 @@ public abstract class AbstractFrequencyStatistics {
     public void add(String value) {
         evaluator.add(value);
     }
+
+    AbstractFrequencyEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    void setEvaluator(AbstractFrequencyEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
 }
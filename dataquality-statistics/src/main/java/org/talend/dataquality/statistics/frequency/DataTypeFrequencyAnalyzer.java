@@ -44,4 +44,8 @@ public class DataTypeFrequencyAnalyzer extends AbstractFrequencyAnalyzer<DataTyp
         freqTableStatistics = new ResizableList<>(freqTableList);
     }
 
+    @Override
+    protected DataTypeFrequencyAnalyzer newAnalyzer() {
+        return new DataTypeFrequencyAnalyzer();
+    }
 }
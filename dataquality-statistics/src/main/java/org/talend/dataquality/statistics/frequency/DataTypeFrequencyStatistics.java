@@ -81,4 +81,14 @@ public class DataTypeFrequencyStatistics extends AbstractFrequencyStatistics {
     public void add(String value) {
         evaluator.add(value);
     }
+
+    @Override
+    AbstractFrequencyEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    @Override
+    void setEvaluator(AbstractFrequencyEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
 }
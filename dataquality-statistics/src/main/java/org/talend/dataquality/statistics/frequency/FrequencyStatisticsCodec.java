@@ -0,0 +1,59 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.frequency;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import org.talend.dataquality.common.inference.StatisticsCodec;
+import org.talend.dataquality.statistics.frequency.impl.FrequencyEvaluatorCodec;
+
+/**
+ * {@link StatisticsCodec} of frequency statistics, whatever the algorithm used to compute them.
+ *
+ * @param <T> The type of frequency statistics.
+ */
+public class FrequencyStatisticsCodec<T extends AbstractFrequencyStatistics> implements StatisticsCodec<T> {
+
+    private final String typeId;
+
+    private final Supplier<T> statisticsSupplier;
+
+    /**
+     * @param typeId the identifier written in checkpoints, specific to the type of frequency statistics.
+     * @param statisticsSupplier creates empty statistics to restore the evaluator state into.
+     */
+    public FrequencyStatisticsCodec(String typeId, Supplier<T> statisticsSupplier) {
+        this.typeId = typeId;
+        this.statisticsSupplier = statisticsSupplier;
+    }
+
+    @Override
+    public String getTypeId() {
+        return typeId;
+    }
+
+    @Override
+    public void write(T statistics, DataOutput out) throws IOException {
+        FrequencyEvaluatorCodec.write(statistics.getEvaluator(), out);
+    }
+
+    @Override
+    public T read(DataInput in) throws IOException {
+        T statistics = statisticsSupplier.get();
+        statistics.setEvaluator(FrequencyEvaluatorCodec.read(in));
+        return statistics;
+    }
+}
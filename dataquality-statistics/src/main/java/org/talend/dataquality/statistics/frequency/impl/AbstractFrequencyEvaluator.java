@@ -14,6 +14,8 @@ package org.talend.dataquality.statistics.frequency.impl;
 
 import java.util.Map;
 
+import org.apache.commons.lang.NotImplementedException;
+
 /**
  * Abstract frequency evaluator.
  * 
@@ -31,7 +33,8 @@ public abstract class AbstractFrequencyEvaluator {
 
     /**
      * Get top k frequency table given evaluator's implementation. <br>
-     * Note that {@link CMSFrequencyEvaluator} has no frequency table and will return a empty map.
+     * The frequencies of {@link SSFrequencyEvaluator} and {@link CMSFrequencyEvaluator} are estimates, see
+     * {@link #getErrorBound()}.
      * 
      * @param topk
      * @return the top k frequency table.
@@ -48,10 +51,49 @@ public abstract class AbstractFrequencyEvaluator {
 
     /**
      * Get frequencies of given item. <br>
-     * Note that it's not available for {@link SSFrequencyEvaluator} .
+     * The frequencies of {@link SSFrequencyEvaluator} and {@link CMSFrequencyEvaluator} are estimates, see
+     * {@link #getErrorBound()}.
      * 
      * @param item
      * @return frequencies.
      */
     public abstract long getFrequency(String item);
+
+    /**
+     * Get the maximum difference between the frequencies returned by {@link #getFrequency(String)} or
+     * {@link #getTopK(int)} and the actual frequencies of the values added so far.
+     * <ul>
+     * <li>{@link NaiveFrequencyEvaluator}: 0, frequencies are exact.</li>
+     * <li>{@link SSFrequencyEvaluator}: the smallest counter once all the counters are used, 0 before. A monitored
+     * value is over-estimated by at most this bound, a value which is not monitored occurred at most this number of
+     * times.</li>
+     * <li>{@link CMSFrequencyEvaluator}: <code>epsOfTotalCount</code> times the total count. Frequencies are never
+     * under-estimated, and are over-estimated by at most this bound with the configured confidence.</li>
+     * </ul>
+     * 
+     * @return the error bound of the frequencies.
+     */
+    public abstract long getErrorBound();
+
+    /**
+     * Merge the frequencies of this evaluator with the ones of another evaluator of the same algorithm and
+     * parameters, e.g. computed on another partition of the data. Neither evaluator is modified.
+     * 
+     * @param another the evaluator to merge with this one.
+     * @return a new evaluator with the frequencies of both evaluators.
+     * @throws IllegalArgumentException thrown when the evaluators have different algorithms or parameters.
+     */
+    public abstract AbstractFrequencyEvaluator merge(AbstractFrequencyEvaluator another)
+            throws IllegalArgumentException;
+
+    /**
+     * Copy this evaluator, e.g. to merge it with nothing. This evaluator is not modified, and the copy does not share
+     * any state or resource with it.
+     * 
+     * @return a new evaluator with the parameters and frequencies of this one.
+     * @throws NotImplementedException if the evaluator does not support copies.
+     */
+    public AbstractFrequencyEvaluator copy() {
+        throw new NotImplementedException();
+    }
 }
@@ -12,41 +12,64 @@
 // ============================================================================
 package org.talend.dataquality.statistics.frequency.impl;
 
-import java.util.HashMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import com.clearspring.analytics.stream.frequency.FrequencyMergeException;
 import com.clearspring.analytics.stream.frequency.CountMinSketch;
 
 /**
  * Count min sketch statistics bean.<br/>
  * 
  * Frequency analyzer implemented with count min sketch algorithm.<br>
- * Note that this mean does <b>NOT</b> provide frequency table map, but provide a way to get the frequency with
- * specificed key.<br/>
- * Use {@link SSFrequencyAnalyzer} instead to obtain a frequency table.
- * 
- * Note that this mean does <b>NOT</b> provide frequency table map, but provide a way to get the frequency with
- * specificed key.<br>
+ * The frequency of any value is estimated by the sketch, see {@link #getErrorBound()}. The frequency table is made of
+ * the {@link #TOP_K_CAPACITY} values with the highest estimates when they were last added, their frequencies being
+ * estimated again by the sketch when the table is requested.<br>
+ * Evaluators with the same parameters can be merged: their sketches are added, and the values of both frequency
+ * tables with the highest estimates in the merged sketch are kept.
  * 
  * @author zhao
  *
  */
 public class CMSFrequencyEvaluator extends AbstractFrequencyEvaluator {
 
+    private static final int DEFAULT_TOP_K_CAPACITY = 1000;
+
     private CountMinSketch sketch = null;
 
+    private TopKCandidates topKCandidates = new TopKCandidates(DEFAULT_TOP_K_CAPACITY);
+
     public CMSFrequencyEvaluator() {
         sketch = new CountMinSketch(0.0001, 0.99, 123456);
     }
 
     public void initCountMinSketch(double epsOfTotalCount, double confidence, int seed) {
         sketch = new CountMinSketch(epsOfTotalCount, confidence, seed);
+        topKCandidates = new TopKCandidates(topKCandidates.getCapacity());
     }
 
     public CountMinSketch getCountMinSketch() {
         return sketch;
     }
 
+    void setCountMinSketch(CountMinSketch sketch) {
+        this.sketch = sketch;
+    }
+
+    TopKCandidates getTopKCandidates() {
+        return topKCandidates;
+    }
+
+    void setTopKCandidates(TopKCandidates topKCandidates) {
+        this.topKCandidates = topKCandidates;
+    }
+
     /**
      * See more parameters explaination from See
      * http://www.espertech.com/esper/release-5.2.0/esper-reference/html/functionreference.html
@@ -60,6 +83,9 @@ public class CMSFrequencyEvaluator extends AbstractFrequencyEvaluator {
         int seed = 123456;
         boolean isCreateNew = false;
         try {
+            if (params.get(TOP_K_CAPACITY) != null) {
+                topKCandidates = new TopKCandidates(Integer.valueOf(params.get(TOP_K_CAPACITY)));
+            }
             if (params.get(EPS) != null) {
                 epsOfTotalCount = Double.valueOf(params.get(EPS));
                 isCreateNew = true;
@@ -76,18 +102,35 @@ public class CMSFrequencyEvaluator extends AbstractFrequencyEvaluator {
             throw new IllegalArgumentException(e.getMessage());
         }
         if (isCreateNew) {
-            sketch = new CountMinSketch(epsOfTotalCount, confidence, seed);
+            initCountMinSketch(epsOfTotalCount, confidence, seed);
         }
     }
 
     @Override
     public void add(String value) {
         sketch.add(value, 1);
+        topKCandidates.offer(value, sketch.estimateCount(value));
     }
 
     @Override
     public Map<String, Long> getTopK(int topk) {
-        return new HashMap<String, Long>();
+        return getTopK(sketch, topKCandidates.getItems(), topk);
+    }
+
+    /**
+     * @return the <code>topk</code> items with the highest frequencies estimated by <code>countMinSketch</code>.
+     */
+    private static Map<String, Long> getTopK(CountMinSketch countMinSketch, Collection<String> items, int topk) {
+        List<Map.Entry<String, Long>> estimates = new ArrayList<>(items.size());
+        for (String item : items) {
+            estimates.add(new SimpleImmutableEntry<>(item, countMinSketch.estimateCount(item)));
+        }
+        estimates.sort(Map.Entry.<String, Long> comparingByValue().reversed());
+        Map<String, Long> freqTable = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, Long> estimate : estimates.subList(0, Math.min(topk, estimates.size()))) {
+            freqTable.put(estimate.getKey(), estimate.getValue());
+        }
+        return freqTable;
     }
 
     @Override
@@ -95,6 +138,48 @@ public class CMSFrequencyEvaluator extends AbstractFrequencyEvaluator {
         return sketch.estimateCount(item);
     }
 
+    @Override
+    public long getErrorBound() {
+        return (long) Math.ceil(sketch.getRelativeError() * sketch.size());
+    }
+
+    /**
+     * Merge with another count min sketch evaluator. The sketches must have the same dimensions, and should have the
+     * same seed: only the dimensions are checked.
+     */
+    @Override
+    public AbstractFrequencyEvaluator merge(AbstractFrequencyEvaluator another) {
+        if (!(another instanceof CMSFrequencyEvaluator)) {
+            throw new IllegalArgumentException("Cannot merge a count min sketch frequency evaluator with " + another);
+        }
+        CMSFrequencyEvaluator anotherEvaluator = (CMSFrequencyEvaluator) another;
+        CMSFrequencyEvaluator merged = new CMSFrequencyEvaluator();
+        try {
+            merged.sketch = CountMinSketch.merge(sketch, anotherEvaluator.sketch);
+        } catch (FrequencyMergeException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        Set<String> items = new LinkedHashSet<>(topKCandidates.getItems());
+        items.addAll(anotherEvaluator.topKCandidates.getItems());
+        int capacity = Math.max(topKCandidates.getCapacity(), anotherEvaluator.topKCandidates.getCapacity());
+        merged.topKCandidates = new TopKCandidates(capacity);
+        for (Map.Entry<String, Long> estimate : getTopK(merged.sketch, items, capacity).entrySet()) {
+            merged.topKCandidates.offer(estimate.getKey(), estimate.getValue());
+        }
+        return merged;
+    }
+
+    @Override
+    public AbstractFrequencyEvaluator copy() {
+        CMSFrequencyEvaluator copy = new CMSFrequencyEvaluator();
+        copy.sketch = CountMinSketch.deserialize(CountMinSketch.serialize(sketch));
+        copy.topKCandidates = new TopKCandidates(topKCandidates.getCapacity());
+        for (String item : topKCandidates.getItems()) {
+            copy.topKCandidates.offer(item, sketch.estimateCount(item));
+        }
+        return copy;
+    }
+
     /**
      * EPS Specifies the accuracy (number of values counted * accuracy >= number of errors) of type
      */
@@ -110,4 +195,10 @@ public class CMSFrequencyEvaluator extends AbstractFrequencyEvaluator {
      */
     public static final String SEED = "seed";
 
+    /**
+     * TOP_K_CAPACITY The number of values with the highest estimated frequencies kept for {@link #getTopK(int)}, of
+     * type integer. The default is 1000.
+     */
+    public static final String TOP_K_CAPACITY = "topKCapacity";
+
 }
@@ -15,5 +15,9 @@ package org.talend.dataquality.statistics.frequency.impl;
 public enum EFrequencyAlgorithm {
     NAIVE(),
     COUNT_MIN_SKETCH(),
-    SPACE_SAVER();
+    SPACE_SAVER(),
+    /**
+     * Exact frequencies counted within a memory budget, spilling sorted runs to disk over it.
+     */
+    EXTERNAL_SORT();
 }
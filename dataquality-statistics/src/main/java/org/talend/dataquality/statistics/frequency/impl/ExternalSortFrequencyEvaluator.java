@@ -0,0 +1,471 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.frequency.impl;
+
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readVarLong;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeVarLong;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.function.ObjLongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
+
+/**
+ * Exact frequency evaluator with a bounded memory footprint, for columns with too many distinct values to be counted
+ * in memory.<br>
+ * Values are counted in a {@link FrequencyTable} until its estimated size reaches {@link #MEMORY_BUDGET}. The table is
+ * then sorted by value and written to a temporary file (a sorted run), and counting starts again with an empty table.
+ * Frequencies are computed by merging the runs and the table in value order, the occurrences of a value in several
+ * runs being added, so that the result is exact. The runs are merged by levels to bound the number of open files:
+ * written runs are of level 0, and once {@link #MAX_RUNS} runs of the same level follow each other, they are merged
+ * into a single run of the next level. Each value is thus rewritten once per level, a number of times logarithmic in
+ * the number of spills.<br>
+ * {@link #getFrequency(String)} and {@link #getTopK(int)} read all the runs once spilled, each call costing a full
+ * merge: prefer one {@link #forEachFrequency(ObjLongConsumer)} to read all the frequencies.<br>
+ * The temporary files are deleted by {@link #close()} only, which must be called once the evaluator is no longer used.
+ * <b>Important note:</b> This class is <b>NOT</b> thread safe.
+ */
+public class ExternalSortFrequencyEvaluator extends AbstractFrequencyEvaluator implements Closeable {
+
+    /**
+     * MEMORY_BUDGET The estimated size in bytes of the values counted in memory before they are spilled to disk, of
+     * type long. The default is 64 MB.
+     */
+    public static final String MEMORY_BUDGET = "memoryBudget";
+
+    /**
+     * SPILL_DIRECTORY The directory of the temporary files. The default is the <code>java.io.tmpdir</code> directory.
+     */
+    public static final String SPILL_DIRECTORY = "spillDirectory";
+
+    static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    /** Number of runs of the same level merged into one run of the next level. */
+    static final int MAX_RUNS = 64;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExternalSortFrequencyEvaluator.class);
+
+    /**
+     * Estimated size of a distinct value besides its characters: the string and array headers, and the table slots.
+     */
+    private static final long VALUE_OVERHEAD = 80;
+
+    /** Null first, then natural order. */
+    private static final Comparator<String> VALUE_ORDER = Comparator.nullsFirst(Comparator.<String> naturalOrder());
+
+    private final FrequencyTable frequencyTable = new FrequencyTable();
+
+    /** Runs from the oldest to the newest one, their levels never increase. */
+    private final List<File> runs = new ArrayList<>();
+
+    /** Level of each run. */
+    private final List<Integer> runLevels = new ArrayList<>();
+
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+    private File spillDirectory;
+
+    private long estimatedMemory;
+
+    @Override
+    public void setParameters(Map<String, String> params) throws IllegalArgumentException {
+        if (params.get(MEMORY_BUDGET) != null) {
+            try {
+                setMemoryBudget(Long.parseLong(params.get(MEMORY_BUDGET)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+        }
+        if (params.get(SPILL_DIRECTORY) != null) {
+            spillDirectory = new File(params.get(SPILL_DIRECTORY));
+        }
+    }
+
+    long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * @return the number of sorted runs written to disk.
+     */
+    int getRunCount() {
+        return runs.size();
+    }
+
+    @Override
+    public void add(String value) {
+        add(value, 1);
+    }
+
+    void add(String value, long frequency) {
+        int size = frequencyTable.size();
+        frequencyTable.add(value, frequency);
+        if (frequencyTable.size() > size) {
+            estimatedMemory += VALUE_OVERHEAD + (value == null ? 0 : 2L * value.length());
+            if (estimatedMemory >= memoryBudget) {
+                spill();
+            }
+        }
+    }
+
+    @Override
+    public long getFrequency(String item) {
+        long frequency = frequencyTable.get(item);
+        for (File run : runs) {
+            try (RunReader reader = new RunReader(run)) {
+                while (reader.next()) {
+                    int comparison = VALUE_ORDER.compare(reader.value, item);
+                    if (comparison == 0) {
+                        frequency += reader.frequency;
+                    }
+                    if (comparison >= 0) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new DQStatisticsRuntimeException("Unable to read the frequency run " + run, e);
+            }
+        }
+        return frequency;
+    }
+
+    /**
+     * The most frequent values are selected with a min-heap of <code>topk</code> entries while the runs are merged.<br>
+     * Unlike the other evaluators, all the values cannot be requested with a non positive <code>topk</code>: they may
+     * not fit in memory, use {@link #forEachFrequency(ObjLongConsumer)} instead.
+     * 
+     * @throws IllegalArgumentException if <code>topk</code> is not positive.
+     */
+    @Override
+    public Map<String, Long> getTopK(int topk) {
+        if (topk <= 0) {
+            throw new IllegalArgumentException(
+                    "The number of values must be positive, use forEachFrequency to visit all the values: " + topk);
+        }
+        if (runs.isEmpty()) {
+            return frequencyTable.getTopK(topk);
+        }
+        final Comparator<Entry<String, Long>> byFrequency = Entry.comparingByValue();
+        final PriorityQueue<Entry<String, Long>> heap = new PriorityQueue<>(topk, byFrequency);
+        forEachFrequency((value, frequency) -> {
+            if (heap.size() < topk) {
+                heap.add(new SimpleImmutableEntry<>(value, frequency));
+            } else if (frequency > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(new SimpleImmutableEntry<>(value, frequency));
+            }
+        });
+        final List<Entry<String, Long>> all = new ArrayList<>(heap);
+        all.sort(byFrequency.reversed());
+        Map<String, Long> topKMap = new LinkedHashMap<>();
+        for (Entry<String, Long> entry : all) {
+            topKMap.put(entry.getKey(), entry.getValue());
+        }
+        return topKMap;
+    }
+
+    /**
+     * Visit the exact frequency of every distinct value, in value order (<code>null</code> first).
+     *
+     * @param consumer receives each value and its frequency.
+     * @throws DQStatisticsRuntimeException if a run cannot be read.
+     */
+    public void forEachFrequency(ObjLongConsumer<String> consumer) {
+        final List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (File run : runs) {
+                readers.add(new RunReader(run));
+            }
+            merge(readers, sortedTable(), consumer);
+        } catch (IOException e) {
+            throw new DQStatisticsRuntimeException("Unable to read the frequency runs", e);
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    @Override
+    public long getErrorBound() {
+        return 0;
+    }
+
+    /**
+     * The merged evaluator has the memory budget and spill directory of this one, and its own temporary files.
+     */
+    @Override
+    public AbstractFrequencyEvaluator merge(AbstractFrequencyEvaluator another) {
+        if (!(another instanceof ExternalSortFrequencyEvaluator)) {
+            throw new IllegalArgumentException("Cannot merge an external sort frequency evaluator with " + another);
+        }
+        ExternalSortFrequencyEvaluator merged = new ExternalSortFrequencyEvaluator();
+        merged.memoryBudget = memoryBudget;
+        merged.spillDirectory = spillDirectory;
+        forEachFrequency(merged::add);
+        ((ExternalSortFrequencyEvaluator) another).forEachFrequency(merged::add);
+        return merged;
+    }
+
+    /**
+     * The copy has its own temporary files.
+     */
+    @Override
+    public AbstractFrequencyEvaluator copy() {
+        return merge(new ExternalSortFrequencyEvaluator());
+    }
+
+    /**
+     * Delete the temporary files and forget all the frequencies.
+     */
+    @Override
+    public void close() {
+        for (File run : runs) {
+            delete(run);
+        }
+        runs.clear();
+        runLevels.clear();
+        frequencyTable.clear();
+        estimatedMemory = 0;
+    }
+
+    /**
+     * @return the values of the table, sorted.
+     */
+    private String[] sortedTable() {
+        final String[] values = new String[frequencyTable.size()];
+        int count = 0;
+        for (int slot = 0; slot < frequencyTable.getSlotCount(); slot++) {
+            if (frequencyTable.isUsed(slot)) {
+                values[count++] = frequencyTable.getValue(slot);
+            }
+        }
+        Arrays.sort(values, VALUE_ORDER);
+        return values;
+    }
+
+    private void spill() {
+        try {
+            final File run = File.createTempFile("dq-frequency-", ".run", spillDirectory); //$NON-NLS-1$ //$NON-NLS-2$
+            final String[] values = sortedTable();
+            boolean written = false;
+            try (DataOutputStream out = newOutput(run)) {
+                writeVarLong(out, values.length);
+                for (String value : values) {
+                    writeString(out, value);
+                    writeVarLong(out, frequencyTable.get(value));
+                }
+                written = true;
+            } finally {
+                if (!written) {
+                    // not a run yet, close() would not delete it
+                    delete(run);
+                }
+            }
+            runs.add(run);
+            runLevels.add(0);
+            frequencyTable.clear();
+            estimatedMemory = 0;
+            compactRuns();
+        } catch (IOException e) {
+            throw new DQStatisticsRuntimeException("Unable to spill frequencies to disk", e);
+        }
+    }
+
+    /**
+     * Merge the newest runs into a run of the next level as long as there are {@link #MAX_RUNS} of them with the same
+     * level.
+     */
+    private void compactRuns() throws IOException {
+        while (runs.size() >= MAX_RUNS) {
+            final int from = runs.size() - MAX_RUNS;
+            final int level = runLevels.get(from);
+            if (runLevels.get(runs.size() - 1) != level) {
+                return;
+            }
+            final List<File> newestRuns = runs.subList(from, runs.size());
+            final File compacted = mergeRuns(newestRuns);
+            for (File run : newestRuns) {
+                delete(run);
+            }
+            newestRuns.clear();
+            runLevels.subList(from, runLevels.size()).clear();
+            runs.add(compacted);
+            runLevels.add(level + 1);
+        }
+    }
+
+    /**
+     * Merge runs into a new one.
+     */
+    private File mergeRuns(List<File> runsToMerge) throws IOException {
+        final File compacted = File.createTempFile("dq-frequency-", ".run", spillDirectory); //$NON-NLS-1$ //$NON-NLS-2$
+        boolean written = false;
+        try {
+            writeMergedRuns(runsToMerge, compacted);
+            written = true;
+        } finally {
+            if (!written) {
+                delete(compacted);
+            }
+        }
+        return compacted;
+    }
+
+    private void writeMergedRuns(List<File> runsToMerge, File compacted) throws IOException {
+        // the number of distinct values is known after the merge only, it is written in a first pass
+        final long[] count = { 0 };
+        final List<RunReader> readers = new ArrayList<>(runsToMerge.size());
+        try {
+            for (File run : runsToMerge) {
+                readers.add(new RunReader(run));
+            }
+            merge(readers, new String[0], (value, frequency) -> count[0]++);
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+        readers.clear();
+        try (DataOutputStream out = newOutput(compacted)) {
+            writeVarLong(out, count[0]);
+            for (File run : runsToMerge) {
+                readers.add(new RunReader(run));
+            }
+            merge(readers, new String[0], (value, frequency) -> {
+                try {
+                    writeString(out, value);
+                    writeVarLong(out, frequency);
+                } catch (IOException e) {
+                    throw new DQStatisticsRuntimeException("Unable to write the frequency run " + compacted, e);
+                }
+            });
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Merge the sorted runs and the sorted values of the table, adding the frequencies of equal values.
+     */
+    private void merge(List<RunReader> readers, String[] tableValues, ObjLongConsumer<String> consumer)
+            throws IOException {
+        final PriorityQueue<RunReader> queue = new PriorityQueue<>(readers.size() + 1,
+                (reader1, reader2) -> VALUE_ORDER.compare(reader1.value, reader2.value));
+        for (RunReader reader : readers) {
+            if (reader.next()) {
+                queue.add(reader);
+            }
+        }
+        int tableIndex = 0;
+        while (!queue.isEmpty() || tableIndex < tableValues.length) {
+            final String value;
+            long frequency = 0;
+            if (queue.isEmpty() || tableIndex < tableValues.length
+                    && VALUE_ORDER.compare(tableValues[tableIndex], queue.peek().value) <= 0) {
+                value = tableValues[tableIndex++];
+                frequency = frequencyTable.get(value);
+            } else {
+                value = queue.peek().value;
+            }
+            while (!queue.isEmpty() && VALUE_ORDER.compare(queue.peek().value, value) == 0) {
+                RunReader reader = queue.poll();
+                frequency += reader.frequency;
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            consumer.accept(value, frequency);
+        }
+    }
+
+    private static DataOutputStream newOutput(File file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    }
+
+    private static void delete(File file) {
+        if (!file.delete() && file.exists()) {
+            LOG.warn("Unable to delete the frequency run " + file);
+        }
+    }
+
+    /**
+     * Sequential reader of a sorted run.
+     */
+    private static final class RunReader implements Closeable {
+
+        private final DataInputStream in;
+
+        private long remaining;
+
+        private String value;
+
+        private long frequency;
+
+        private RunReader(File run) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(run)));
+            try {
+                remaining = readVarLong(in);
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private boolean next() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            value = readString(in);
+            frequency = readVarLong(in);
+            return true;
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                LOG.warn("Unable to close a frequency run", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.frequency.impl;
+
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readBytes;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readVarLong;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeBytes;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeVarLong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
+import org.talend.dataquality.statistics.frequency.impl.SSFrequencyEvaluator.IndexedStreamSummary;
+
+import com.clearspring.analytics.stream.frequency.CountMinSketch;
+
+/**
+ * Binary encoding of a frequency evaluator: the name of its {@link EFrequencyAlgorithm} followed by its state.
+ * <ul>
+ * <li>{@link NaiveFrequencyEvaluator}: the number of distinct values, then each value and its frequency.</li>
+ * <li>{@link SSFrequencyEvaluator}: the bytes of the stream summary.</li>
+ * <li>{@link CMSFrequencyEvaluator}: the serialized count min sketch (dimensions, hashes and counters), then the
+ * capacity and the values of its frequency table, which frequencies are estimated again by the sketch.</li>
+ * <li>{@link ExternalSortFrequencyEvaluator}: the memory budget, the number of distinct values, then each value and
+ * its frequency. The values are spilled again on restore if they exceed the memory budget.</li>
+ * </ul>
+ */
+public final class FrequencyEvaluatorCodec {
+
+    private FrequencyEvaluatorCodec() {
+        // no instance
+    }
+
+    public static void write(AbstractFrequencyEvaluator evaluator, DataOutput out) throws IOException {
+        if (evaluator instanceof NaiveFrequencyEvaluator) {
+            writeString(out, EFrequencyAlgorithm.NAIVE.name());
+            FrequencyTable frequencyTable = ((NaiveFrequencyEvaluator) evaluator).getFrequencyTable();
+            writeVarLong(out, frequencyTable.size());
+            for (int slot = 0; slot < frequencyTable.getSlotCount(); slot++) {
+                if (frequencyTable.isUsed(slot)) {
+                    writeString(out, frequencyTable.getValue(slot));
+                    writeVarLong(out, frequencyTable.getFrequency(slot));
+                }
+            }
+        } else if (evaluator instanceof SSFrequencyEvaluator) {
+            writeString(out, EFrequencyAlgorithm.SPACE_SAVER.name());
+            writeBytes(out, ((SSFrequencyEvaluator) evaluator).getStreamSummary().toBytes());
+        } else if (evaluator instanceof CMSFrequencyEvaluator) {
+            writeString(out, EFrequencyAlgorithm.COUNT_MIN_SKETCH.name());
+            CMSFrequencyEvaluator countMinSketch = (CMSFrequencyEvaluator) evaluator;
+            writeBytes(out, CountMinSketch.serialize(countMinSketch.getCountMinSketch()));
+            TopKCandidates topKCandidates = countMinSketch.getTopKCandidates();
+            writeVarLong(out, topKCandidates.getCapacity());
+            writeVarLong(out, topKCandidates.size());
+            for (String item : topKCandidates.getItems()) {
+                writeString(out, item);
+            }
+        } else if (evaluator instanceof ExternalSortFrequencyEvaluator) {
+            writeString(out, EFrequencyAlgorithm.EXTERNAL_SORT.name());
+            ExternalSortFrequencyEvaluator externalSort = (ExternalSortFrequencyEvaluator) evaluator;
+            writeVarLong(out, externalSort.getMemoryBudget());
+            long[] size = { 0 };
+            externalSort.forEachFrequency((value, frequency) -> size[0]++);
+            writeVarLong(out, size[0]);
+            try {
+                externalSort.forEachFrequency((value, frequency) -> {
+                    try {
+                        writeString(out, value);
+                        writeVarLong(out, frequency);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } else {
+            throw new DQStatisticsRuntimeException(
+                    "Unsupported frequency evaluator: " + evaluator.getClass().getName());
+        }
+    }
+
+    public static AbstractFrequencyEvaluator read(DataInput in) throws IOException {
+        String algorithmName = readString(in);
+        EFrequencyAlgorithm algorithm;
+        try {
+            algorithm = EFrequencyAlgorithm.valueOf(algorithmName);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IOException("Unknown frequency algorithm: " + algorithmName, e);
+        }
+        switch (algorithm) {
+        case NAIVE:
+            NaiveFrequencyEvaluator naive = new NaiveFrequencyEvaluator();
+            long size = readVarLong(in);
+            for (long i = 0; i < size; i++) {
+                String value = readString(in);
+                naive.getFrequencyTable().add(value, readVarLong(in));
+            }
+            return naive;
+        case SPACE_SAVER:
+            SSFrequencyEvaluator spaceSaver = new SSFrequencyEvaluator();
+            IndexedStreamSummary<String> summary = new IndexedStreamSummary<>();
+            try {
+                summary.fromBytes(readBytes(in));
+                spaceSaver.setStreamSummary(summary);
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+            return spaceSaver;
+        case EXTERNAL_SORT:
+            ExternalSortFrequencyEvaluator externalSort = new ExternalSortFrequencyEvaluator();
+            externalSort.setMemoryBudget(readVarLong(in));
+            long distinctCount = readVarLong(in);
+            for (long i = 0; i < distinctCount; i++) {
+                String value = readString(in);
+                externalSort.add(value, readVarLong(in));
+            }
+            return externalSort;
+        case COUNT_MIN_SKETCH:
+        default:
+            CMSFrequencyEvaluator countMinSketch = new CMSFrequencyEvaluator();
+            CountMinSketch sketch = CountMinSketch.deserialize(readBytes(in));
+            countMinSketch.setCountMinSketch(sketch);
+            TopKCandidates topKCandidates = new TopKCandidates((int) readVarLong(in));
+            long candidateCount = readVarLong(in);
+            for (long i = 0; i < candidateCount; i++) {
+                String item = readString(in);
+                topKCandidates.offer(item, sketch.estimateCount(item));
+            }
+            countMinSketch.setTopKCandidates(topKCandidates);
+            return countMinSketch;
+        }
+    }
+}
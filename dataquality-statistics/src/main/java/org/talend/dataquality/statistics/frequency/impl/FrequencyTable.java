@@ -0,0 +1,243 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.frequency.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exact frequency table of string values.<br>
+ * Values and frequencies are stored in two parallel arrays with open addressing (linear probing), so that counting a
+ * value does not allocate anything but the arrays when they grow: a distinct value costs a reference and a primitive
+ * long, instead of a map entry and a boxed {@link Long}. The <code>null</code> value is counted apart.<br>
+ * Values can optionally be interned with {@link String#intern()}, so that equal values of several tables (e.g. the
+ * same codes in several columns) share one instance.<br>
+ * Occupied entries are visited by slot index from 0 to {@link #getSlotCount()} excluded, see {@link #isUsed(int)}.
+ * <b>Important note:</b> This class is <b>NOT</b> thread safe.
+ */
+final class FrequencyTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private String[] values = new String[INITIAL_CAPACITY];
+
+    private long[] frequencies = new long[INITIAL_CAPACITY];
+
+    /** Number of non null values. */
+    private int size;
+
+    private long nullFrequency;
+
+    private boolean internValues;
+
+    boolean isInternValues() {
+        return internValues;
+    }
+
+    /**
+     * @param internValues true to intern the values added from now on.
+     */
+    void setInternValues(boolean internValues) {
+        this.internValues = internValues;
+    }
+
+    /**
+     * @return the number of distinct values, <code>null</code> included.
+     */
+    int size() {
+        return nullFrequency > 0 ? size + 1 : size;
+    }
+
+    /**
+     * Add <code>frequency</code> occurrences of <code>value</code>.
+     */
+    void add(String value, long frequency) {
+        if (value == null) {
+            nullFrequency += frequency;
+            return;
+        }
+        final int mask = values.length - 1;
+        int slot = slot(value, mask);
+        while (values[slot] != null) {
+            if (values[slot].equals(value)) {
+                frequencies[slot] += frequency;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        values[slot] = internValues ? value.intern() : value;
+        frequencies[slot] = frequency;
+        // keep the load factor under 3/4 so that probe sequences stay short
+        if (++size > values.length - (values.length >>> 2) && values.length < MAXIMUM_CAPACITY) {
+            rehash(values.length << 1);
+        }
+    }
+
+    /**
+     * Remove all the values.
+     */
+    void clear() {
+        values = new String[INITIAL_CAPACITY];
+        frequencies = new long[INITIAL_CAPACITY];
+        size = 0;
+        nullFrequency = 0;
+    }
+
+    /**
+     * Add the frequencies of another table to this one.
+     */
+    void addAll(FrequencyTable another) {
+        for (int slot = 0; slot < another.getSlotCount(); slot++) {
+            if (another.isUsed(slot)) {
+                add(another.getValue(slot), another.getFrequency(slot));
+            }
+        }
+    }
+
+    /**
+     * @return the frequency of <code>value</code>, 0 if it was never added.
+     */
+    long get(String value) {
+        if (value == null) {
+            return nullFrequency;
+        }
+        final int mask = values.length - 1;
+        int slot = slot(value, mask);
+        while (values[slot] != null) {
+            if (values[slot].equals(value)) {
+                return frequencies[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * @return the number of slots, the last one holds the <code>null</code> value.
+     */
+    int getSlotCount() {
+        return values.length + 1;
+    }
+
+    boolean isUsed(int slot) {
+        return slot == values.length ? nullFrequency > 0 : values[slot] != null;
+    }
+
+    String getValue(int slot) {
+        return slot == values.length ? null : values[slot];
+    }
+
+    long getFrequency(int slot) {
+        return slot == values.length ? nullFrequency : frequencies[slot];
+    }
+
+    /**
+     * Select the <code>topk</code> most frequent values with a min-heap of <code>topk</code> slots, then sort them, so
+     * that the whole table is never sorted.
+     *
+     * @param topk the number of values to return, all the values if not positive.
+     * @return the most frequent values, from the most frequent to the least frequent one.
+     */
+    Map<String, Long> getTopK(int topk) {
+        final int slotCount = getSlotCount();
+        final int k = topk <= 0 ? size() : Math.min(topk, size());
+        final int[] heap = new int[k];
+        int heapSize = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (!isUsed(slot)) {
+                continue;
+            }
+            if (heapSize < k) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++);
+            } else if (k > 0 && getFrequency(slot) > getFrequency(heap[0])) {
+                heap[0] = slot;
+                siftDown(heap, 0, heapSize);
+            }
+        }
+        // remove the least frequent value first, filling the heap array from its end
+        for (int last = heapSize - 1; last > 0; last--) {
+            int slot = heap[0];
+            heap[0] = heap[last];
+            heap[last] = slot;
+            siftDown(heap, 0, last);
+        }
+        final Map<String, Long> topKMap = new LinkedHashMap<>(heapSize * 4 / 3 + 1);
+        for (int i = 0; i < heapSize; i++) {
+            topKMap.put(getValue(heap[i]), getFrequency(heap[i]));
+        }
+        return topKMap;
+    }
+
+    private void siftUp(int[] heap, int position) {
+        int child = position;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (getFrequency(heap[parent]) <= getFrequency(heap[child])) {
+                break;
+            }
+            swap(heap, parent, child);
+            child = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int position, int heapSize) {
+        int parent = position;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && getFrequency(heap[child + 1]) < getFrequency(heap[child])) {
+                child++;
+            }
+            if (getFrequency(heap[parent]) <= getFrequency(heap[child])) {
+                break;
+            }
+            swap(heap, parent, child);
+            parent = child;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int slot = heap[i];
+        heap[i] = heap[j];
+        heap[j] = slot;
+    }
+
+    private void rehash(int capacity) {
+        final String[] oldValues = values;
+        final long[] oldFrequencies = frequencies;
+        values = new String[capacity];
+        frequencies = new long[capacity];
+        final int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldValues[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                values[slot] = oldValues[i];
+                frequencies[slot] = oldFrequencies[i];
+            }
+        }
+    }
+
+    private static int slot(String value, int mask) {
+        // spread the hash code so that values differing by their last characters do not cluster
+        final int hash = value.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -12,19 +12,13 @@
 // ============================================================================
 package org.talend.dataquality.statistics.frequency.impl;
 
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
 /**
  * Frequency statistics evaluator with keep a internal map to track with the frequency table.<br>
- * This is a "naive" way to compute the frequency table by maintaining a Map tracking the frequency table.</br>
- * Note
- * that in case of large size data being analyzed, this analyzer may bring memory issue, use
+ * This is a "naive" way to compute the exact frequency table by maintaining a {@link FrequencyTable} of all the
+ * distinct values, an open addressing table with primitive frequencies.</br>
+ * Note that in case of large size data being analyzed, this analyzer may bring memory issue, use
  * {@link SSFrequencyEvaluator} instead.
  * 
  * @author zhao
@@ -32,42 +26,65 @@ import java.util.stream.Collectors;
  */
 public class NaiveFrequencyEvaluator extends AbstractFrequencyEvaluator {
 
-    private Map<String, Long> value2freq = new HashMap<String, Long>();
+    /**
+     * INTERN_VALUES Whether the distinct values are interned with {@link String#intern()}, of type boolean. Interning
+     * saves memory when several columns share many values. The default is false.
+     */
+    public static final String INTERN_VALUES = "internValues";
+
+    private FrequencyTable frequencyTable = new FrequencyTable();
 
     @Override
     public void add(String value) {
-        Long freq = value2freq.get(value);
-        if (freq == null) {
-            value2freq.put(value, 1l);
-        } else {
-            value2freq.put(value, freq + 1);
-        }
+        frequencyTable.add(value, 1);
     }
 
     @Override
     public Map<String, Long> getTopK(int topk) {
-        Comparator<Entry<String, Long>> byValue = (entry1, entry2) -> entry1.getValue().compareTo(entry2.getValue());
-        List<Map.Entry<String, Long>> list = value2freq.entrySet().stream().sorted(byValue.reversed())
-                .collect(Collectors.toList());
-        Map<String, Long> ftMap = new LinkedHashMap<String, Long>();
-        int count = 1;
-        for (Entry<String, Long> entry : list) {
-            ftMap.put(entry.getKey(), entry.getValue());
-            if (count == topk) {
-                break;
-            }
-            count++;
-        }
-        return ftMap;
+        return frequencyTable.getTopK(topk);
     }
 
+    /**
+     * @return the frequency of <code>item</code>, 0 if it was never added.
+     */
     @Override
     public long getFrequency(String item) {
-        return value2freq.get(item);
+        return frequencyTable.get(item);
+    }
+
+    @Override
+    public long getErrorBound() {
+        return 0;
+    }
+
+    @Override
+    public AbstractFrequencyEvaluator merge(AbstractFrequencyEvaluator another) {
+        if (!(another instanceof NaiveFrequencyEvaluator)) {
+            throw new IllegalArgumentException("Cannot merge a naive frequency evaluator with " + another);
+        }
+        NaiveFrequencyEvaluator merged = new NaiveFrequencyEvaluator();
+        merged.frequencyTable.setInternValues(frequencyTable.isInternValues());
+        merged.frequencyTable.addAll(frequencyTable);
+        merged.frequencyTable.addAll(((NaiveFrequencyEvaluator) another).frequencyTable);
+        return merged;
+    }
+
+    @Override
+    public AbstractFrequencyEvaluator copy() {
+        NaiveFrequencyEvaluator copy = new NaiveFrequencyEvaluator();
+        copy.frequencyTable.setInternValues(frequencyTable.isInternValues());
+        copy.frequencyTable.addAll(frequencyTable);
+        return copy;
+    }
+
+    FrequencyTable getFrequencyTable() {
+        return frequencyTable;
     }
 
     @Override
     public void setParameters(Map<String, String> params) {
-        // No parameter needed.
+        if (params.get(INTERN_VALUES) != null) {
+            frequencyTable.setInternValues(Boolean.parseBoolean(params.get(INTERN_VALUES)));
+        }
     }
 }
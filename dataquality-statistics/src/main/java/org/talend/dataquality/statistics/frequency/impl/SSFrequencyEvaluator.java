@@ -12,12 +12,20 @@
 // ============================================================================
 package org.talend.dataquality.statistics.frequency.impl;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 
 import com.clearspring.analytics.stream.Counter;
 import com.clearspring.analytics.stream.StreamSummary;
+import com.clearspring.analytics.util.ListNode2;
+import com.clearspring.analytics.util.Pair;
 
 /**
  * Statatistics bean implement by StreamSummary library in "stream-lib" package. <br>
@@ -25,23 +33,31 @@ import com.clearspring.analytics.stream.StreamSummary;
  * the parameter <code>capacity</code> is used to tune precision trading off spaces.<br>
  * See more details about this parameter please refer to <a href=
  * "https://github.com/addthis/stream-lib/blob/master/src/main/java/com/clearspring/analytics/stream/StreamSummary.java#L64"
- * >StreamSummary</a>
+ * >StreamSummary</a><br>
+ * Frequencies are estimated within {@link #getErrorBound()}, and evaluators of the same capacity can be merged as
+ * described in "Mergeable Summaries" (Agarwal et al., 2012): the counters of both summaries are added, a value which
+ * is not monitored by one full summary being counted as the smallest counter of that summary, and the
+ * <code>capacity</code> largest counters are kept.
  * 
  * @author mzhao
  *
  */
 public class SSFrequencyEvaluator extends AbstractFrequencyEvaluator {
 
-    private StreamSummary<String> streamSummary;
+    private IndexedStreamSummary<String> streamSummary;
 
     public SSFrequencyEvaluator() {
-        streamSummary = new StreamSummary<String>(2000);
+        streamSummary = new IndexedStreamSummary<String>(2000);
     }
 
     public StreamSummary<String> getStreamSummary() {
         return streamSummary;
     }
 
+    void setStreamSummary(IndexedStreamSummary<String> streamSummary) {
+        this.streamSummary = streamSummary;
+    }
+
     @Override
     public Map<String, Long> getTopK(int topK) {
         Map<String, Long> freqTable = new LinkedHashMap<String, Long>();
@@ -57,7 +73,7 @@ public class SSFrequencyEvaluator extends AbstractFrequencyEvaluator {
         if (params.get(CAPACITY) != null) {
             try {
                 int capacity = Integer.valueOf(params.get(CAPACITY));
-                streamSummary = new StreamSummary<String>(capacity);
+                streamSummary = new IndexedStreamSummary<String>(capacity);
             } catch (NumberFormatException e) {
                 throw new IllegalArgumentException(e.getMessage());
             }
@@ -65,11 +81,75 @@ public class SSFrequencyEvaluator extends AbstractFrequencyEvaluator {
     }
 
     /**
-     * Not available getting a specific item's frequency.
+     * Get the estimated frequency of a monitored item, 0 for an item which is not monitored.
      */
     @Override
     public long getFrequency(String item) {
-        return 0;
+        return streamSummary.getCount(item);
+    }
+
+    @Override
+    public long getErrorBound() {
+        return getErrorBound(streamSummary);
+    }
+
+    private static long getErrorBound(StreamSummary<String> summary) {
+        if (summary.size() < summary.getCapacity()) {
+            // no counter was ever replaced, the counts are exact
+            return 0;
+        }
+        List<Counter<String>> counters = summary.topK(summary.getCapacity());
+        return counters.get(counters.size() - 1).getCount();
+    }
+
+    @Override
+    public AbstractFrequencyEvaluator merge(AbstractFrequencyEvaluator another) {
+        if (!(another instanceof SSFrequencyEvaluator)) {
+            throw new IllegalArgumentException("Cannot merge a space saver frequency evaluator with " + another);
+        }
+        StreamSummary<String> anotherSummary = ((SSFrequencyEvaluator) another).streamSummary;
+        int capacity = streamSummary.getCapacity();
+        if (anotherSummary.getCapacity() != capacity) {
+            throw new IllegalArgumentException("Cannot merge space saver frequency evaluators of different capacities: "
+                    + capacity + " and " + anotherSummary.getCapacity());
+        }
+        long minCount = getErrorBound(streamSummary);
+        long anotherMinCount = getErrorBound(anotherSummary);
+        Map<String, Long> counts = new HashMap<>();
+        for (Counter<String> counter : streamSummary.topK(capacity)) {
+            counts.put(counter.getItem(), counter.getCount() + anotherMinCount);
+        }
+        for (Counter<String> counter : anotherSummary.topK(capacity)) {
+            Long count = counts.get(counter.getItem());
+            counts.put(counter.getItem(),
+                    count == null ? counter.getCount() + minCount : count - anotherMinCount + counter.getCount());
+        }
+        List<Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Entry.<String, Long> comparingByValue().reversed());
+
+        IndexedStreamSummary<String> mergedSummary = new IndexedStreamSummary<>(capacity);
+        for (Entry<String, Long> entry : entries.subList(0, Math.min(capacity, entries.size()))) {
+            // the summary is not full yet, each item gets its own counter
+            long count = entry.getValue();
+            while (count > 0) {
+                int increment = (int) Math.min(count, Integer.MAX_VALUE);
+                mergedSummary.offer(entry.getKey(), increment);
+                count -= increment;
+            }
+        }
+        SSFrequencyEvaluator merged = new SSFrequencyEvaluator();
+        merged.setStreamSummary(mergedSummary);
+        return merged;
+    }
+
+    /**
+     * The copy is the merge with an empty summary of the same capacity.
+     */
+    @Override
+    public AbstractFrequencyEvaluator copy() {
+        SSFrequencyEvaluator empty = new SSFrequencyEvaluator();
+        empty.setStreamSummary(new IndexedStreamSummary<String>(streamSummary.getCapacity()));
+        return merge(empty);
     }
 
     @Override
@@ -79,4 +159,62 @@ public class SSFrequencyEvaluator extends AbstractFrequencyEvaluator {
     }
 
     public static final String CAPACITY = "capacity";
+
+    /**
+     * A {@link StreamSummary} which also indexes its counters by item, so that the count of an item is found without
+     * scanning the counters. A counter is indexed when its item is counted, and unindexed when the summary reuses it
+     * for another item.
+     */
+    static class IndexedStreamSummary<T> extends StreamSummary<T> {
+
+        private final Map<T, Counter<T>> counters = new HashMap<>();
+
+        /**
+         * For {@link #fromBytes(byte[])} and deserialization only.
+         */
+        public IndexedStreamSummary() {
+            super();
+        }
+
+        IndexedStreamSummary(int capacity) {
+            super(capacity);
+        }
+
+        /**
+         * @return the estimated count of <code>item</code>, 0 if it is not monitored.
+         */
+        long getCount(T item) {
+            Counter<T> counter = counters.get(item);
+            return counter == null ? 0 : counter.getCount();
+        }
+
+        @Override
+        public Pair<Boolean, T> offerReturnAll(T item, int incrementCount) {
+            Pair<Boolean, T> result = super.offerReturnAll(item, incrementCount);
+            if (result.left) {
+                // the counter of the dropped item, if any, now counts the new item
+                Counter<T> dropped = counters.get(result.right);
+                if (dropped != null && !Objects.equals(dropped.getItem(), result.right)) {
+                    counters.remove(result.right);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        protected void incrementCounter(ListNode2<Counter<T>> counterNode, int incrementCount) {
+            super.incrementCounter(counterNode, incrementCount);
+            Counter<T> counter = counterNode.getValue();
+            counters.put(counter.getItem(), counter);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            super.readExternal(in);
+            counters.clear();
+            for (Counter<T> counter : topK(size())) {
+                counters.put(counter.getItem(), counter);
+            }
+        }
+    }
 }
@@ -0,0 +1,127 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.frequency.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The items with the highest estimated frequencies, at most <code>capacity</code> of them.<br>
+ * The items are kept in a min-heap of their estimates indexed by item, so that offering an item costs a hash lookup
+ * and O(log(capacity)) swaps. When the heap is full, a new item replaces the item with the smallest estimate if its
+ * own estimate is larger.
+ */
+final class TopKCandidates {
+
+    private final int capacity;
+
+    private final String[] items;
+
+    private final long[] estimates;
+
+    private final Map<String, Integer> positions;
+
+    private int size;
+
+    TopKCandidates(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.items = new String[capacity];
+        this.estimates = new long[capacity];
+        this.positions = new HashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the candidate items, in no particular order.
+     */
+    List<String> getItems() {
+        return new ArrayList<>(Arrays.asList(items).subList(0, size));
+    }
+
+    /**
+     * @param item an item.
+     * @param estimate the estimated frequency of <code>item</code>, which never decreases from one call to the next.
+     */
+    void offer(String item, long estimate) {
+        Integer position = positions.get(item);
+        if (position != null) {
+            estimates[position] = estimate;
+            siftDown(position);
+        } else if (size < capacity) {
+            items[size] = item;
+            estimates[size] = estimate;
+            positions.put(item, size);
+            siftUp(size++);
+        } else if (estimate > estimates[0]) {
+            positions.remove(items[0]);
+            items[0] = item;
+            estimates[0] = estimate;
+            positions.put(item, 0);
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int position) {
+        int child = position;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (estimates[parent] <= estimates[child]) {
+                break;
+            }
+            swap(parent, child);
+            child = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        int parent = position;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && estimates[child + 1] < estimates[child]) {
+                child++;
+            }
+            if (estimates[parent] <= estimates[child]) {
+                break;
+            }
+            swap(parent, child);
+            parent = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        String item = items[i];
+        long estimate = estimates[i];
+        items[i] = items[j];
+        estimates[i] = estimates[j];
+        items[j] = item;
+        estimates[j] = estimate;
+        positions.put(items[i], i);
+        positions.put(items[j], j);
+    }
+}
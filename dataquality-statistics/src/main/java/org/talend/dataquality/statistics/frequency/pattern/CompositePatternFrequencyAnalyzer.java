@@ -143,4 +143,9 @@ public class CompositePatternFrequencyAnalyzer extends AbstractFrequencyAnalyzer
         }
         freqTableStatistics = new ResizableList<>(freqTableList);
     }
+
+    @Override
+    protected CompositePatternFrequencyAnalyzer newAnalyzer() {
+        return new CompositePatternFrequencyAnalyzer(patternFreqRecognizers, types);
+    }
 }
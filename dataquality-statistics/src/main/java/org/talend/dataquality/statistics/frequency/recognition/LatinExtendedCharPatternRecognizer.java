@@ -31,6 +31,19 @@ public class LatinExtendedCharPatternRecognizer extends AbstractPatternRecognize
 
     public static final String REPLACEMENT_CHARS = "aaaaaaaaaaaaaaaaaaaaaaaaaaAAAAAAAAAAAAAAAAAAAAAAAAAAaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA9999999999";
 
+    /**
+     * Replacement of each character of {@link #CHARS_TO_REPLACE}, indexed by the character itself, 0 when the
+     * character is not replaced. All the replaced characters are in the Latin-1 block, so the characters past the
+     * table, surrogate halves of supplementary characters included, are never replaced.
+     */
+    private static final char[] REPLACEMENT_TABLE = new char[256];
+
+    static {
+        for (int i = 0; i < CHARS_TO_REPLACE.length(); i++) {
+            REPLACEMENT_TABLE[CHARS_TO_REPLACE.charAt(i)] = REPLACEMENT_CHARS.charAt(i);
+        }
+    }
+
     private Pattern charsPattern = Pattern.compile("[a-z|A-Z|à-ÿ|À-ß]");
 
     @Override
@@ -41,19 +54,19 @@ public class LatinExtendedCharPatternRecognizer extends AbstractPatternRecognize
             return result;
         }
         boolean isComplete = true;
-        StringBuilder sb = new StringBuilder();
         int n = stringToRecognize.length();
+        char[] pattern = new char[n];
         for (int i = 0; i < n; i++) {
             char c = stringToRecognize.charAt(i);
-            int pos = CHARS_TO_REPLACE.indexOf(c);
-            if (pos > -1) {
-                sb.append(REPLACEMENT_CHARS.charAt(pos));
+            char replacement = c < REPLACEMENT_TABLE.length ? REPLACEMENT_TABLE[c] : 0;
+            if (replacement != 0) {
+                pattern[i] = replacement;
             } else {
-                sb.append(c);
+                pattern[i] = c;
                 isComplete = false;
             }
         }
-        result.setResult(Collections.singleton(sb.toString()), isComplete);
+        result.setResult(Collections.singleton(new String(pattern)), isComplete);
         return result;
     }
 
@@ -16,7 +16,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.CellParseContext;
+import org.talend.dataquality.common.inference.ParseContextAware;
 import org.talend.dataquality.statistics.type.DataTypeEnum;
+import org.talend.dataquality.statistics.type.TypeInferenceUtils;
 
 /**
  * 
@@ -26,10 +29,16 @@ import org.talend.dataquality.statistics.type.DataTypeEnum;
  *
  * @param <T>
  */
-public abstract class NumericalStatisticsAnalyzer<T> implements Analyzer<T> {
+public abstract class NumericalStatisticsAnalyzer<T> implements Analyzer<T>, ParseContextAware {
 
     private static final long serialVersionUID = 5444082810385180383L;
 
+    /**
+     * Shared with the other analyzers of a record when set by {@link #setParseContext(CellParseContext)}, own context
+     * otherwise so that each value is validated and converted in a single scan.
+     */
+    private CellParseContext parseContext = new CellParseContext();
+
     private Integer[] statColIdx; // index arrays indicator which column are numerical that need to be analyzed.
 
     private DataTypeEnum[] types; // types of columns
@@ -88,6 +97,36 @@ public abstract class NumericalStatisticsAnalyzer<T> implements Analyzer<T> {
         this.statColIdx = statIdxList.toArray(new Integer[statIdxList.size()]);
     }
 
+    @Override
+    public void setParseContext(CellParseContext context) {
+        this.parseContext = context == null ? new CellParseContext() : context;
+    }
+
+    /**
+     * Select the row of the batch the next values are in, for analyzers processing a batch column by column.
+     *
+     * @see CellParseContext#setRow(int)
+     */
+    protected void setRow(int row) {
+        parseContext.setRow(row);
+    }
+
+    /**
+     * @return true if the value of the column is of the column type. A number is converted in the same scan, for
+     * {@link #toDouble(int, String)}.
+     */
+    protected boolean isValid(int column, String value) {
+        return TypeInferenceUtils.isValid(parseContext, column, types[column], value);
+    }
+
+    /**
+     * @return the numeric value of the cell (parsed once for all the analyzers sharing the parse context), or
+     * <code>null</code> if it cannot be parsed.
+     */
+    protected Double toDouble(int column, String value) {
+        return TypeInferenceUtils.getDouble(parseContext, column, value);
+    }
+
     @Override
     public void close() throws Exception {
 
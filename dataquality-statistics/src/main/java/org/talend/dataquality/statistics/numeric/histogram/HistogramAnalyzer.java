@@ -14,17 +14,16 @@ package org.talend.dataquality.statistics.numeric.histogram;
 
 import java.util.List;
 
-import org.apache.commons.lang.NotImplementedException;
-import org.talend.daikon.number.BigDecimalParser;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.ResizableList;
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
 import org.talend.dataquality.statistics.numeric.NumericalStatisticsAnalyzer;
 import org.talend.dataquality.statistics.type.DataTypeEnum;
-import org.talend.dataquality.statistics.type.TypeInferenceUtils;
 
 /**
  * Analyzer the histograms.<br>
- * Note that the min,max and number of bins parameters are needed.<br>
+ * Note that the min,max and number of bins parameters are needed, unless the histograms are auto-ranging (only the
+ * number of bins is set, see {@link HistogramStatistics#setParameters(int)}).<br>
  * If min max and number of bins are not set, then default values are used. (As defined in {@link HistogramParameter})
  * 
  * 
@@ -35,7 +34,7 @@ public class HistogramAnalyzer extends NumericalStatisticsAnalyzer<HistogramStat
 
     private static final long serialVersionUID = -3756520692420812485L;
 
-    private ResizableList<HistogramStatistics> stats = new ResizableList<>(HistogramStatistics.class);
+    private ResizableList<HistogramStatistics> stats = new ResizableList<>(HistogramStatistics::new);
 
     private HistogramParameter histogramParameter = null;
 
@@ -79,18 +78,24 @@ public class HistogramAnalyzer extends NumericalStatisticsAnalyzer<HistogramStat
                 double max = histogramParameter.getDefaultMax();
                 double min = histogramParameter.getDefaultMin();
                 int numBins = histogramParameter.getDefaultNumBins();
+                boolean autoRange = histogramParameter.isDefaultAutoRange();
                 if (columnParameter != null) {
                     min = columnParameter.getMin();
                     max = columnParameter.getMax();
                     numBins = columnParameter.getNumBins();
+                    autoRange = columnParameter.isAutoRange();
+                }
+                if (autoRange) {
+                    stat.setParameters(numBins);
+                } else {
+                    stat.setParameters(max, min, numBins);
                 }
-                stat.setParameters(max, min, numBins);
                 colIdx++;
             }
         }
 
         for (int idx : this.getStatColIdx()) { // analysis each numerical column in the record
-            if (!TypeInferenceUtils.isValid(types[idx], record[idx])) {
+            if (!isValid(idx, record[idx])) {
                 continue;
             }
             analyzerHistogram(idx, record);
@@ -99,17 +104,33 @@ public class HistogramAnalyzer extends NumericalStatisticsAnalyzer<HistogramStat
     }
 
     private void analyzerHistogram(int index, String... record) {
-        HistogramStatistics histStats = stats.get(index);
-        try {
-            histStats.add(BigDecimalParser.toBigDecimal(record[index]).doubleValue());
-        } catch (NumberFormatException e) {
-            // skip
+        final Double value = toDouble(index, record[index]);
+        if (value != null) {
+            stats.get(index).add(value);
         }
     }
 
+    /**
+     * Merge the histograms of each column with the ones of another analyzer with the same parameters.
+     *
+     * @throws DQStatisticsRuntimeException if the histograms of a column cannot be merged.
+     */
     @Override
     public Analyzer<HistogramStatistics> merge(Analyzer<HistogramStatistics> another) {
-        throw new NotImplementedException();
+        HistogramAnalyzer mergedAnalyzer = new HistogramAnalyzer(getTypes(), histogramParameter);
+        mergedAnalyzer.init();
+        List<HistogramStatistics> anotherStats = another.getResult();
+        mergedAnalyzer.stats.resize(Math.max(stats.size(), anotherStats.size()));
+        for (int i = 0; i < mergedAnalyzer.stats.size(); i++) {
+            HistogramStatistics mergedStats = mergedAnalyzer.stats.get(i);
+            if (i < stats.size()) {
+                mergedStats.merge(stats.get(i));
+            }
+            if (i < anotherStats.size()) {
+                mergedStats.merge(anotherStats.get(i));
+            }
+        }
+        return mergedAnalyzer;
     }
 
     @Override
@@ -26,6 +26,8 @@ public class HistogramColumnParameter {
 
     private int numBins = 10;
 
+    private boolean autoRange = false;
+
     public double getMin() {
         return min;
     }
@@ -45,6 +47,27 @@ public class HistogramColumnParameter {
         this.min = min;
         this.max = max;
         this.numBins = numBins;
+        this.autoRange = false;
+    }
+
+    /**
+     * Set the number of bins of an auto-ranging histogram, whose bins adapt to the values analyzed, see
+     * {@link HistogramStatistics#setParameters(int)}.
+     * 
+     * @param numBins the number of bins.
+     */
+    public void setParameters(int numBins) {
+        if (numBins <= 0)
+            throw new IllegalArgumentException("numBins =" + numBins + "\n numBins must be a positive integers(>0)!");
+        this.numBins = numBins;
+        this.autoRange = true;
+    }
+
+    /**
+     * @return true if the histogram of the column is auto-ranging.
+     */
+    public boolean isAutoRange() {
+        return autoRange;
     }
 
 }
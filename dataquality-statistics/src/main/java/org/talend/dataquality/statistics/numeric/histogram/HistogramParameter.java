@@ -30,6 +30,8 @@ public class HistogramParameter {
 
     private int defaultNumBins = 10;
 
+    private boolean defaultAutoRange = false;
+
     // -- specific parameters of each column --
     /**
      * The map is maintaining column index to parameter set relationship. Key of the map is column index starting from
@@ -56,6 +58,28 @@ public class HistogramParameter {
         this.defaultMin = defaultMin;
         this.defaultMax = defaultMax;
         this.defaultNumBins = defaultNumBins;
+        this.defaultAutoRange = false;
+    }
+
+    /**
+     * Set the default number of bins of auto-ranging histograms, whose bins adapt to the values analyzed, see
+     * {@link HistogramStatistics#setParameters(int)}.
+     * 
+     * @param defaultNumBins the default number of bins.
+     */
+    public void setDefaultParameters(int defaultNumBins) {
+        if (defaultNumBins <= 0)
+            throw new IllegalArgumentException(
+                    "numBins =" + defaultNumBins + "\n numBins must be a positive integers(>0)!");
+        this.defaultNumBins = defaultNumBins;
+        this.defaultAutoRange = true;
+    }
+
+    /**
+     * @return true if the histograms of the columns without parameters are auto-ranging.
+     */
+    public boolean isDefaultAutoRange() {
+        return defaultAutoRange;
     }
 
     /**
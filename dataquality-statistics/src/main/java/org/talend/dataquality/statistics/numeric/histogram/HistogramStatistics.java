@@ -12,15 +12,18 @@
 // ============================================================================
 package org.talend.dataquality.statistics.numeric.histogram;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
 
 /**
- * Histogram statistics bean.
+ * Histogram statistics bean.<br>
+ * The bins either cover a range given by {@link #setParameters(double, double, int)}, or adapt to the values as they
+ * arrive when only their number is given by {@link #setParameters(int)}. An auto-ranging histogram has bins of a power
+ * of two width, aligned on the multiples of that width: when a value falls out of the bins, the width is doubled, each
+ * pair of adjacent bins being merged into one, until all the values fit. The histogram is thus computed in a single
+ * pass without knowing the range of the values, and histograms of several partitions can be merged exactly.
  * 
  * @author zhao
  *
@@ -35,7 +38,12 @@ public class HistogramStatistics {
 
     private long[] result = new long[numBins];
 
-    private BigDecimal binSize;
+    private double binSize;
+
+    private boolean autoRange;
+
+    /** Index of the first bin of an auto-ranging histogram, on the lattice of the multiples of binSize. */
+    private long firstBin;
 
     int scale = 1000;
 
@@ -51,51 +59,227 @@ public class HistogramStatistics {
         if (max <= min) {
             throw new DQStatisticsRuntimeException("max must be greater than min");
         }
-        if (numBins <= 0) {
-            throw new DQStatisticsRuntimeException(
-                    "invalid numBins value :" + numBins + " , numBins must be a none zero integer");
-        }
+        checkNumBins(numBins);
         this.max = max;
         this.min = min;
         this.numBins = numBins;
-        binSize = BigDecimal.valueOf(max - min).divide(BigDecimal.valueOf(numBins), 10, RoundingMode.UP);
+        binSize = (max - min) / numBins;
         result = new long[numBins];
+        autoRange = false;
+    }
 
+    /**
+     * Set the parameters of an auto-ranging histogram, whose bins cover the range of the values added.<br>
+     * The histogram has at most <code>numBins</code> bins, and at least half of them once the values are spread.
+     * 
+     * @param numBins number of bins , It should be a none zero integer.
+     */
+    public void setParameters(int numBins) {
+        checkNumBins(numBins);
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+        this.numBins = numBins;
+        binSize = 0;
+        result = new long[numBins];
+        autoRange = true;
+    }
+
+    private static void checkNumBins(int numBins) {
+        if (numBins <= 0) {
+            throw new DQStatisticsRuntimeException(
+                    "invalid numBins value :" + numBins + " , numBins must be a none zero integer");
+        }
+    }
+
+    /**
+     * @return true if the bins adapt to the values added.
+     */
+    public boolean isAutoRange() {
+        return autoRange;
     }
 
     public void add(double d) {
-        double bin = BigDecimal.valueOf(d - min).divide(binSize, 10, RoundingMode.UP).doubleValue();
-        if (bin < 0) { /* this data is smaller than min */
+        if (Double.isNaN(d)) {
+            return;
+        }
+        if (autoRange) {
+            addInRange(d);
+        } else if (d < min) { /* this data is smaller than min */
             countBelowMin++;
-        } else if (bin > numBins) { /* this data point is bigger than max */
+        } else if (d > max) { /* this data point is bigger than max */
             countAboveMax++;
         } else {
-            if (Double.compare(bin, numBins) == 0) {
-                result[(int) bin - 1] += 1; // Include count of the upper boundary.
+            // the upper boundary is counted in the last bin
+            result[Math.min((int) ((d - min) / binSize), numBins - 1)]++;
+        }
+    }
+
+    private void addInRange(double d) {
+        if (Double.isInfinite(d)) {
+            if (d < 0) {
+                countBelowMin++;
             } else {
-                result[(int) bin] += 1;
+                countAboveMax++;
+            }
+            return;
+        }
+        if (isEmpty()) {
+            // the finest width at the scale of the first value
+            binSize = Math.ulp(d);
+            firstBin = binIndex(d, binSize);
+            min = d;
+            max = d;
+        } else if (d < min || d > max) {
+            double lower = Math.min(min, d);
+            double upper = Math.max(max, d);
+            rebin(lower, upper, widthCovering(lower, upper, binSize));
+        }
+        result[(int) (binIndex(d, binSize) - firstBin)]++;
+    }
+
+    private boolean isEmpty() {
+        return min > max;
+    }
+
+    private static long binIndex(double d, double width) {
+        return (long) Math.floor(d / width);
+    }
+
+    /**
+     * @return the smallest width, <code>width</code> multiplied by a power of two, whose aligned bins cover the range
+     * from <code>lower</code> to <code>upper</code>.
+     */
+    private double widthCovering(double lower, double upper, double width) {
+        double covering = width;
+        while (Math.floor(upper / covering) - Math.floor(lower / covering) >= numBins) {
+            covering *= 2;
+        }
+        return covering;
+    }
+
+    /**
+     * Move the bin counts to the bins of the given width covering the range from <code>lower</code> to
+     * <code>upper</code>.
+     */
+    private void rebin(double lower, double upper, double width) {
+        final long newFirstBin = binIndex(lower, width);
+        final int shift = doublings(binSize, width);
+        if (shift > 0 || newFirstBin != firstBin) {
+            final long[] newResult = new long[numBins];
+            addBins(newResult, newFirstBin, shift, result, firstBin);
+            result = newResult;
+            binSize = width;
+            firstBin = newFirstBin;
+        }
+        min = lower;
+        max = upper;
+    }
+
+    private static void addBins(long[] target, long targetFirstBin, int shift, long[] source, long sourceFirstBin) {
+        for (int i = 0; i < source.length; i++) {
+            if (source[i] != 0) {
+                // the index of the bin i at a width 2^shift times larger
+                long index = sourceFirstBin + i;
+                index = shift >= Long.SIZE - 1 ? (index < 0 ? -1 : 0) : index >> shift;
+                target[(int) (index - targetFirstBin)] += source[i];
             }
         }
     }
 
+    /**
+     * @return the number of times <code>from</code> is doubled to reach <code>to</code>, both being powers of two.
+     */
+    private static int doublings(double from, double to) {
+        int doublings = 0;
+        for (double width = from; width < to; width *= 2) {
+            doublings++;
+        }
+        return doublings;
+    }
+
+    /**
+     * Merge the counts of another histogram into this one.<br>
+     * A histogram without parameters takes a copy of the other histogram. Auto-ranging histograms are merged by
+     * doubling the width of their bins until they cover the range of both. Histograms with a given range must have the
+     * same range and number of bins.
+     * 
+     * @param other another histogram.
+     * @throws DQStatisticsRuntimeException if the histograms are not compatible.
+     */
+    public void merge(HistogramStatistics other) {
+        if (other.numBins == 0) {
+            return;
+        }
+        if (numBins == 0) {
+            copy(other);
+            return;
+        }
+        if (autoRange != other.autoRange || !autoRange && (Double.compare(min, other.min) != 0
+                || Double.compare(max, other.max) != 0 || numBins != other.numBins)) {
+            throw new DQStatisticsRuntimeException("Unable to merge histograms with different parameters");
+        }
+        countBelowMin += other.countBelowMin;
+        countAboveMax += other.countAboveMax;
+        if (!autoRange) {
+            for (int i = 0; i < numBins; i++) {
+                result[i] += other.result[i];
+            }
+        } else if (!other.isEmpty()) {
+            if (isEmpty()) {
+                binSize = other.binSize;
+                firstBin = binIndex(other.min, binSize);
+                min = other.min;
+                max = other.min;
+            }
+            double lower = Math.min(min, other.min);
+            double upper = Math.max(max, other.max);
+            rebin(lower, upper, widthCovering(lower, upper, Math.max(binSize, other.binSize)));
+            addBins(result, firstBin, doublings(other.binSize, binSize), other.result, other.firstBin);
+        }
+    }
+
+    private void copy(HistogramStatistics other) {
+        min = other.min;
+        max = other.max;
+        numBins = other.numBins;
+        countBelowMin = other.countBelowMin;
+        countAboveMax = other.countAboveMax;
+        result = other.result.clone();
+        binSize = other.binSize;
+        autoRange = other.autoRange;
+        firstBin = other.firstBin;
+    }
+
     /**
      * Get histograms as a map
      * 
      * @return the histogram map where Key is the range and value is the freqency. <br>
      * Note that the returned ranges are in pattern of [Min,
-     * Min+binSize),[Min+binSize,Min+binSize*2)...[Max-binSize,Max<b>]</b>
+     * Min+binSize),[Min+binSize,Min+binSize*2)...[Max-binSize,Max<b>]</b>. The ranges of an auto-ranging histogram go
+     * from the smallest value to the largest one.
      */
     public Map<Range, Long> getHistogram() {
         Map<Range, Long> histogramMap = new LinkedHashMap<Range, Long>();
+        if (autoRange) {
+            if (!isEmpty()) {
+                int lastBin = (int) (binIndex(max, binSize) - firstBin);
+                for (int i = 0; i <= lastBin; i++) {
+                    double currentMin = i == 0 ? min : (firstBin + i) * binSize;
+                    double currentMax = i == lastBin ? max : (firstBin + i + 1) * binSize;
+                    histogramMap.put(new Range(currentMin, currentMax), result[i]);
+                }
+            }
+            return histogramMap;
+        }
         double currentMin = min;
         for (int i = 0; i < numBins; i++) {
-            double currentMax = currentMin + binSize.doubleValue();
+            double currentMax = currentMin + binSize;
             if ((i + 1) == numBins) {
                 currentMax = max;
             }
             Range r = new Range(currentMin, currentMax);
             histogramMap.put(r, result[i]);
-            currentMin = currentMin + binSize.doubleValue();
+            currentMin = currentMin + binSize;
         }
         return histogramMap;
     }
@@ -14,18 +14,15 @@ package org.talend.dataquality.statistics.numeric.quantile;
 
 import java.util.List;
 
-import org.apache.commons.lang.NotImplementedException;
 import org.apache.commons.math3.stat.descriptive.rank.Median;
-import org.talend.daikon.number.BigDecimalParser;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.ResizableList;
 import org.talend.dataquality.statistics.numeric.NumericalStatisticsAnalyzer;
 import org.talend.dataquality.statistics.type.DataTypeEnum;
-import org.talend.dataquality.statistics.type.TypeInferenceUtils;
 
 /**
- * Analyzer quantile with apache commons match library.<br>
- * See more details refer to {@link Median}
+ * Analyzer of exact quantiles, estimated as by the {@link Median} of apache commons math library.<br>
+ * All the values are kept in memory, see {@link QuantileStatistics}.
  * 
  * @author zhao
  *
@@ -34,7 +31,7 @@ public class QuantileAnalyzer extends NumericalStatisticsAnalyzer<QuantileStatis
 
     private static final long serialVersionUID = 6841816568752139978L;
 
-    private final ResizableList<QuantileStatistics> stats = new ResizableList<>(QuantileStatistics.class);
+    private final ResizableList<QuantileStatistics> stats = new ResizableList<>(QuantileStatistics::new);
 
     public QuantileAnalyzer(DataTypeEnum[] types) {
         super(types);
@@ -57,14 +54,12 @@ public class QuantileAnalyzer extends NumericalStatisticsAnalyzer<QuantileStatis
 
         stats.resize(record.length);
         for (int idx : this.getStatColIdx()) {// analysis each numerical column in the record
-            if (!TypeInferenceUtils.isValid(types[idx], record[idx])) {
+            if (!isValid(idx, record[idx])) {
                 continue;
             }
-            QuantileStatistics freqStats = stats.get(idx);
-            try {
-                freqStats.add(BigDecimalParser.toBigDecimal(record[idx]).doubleValue());
-            } catch (NumberFormatException e) {
-                continue;
+            final Double value = toDouble(idx, record[idx]);
+            if (value != null) {
+                stats.get(idx).add(value);
             }
         }
         return true;
@@ -84,7 +79,20 @@ public class QuantileAnalyzer extends NumericalStatisticsAnalyzer<QuantileStatis
 
     @Override
     public Analyzer<QuantileStatistics> merge(Analyzer<QuantileStatistics> another) {
-        throw new NotImplementedException();
+        QuantileAnalyzer mergedAnalyzer = new QuantileAnalyzer(getTypes());
+        mergedAnalyzer.init();
+        List<QuantileStatistics> anotherStats = another.getResult();
+        mergedAnalyzer.stats.resize(Math.max(stats.size(), anotherStats.size()));
+        for (int i = 0; i < mergedAnalyzer.stats.size(); i++) {
+            QuantileStatistics mergedStats = mergedAnalyzer.stats.get(i);
+            if (i < stats.size()) {
+                mergedStats.merge(stats.get(i));
+            }
+            if (i < anotherStats.size()) {
+                mergedStats.merge(anotherStats.get(i));
+            }
+        }
+        return mergedAnalyzer;
     }
 
 }
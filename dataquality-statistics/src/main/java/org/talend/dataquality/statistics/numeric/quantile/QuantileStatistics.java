@@ -12,51 +12,149 @@
 // ============================================================================
 package org.talend.dataquality.statistics.numeric.quantile;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
-import org.apache.commons.math3.stat.descriptive.rank.Median;
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
 
 /**
- * Quantile statistics bean with implementation of apache commons.
+ * Quantile statistics bean computing exact quantiles.<br>
+ * The values are kept in a growable array of primitive doubles, 8 bytes per value, and each quantile is looked up by
+ * selection: the array is partially reordered around the rank of the quantile in linear time instead of being sorted.
+ * The quantiles are estimated as by the default {@link Percentile} of apache commons math.<br>
+ * Use {@link TDigestQuantileStatistics} to estimate the quantiles of large data sets in bounded memory.
  * 
  * @author zhao
  *
  */
 public class QuantileStatistics {
 
-    private List<Double> data = new ArrayList<Double>();
+    private static final int INITIAL_CAPACITY = 16;
 
-    Median median = new Median();
+    private double[] data = new double[INITIAL_CAPACITY];
+
+    private int size;
 
     public void add(double value) {
-        data.add(value);
+        if (size == data.length) {
+            int capacity = data.length + (data.length >> 1);
+            data = Arrays.copyOf(data, capacity < 0 ? Integer.MAX_VALUE - 8 : capacity);
+        }
+        data[size++] = value;
     }
 
+    /**
+     * Kept for compatibility: the quantiles are looked up from the values added so far.
+     */
     public void endAddValue() {
-        median.setData(data.stream().mapToDouble(x -> Double.valueOf(x)).toArray());
+    }
+
+    /**
+     * @return the number of values added.
+     */
+    public int getCount() {
+        return size;
+    }
+
+    /**
+     * Add the values of another instance to this one.
+     */
+    public void merge(QuantileStatistics other) {
+        if (size + other.size > data.length) {
+            data = Arrays.copyOf(data, size + other.size);
+        }
+        System.arraycopy(other.data, 0, data, size, other.size);
+        size += other.size;
     }
 
     public double getMedian() {
-        return median.evaluate(50);
+        return getQuantile(0.5);
     }
 
     public double getLowerQuartile() {
-        return median.evaluate(25);
+        return getQuantile(0.25);
     }
 
     public double getUpperQuartile() {
-        return median.evaluate(75);
+        return getQuantile(0.75);
     }
 
     /**
      * Get quantile value given percentage.
      * 
-     * @param percentage the percentage of the quantile
-     * @return quantile value given of specified percentage.
+     * @param percentage the percentage of the quantile, greater than 0 and up to 1.
+     * @return quantile value given of specified percentage, {@link Double#NaN} if no value was added.
+     * @throws IllegalArgumentException if the percentage is out of range.
      */
     public double getQuantile(double percentage) {
-        return median.evaluate(percentage * 100);
+        if (percentage <= 0 || percentage > 1) {
+            throw new IllegalArgumentException("Percentage must be greater than 0 and up to 1: " + percentage);
+        }
+        if (size == 0) {
+            return Double.NaN;
+        }
+        // position of the quantile between the 1-based ranks of the values
+        final double position = percentage * (size + 1);
+        if (position < 1) {
+            return select(0);
+        }
+        if (position >= size) {
+            return select(size - 1);
+        }
+        final int rank = (int) position;
+        final double lower = select(rank - 1);
+        final double fraction = position - rank;
+        if (fraction == 0) {
+            return lower;
+        }
+        // the values after the selected one are all greater or equal: the next value is their minimum
+        double upper = data[rank];
+        for (int i = rank + 1; i < size; i++) {
+            upper = Math.min(upper, data[i]);
+        }
+        return lower + fraction * (upper - lower);
+    }
+
+    /**
+     * Reorder the values so that the value of index <code>k</code> is the one of the sorted values, the values before
+     * being lower or equal and the values after greater or equal.
+     * 
+     * @return the value of 0-based rank <code>k</code>.
+     */
+    private double select(int k) {
+        int left = 0;
+        int right = size - 1;
+        while (left < right) {
+            // median of three pivot, the partition stops on equal values so that duplicates are split evenly
+            final int middle = (left + right) >>> 1;
+            final double pivot = medianOfThree(data[left], data[middle], data[right]);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (data[i] < pivot) {
+                    i++;
+                }
+                while (data[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final double value = data[i];
+                    data[i++] = data[j];
+                    data[j--] = value;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return data[k];
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
     }
 
 }
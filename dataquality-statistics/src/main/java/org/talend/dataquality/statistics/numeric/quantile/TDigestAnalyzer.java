@@ -14,19 +14,18 @@ package org.talend.dataquality.statistics.numeric.quantile;
 
 import java.util.List;
 
-import org.apache.commons.lang.NotImplementedException;
-import org.talend.daikon.number.BigDecimalParser;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.ResizableList;
 import org.talend.dataquality.statistics.numeric.NumericalStatisticsAnalyzer;
 import org.talend.dataquality.statistics.type.DataTypeEnum;
-import org.talend.dataquality.statistics.type.TypeInferenceUtils;
 
 /**
  * Analyze the quantiles given t-digest algorithm implemented by clearspring's "stream-lib" package. See more at <a
  * href=
  * "https://github.com/addthis/stream-lib/blob/master/src/main/java/com/clearspring/analytics/stream/quantile/TDigest.java"
- * >TDigest</a>
+ * >TDigest</a><br>
+ * The digests take a bounded memory whatever the number of values, and analyzers can be merged, e.g. to compute the
+ * quantiles of several partitions.
  * 
  * @author zhao
  *
@@ -35,12 +34,10 @@ public class TDigestAnalyzer extends NumericalStatisticsAnalyzer<TDigestQuantile
 
     private static final long serialVersionUID = -9176043422228459277L;
 
-    private final ResizableList<TDigestQuantileStatistics> stats = new ResizableList<>(TDigestQuantileStatistics.class);
+    private final ResizableList<TDigestQuantileStatistics> stats = new ResizableList<>(TDigestQuantileStatistics::new);
 
     private Integer[] compression = null;
 
-    private boolean isDigestInited = false;
-
     public TDigestAnalyzer(DataTypeEnum[] types) {
         super(types);
     }
@@ -53,7 +50,6 @@ public class TDigestAnalyzer extends NumericalStatisticsAnalyzer<TDigestQuantile
 
     public void init(Integer[] compression) {
         this.compression = compression;
-        isDigestInited = false;
     }
 
     @Override
@@ -69,24 +65,20 @@ public class TDigestAnalyzer extends NumericalStatisticsAnalyzer<TDigestQuantile
         stats.resize(record.length);
 
         for (int idx : this.getStatColIdx()) { // analysis each numerical column in the record
-            if (!TypeInferenceUtils.isValid(types[idx], record[idx])) {
+            if (!isValid(idx, record[idx])) {
                 continue;
             }
             TDigestQuantileStatistics stat = stats.get(idx);
-            if (compression != null && !isDigestInited) {
+            if (compression != null && stat.isEmpty()) {
+                // keeps the digests restored from a checkpoint
                 stat.initTDigest(compression[idx]);
             }
-            try {
-                stat.add(BigDecimalParser.toBigDecimal(record[idx]).doubleValue());
-            } catch (NumberFormatException e) {
-                continue;
+            final Double value = toDouble(idx, record[idx]);
+            if (value != null) {
+                stat.add(value);
             }
         }
 
-        if (!isDigestInited) {
-            isDigestInited = true;
-        }
-
         return true;
     }
 
@@ -102,7 +94,24 @@ public class TDigestAnalyzer extends NumericalStatisticsAnalyzer<TDigestQuantile
 
     @Override
     public Analyzer<TDigestQuantileStatistics> merge(Analyzer<TDigestQuantileStatistics> another) {
-        throw new NotImplementedException();
+        TDigestAnalyzer mergedAnalyzer = new TDigestAnalyzer(getTypes());
+        mergedAnalyzer.init();
+        mergedAnalyzer.compression = compression;
+        List<TDigestQuantileStatistics> anotherStats = another.getResult();
+        mergedAnalyzer.stats.resize(Math.max(stats.size(), anotherStats.size()));
+        for (int i = 0; i < mergedAnalyzer.stats.size(); i++) {
+            TDigestQuantileStatistics mergedStats = mergedAnalyzer.stats.get(i);
+            if (compression != null) {
+                mergedStats.initTDigest(compression[i]);
+            }
+            if (i < stats.size()) {
+                mergedStats.merge(stats.get(i));
+            }
+            if (i < anotherStats.size()) {
+                mergedStats.merge(anotherStats.get(i));
+            }
+        }
+        return mergedAnalyzer;
     }
 
 }
@@ -35,10 +35,32 @@ public class TDigestQuantileStatistics {
         dist = new TDigest(compression);
     }
 
+    TDigest getDigest() {
+        return dist;
+    }
+
+    void setDigest(TDigest dist) {
+        this.dist = dist;
+    }
+
+    boolean isEmpty() {
+        return dist.size() == 0;
+    }
+
     public void add(double value) {
         dist.add(value);
     }
 
+    /**
+     * Add the centroids of the digest of another instance to the digest of this one, which keeps its compression.
+     */
+    public void merge(TDigestQuantileStatistics other) {
+        // the centroids of an empty digest cannot be iterated
+        if (!other.isEmpty()) {
+            dist.add(other.dist);
+        }
+    }
+
     public double getMedian() {
         if (dist.centroidCount() == 1) {
             return dist.centroids().iterator().next().mean();
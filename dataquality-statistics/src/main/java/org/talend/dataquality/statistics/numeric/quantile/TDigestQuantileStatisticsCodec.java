@@ -0,0 +1,54 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.numeric.quantile;
+
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readBytes;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeBytes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.talend.dataquality.common.inference.StatisticsCodec;
+
+import com.clearspring.analytics.stream.quantile.TDigest;
+
+/**
+ * {@link StatisticsCodec} of {@link TDigestQuantileStatistics}: the compression and centroids of the digest, in the
+ * compact encoding of {@link TDigest#asSmallBytes(ByteBuffer)}.
+ */
+public class TDigestQuantileStatisticsCodec implements StatisticsCodec<TDigestQuantileStatistics> {
+
+    @Override
+    public String getTypeId() {
+        return "tdigest"; //$NON-NLS-1$
+    }
+
+    @Override
+    public void write(TDigestQuantileStatistics statistics, DataOutput out) throws IOException {
+        TDigest digest = statistics.getDigest();
+        // the verbose size is an upper bound of the small encoding size
+        ByteBuffer buffer = ByteBuffer.allocate(digest.byteSize());
+        digest.asSmallBytes(buffer);
+        writeBytes(out, Arrays.copyOf(buffer.array(), buffer.position()));
+    }
+
+    @Override
+    public TDigestQuantileStatistics read(DataInput in) throws IOException {
+        TDigestQuantileStatistics statistics = new TDigestQuantileStatistics();
+        statistics.setDigest(TDigest.fromBytes(ByteBuffer.wrap(readBytes(in))));
+        return statistics;
+    }
+}
@@ -14,25 +14,25 @@ package org.talend.dataquality.statistics.numeric.summary;
 
 import java.util.List;
 
-import org.apache.commons.lang.NotImplementedException;
-import org.talend.daikon.number.BigDecimalParser;
 import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.ColumnarAnalyzer;
 import org.talend.dataquality.common.inference.ResizableList;
 import org.talend.dataquality.statistics.numeric.NumericalStatisticsAnalyzer;
 import org.talend.dataquality.statistics.type.DataTypeEnum;
-import org.talend.dataquality.statistics.type.TypeInferenceUtils;
 
 /**
- * Analyzer for summary statistics using apache common match library.
+ * Analyzer for summary statistics: min, max, mean, variance and sum, computed in a single pass. Analyzers can be
+ * merged, e.g. to compute the statistics of several partitions.
  * 
  * @author zhao
  *
  */
-public class SummaryAnalyzer extends NumericalStatisticsAnalyzer<SummaryStatistics> {
+public class SummaryAnalyzer extends NumericalStatisticsAnalyzer<SummaryStatistics>
+        implements ColumnarAnalyzer<SummaryStatistics> {
 
     private static final long serialVersionUID = 8369753525474844077L;
 
-    private final ResizableList<SummaryStatistics> summaryStats = new ResizableList<>(SummaryStatistics.class);
+    private final ResizableList<SummaryStatistics> summaryStats = new ResizableList<>(SummaryStatistics::new);
 
     public SummaryAnalyzer(DataTypeEnum[] types) {
         super(types);
@@ -57,20 +57,47 @@ public class SummaryAnalyzer extends NumericalStatisticsAnalyzer<SummaryStatisti
         summaryStats.resize(record.length);
 
         for (int idx : this.getStatColIdx()) {// analysis each numerical column in the record
-            if (!TypeInferenceUtils.isValid(types[idx], record[idx])) {
+            if (!isValid(idx, record[idx])) {
                 continue;
             }
-            final SummaryStatistics stats = summaryStats.get(idx);
-            try {
-                stats.addData(BigDecimalParser.toBigDecimal(record[idx]).doubleValue());
-            } catch (NumberFormatException e) {
-                continue;
+            final Double value = toDouble(idx, record[idx]);
+            if (value != null) {
+                summaryStats.get(idx).addData(value);
             }
         }
         return true;
 
     }
 
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        DataTypeEnum[] types = getTypes();
+
+        if (columns.length != types.length)
+            throw new IllegalArgumentException("Each column of the record should be declared a DataType.Type corresponding! \n"
+                    + types.length + " type(s) declared in this summary analyzer but " + columns.length
+                    + " column(s) was found in this batch. \n"
+                    + "Using method: setTypes(DataType.Type[] types) to set the types.");
+
+        summaryStats.resize(columns.length);
+
+        for (int idx : this.getStatColIdx()) {// analysis each numerical column in the batch
+            final SummaryStatistics stats = summaryStats.get(idx);
+            final String[] column = columns[idx];
+            for (int row = 0; row < rowCount; row++) {
+                setRow(row);
+                if (!isValid(idx, column[row])) {
+                    continue;
+                }
+                final Double value = toDouble(idx, column[row]);
+                if (value != null) {
+                    stats.addData(value);
+                }
+            }
+        }
+        return true;
+    }
+
     @Override
     public void end() {
 
@@ -83,7 +110,20 @@ public class SummaryAnalyzer extends NumericalStatisticsAnalyzer<SummaryStatisti
 
     @Override
     public Analyzer<SummaryStatistics> merge(Analyzer<SummaryStatistics> another) {
-        throw new NotImplementedException();
+        SummaryAnalyzer mergedAnalyzer = new SummaryAnalyzer(getTypes());
+        mergedAnalyzer.init();
+        List<SummaryStatistics> anotherStats = another.getResult();
+        mergedAnalyzer.summaryStats.resize(Math.max(summaryStats.size(), anotherStats.size()));
+        for (int i = 0; i < mergedAnalyzer.summaryStats.size(); i++) {
+            SummaryStatistics mergedStats = mergedAnalyzer.summaryStats.get(i);
+            if (i < summaryStats.size()) {
+                mergedStats.merge(summaryStats.get(i));
+            }
+            if (i < anotherStats.size()) {
+                mergedStats.merge(anotherStats.get(i));
+            }
+        }
+        return mergedAnalyzer;
     }
 
 }
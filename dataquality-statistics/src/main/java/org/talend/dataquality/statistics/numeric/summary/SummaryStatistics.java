@@ -14,63 +14,107 @@ package org.talend.dataquality.statistics.numeric.summary;
 
 /**
  * Summary statistics bean <br>
- * Note that variance computation is based on apache common match library. See more at <a href=
+ * The values are accumulated in a few primitives: the count, the mean and the sum of the squared differences from the
+ * mean updated with the Welford method, the min, max and sum. Two instances are merged with the pairwise update of
+ * Chan et al., so that the statistics of several partitions match the statistics of the whole data set. The variance is
+ * the bias corrected variance, as the one of the <a href=
  * "http://commons.apache.org/proper/commons-math/apidocs/org/apache/commons/math3/stat/descriptive/SummaryStatistics.html"
- * >SummaryStatistics</a>
+ * >SummaryStatistics</a> of apache commons math library.
  * 
  * @author mzhao
  *
  */
 public class SummaryStatistics {
 
-    private org.apache.commons.math3.stat.descriptive.SummaryStatistics summaryStatisticsApach = null;
+    private long count;
+
+    private double mean;
+
+    /** Sum of the squared differences from the mean. */
+    private double m2;
+
+    private double min = Double.NaN;
+
+    private double max = Double.NaN;
+
+    private double sum;
 
     /**
-     * Add the data to memory so that the variance can be computed given this list.
+     * Add a value to the statistics.
      * 
-     * @param value field valued added to the list.<br>
-     * See more about add value mehtod
+     * @param value field valued added to the statistics.
      */
     public void addData(double value) {
-        if (summaryStatisticsApach == null) {
-            summaryStatisticsApach = new org.apache.commons.math3.stat.descriptive.SummaryStatistics();
+        count++;
+        final double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        sum += value;
+        if (count == 1) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
         }
-        summaryStatisticsApach.addValue(value);
     }
 
-    public double getMin() {
-        if (summaryStatisticsApach != null) {
-            return summaryStatisticsApach.getMin();
+    /**
+     * Merge the statistics of another instance into this one.
+     * 
+     * @param other the statistics of other values.
+     */
+    public void merge(SummaryStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            sum = other.sum;
+            return;
         }
-        return Double.NaN;
+        final long mergedCount = count + other.count;
+        final double delta = other.mean - mean;
+        mean += delta * other.count / mergedCount;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / mergedCount);
+        count = mergedCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return the number of values added.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
     }
 
     public double getMax() {
-        if (summaryStatisticsApach != null) {
-            return summaryStatisticsApach.getMax();
-        }
-        return Double.NaN;
+        return max;
     }
 
     public double getMean() {
-        if (summaryStatisticsApach != null) {
-            return summaryStatisticsApach.getMean();
-        }
-        return Double.NaN;
+        return count == 0 ? Double.NaN : mean;
     }
 
     public double getVariance() {
-        if (summaryStatisticsApach != null) {
-            return summaryStatisticsApach.getVariance();
+        if (count == 0) {
+            return Double.NaN;
         }
-        return Double.NaN;
+        return count == 1 ? 0 : m2 / (count - 1);
     }
 
     public double getSum() {
-        if (summaryStatisticsApach != null) {
-            return summaryStatisticsApach.getSum();
-        }
-        return Double.NaN;
+        return count == 0 ? Double.NaN : sum;
     }
 
 }
@@ -19,6 +19,8 @@ import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.CellParseContext;
+import org.talend.dataquality.common.inference.ParseContextAware;
 import org.talend.dataquality.common.inference.QualityAnalyzer;
 import org.talend.dataquality.common.inference.ResizableList;
 import org.talend.dataquality.common.inference.ValueQualityStatistics;
@@ -30,16 +32,19 @@ import org.talend.dataquality.statistics.type.TypeInferenceUtils;
  * created by talend on 2015-07-28 Detailled comment.
  *
  */
-public class DataTypeQualityAnalyzer extends QualityAnalyzer<ValueQualityStatistics, DataTypeEnum[]> {
+public class DataTypeQualityAnalyzer extends QualityAnalyzer<ValueQualityStatistics, DataTypeEnum[]>
+        implements ParseContextAware {
 
     private static final long serialVersionUID = -5951511723860660263L;
 
     private static final Logger LOG = LoggerFactory.getLogger(DataTypeQualityAnalyzer.class);
 
-    private final ResizableList<ValueQualityStatistics> results = new ResizableList<>(ValueQualityStatistics.class);
+    private final ResizableList<ValueQualityStatistics> results = new ResizableList<>(ValueQualityStatistics::new);
 
     private List<String> customDateTimePatterns = new ArrayList<>();
 
+    private CellParseContext parseContext;
+
     public DataTypeQualityAnalyzer(DataTypeEnum[] types, boolean isStoreInvalidValues) {
         this.isStoreInvalidValues = isStoreInvalidValues;
         setTypes(types);
@@ -60,6 +65,11 @@ public class DataTypeQualityAnalyzer extends QualityAnalyzer<ValueQualityStatist
         results.clear();
     }
 
+    @Override
+    public void setParseContext(CellParseContext context) {
+        this.parseContext = context;
+    }
+
     @Override
     public boolean analyze(String... record) {
         if (record == null) {
@@ -75,7 +85,7 @@ public class DataTypeQualityAnalyzer extends QualityAnalyzer<ValueQualityStatist
                 valueQuality.incrementValid();
             } else if (DataTypeEnum.TIME == getTypes()[i] && CustomDateTimePatternManager.isTime(value, customDateTimePatterns)) {
                 valueQuality.incrementValid();
-            } else if (TypeInferenceUtils.isValid(getTypes()[i], value)) {
+            } else if (TypeInferenceUtils.isValid(parseContext, i, getTypes()[i], value)) {
                 valueQuality.incrementValid();
             } else {
                 // while list analyzers
@@ -15,6 +15,7 @@ package org.talend.dataquality.statistics.text;
 import java.util.List;
 
 import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.ColumnarAnalyzer;
 import org.talend.dataquality.common.inference.ResizableList;
 
 /**
@@ -25,11 +26,11 @@ import org.talend.dataquality.common.inference.ResizableList;
  * @author zhao
  *
  */
-public class TextLengthAnalyzer implements Analyzer<TextLengthStatistics> {
+public class TextLengthAnalyzer implements ColumnarAnalyzer<TextLengthStatistics> {
 
     private static final long serialVersionUID = -9106960246571082963L;
 
-    private ResizableList<TextLengthStatistics> textStatistics = new ResizableList<>(TextLengthStatistics.class);
+    private ResizableList<TextLengthStatistics> textStatistics = new ResizableList<>(TextLengthStatistics::new);
 
     @Override
     public void init() {
@@ -49,6 +50,19 @@ public class TextLengthAnalyzer implements Analyzer<TextLengthStatistics> {
         return true;
     }
 
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        textStatistics.resize(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            final TextLengthStatistics stats = textStatistics.get(i);
+            final String[] column = columns[i];
+            for (int row = 0; row < rowCount; row++) {
+                stats.add(column[row]);
+            }
+        }
+        return true;
+    }
+
     @Override
     public void end() {
         // Nothing to be done.
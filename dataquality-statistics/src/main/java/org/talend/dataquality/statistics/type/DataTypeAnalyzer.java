@@ -19,7 +19,11 @@ import java.util.List;
 import java.util.Map;
 
 import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.CellParseContext;
+import org.talend.dataquality.common.inference.ColumnarAnalyzer;
+import org.talend.dataquality.common.inference.ParseContextAware;
 import org.talend.dataquality.common.inference.ResizableList;
+import org.talend.dataquality.statistics.datetime.RecentDateTimePatterns;
 
 /**
  * Type inference executor which provide several methods computing the types.<br>
@@ -31,15 +35,20 @@ import org.talend.dataquality.common.inference.ResizableList;
  * <b>Important note:</b> This class is <b>NOT</b> thread safe.
  *
  */
-public class DataTypeAnalyzer implements Analyzer<DataTypeOccurences> {
+public class DataTypeAnalyzer implements ColumnarAnalyzer<DataTypeOccurences>, ParseContextAware {
 
     private static final long serialVersionUID = 373694310453353502L;
 
-    private final ResizableList<DataTypeOccurences> dataTypes = new ResizableList<>(DataTypeOccurences.class);
+    private final ResizableList<DataTypeOccurences> dataTypes = new ResizableList<>(DataTypeOccurences::new);
 
     /** Optional custom date patterns. */
     protected List<String> customDateTimePatterns = new ArrayList<>();
 
+    private CellParseContext parseContext;
+
+    /** Date and time patterns recently matched in each column. */
+    private transient ResizableList<RecentDateTimePatterns> recentPatterns;
+
     /**
      * Default empty constructor.
      */
@@ -58,6 +67,12 @@ public class DataTypeAnalyzer implements Analyzer<DataTypeOccurences> {
 
     public void init() {
         dataTypes.clear();
+        recentPatterns = null;
+    }
+
+    @Override
+    public void setParseContext(CellParseContext context) {
+        this.parseContext = context;
     }
 
     /**
@@ -82,13 +97,45 @@ public class DataTypeAnalyzer implements Analyzer<DataTypeOccurences> {
             return true;
         }
         dataTypes.resize(record.length);
+        final ResizableList<RecentDateTimePatterns> columnPatterns = getRecentPatterns(record.length);
         for (int i = 0; i < record.length; i++) {
             final DataTypeOccurences dataType = dataTypes.get(i);
-            dataType.increment(TypeInferenceUtils.getDataType(record[i], customDateTimePatterns));
+            dataType.increment(TypeInferenceUtils.getDataType(parseContext, i, record[i], columnPatterns.get(i)));
+        }
+        return true;
+    }
+
+    /**
+     * Inferring types column by column. The types are kept in the parse context for each row of the batch, for the
+     * next analyzers of the batch.
+     */
+    @Override
+    public boolean analyzeColumns(String[][] columns, int rowCount) {
+        dataTypes.resize(columns.length);
+        final ResizableList<RecentDateTimePatterns> columnPatterns = getRecentPatterns(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            final DataTypeOccurences dataType = dataTypes.get(i);
+            final RecentDateTimePatterns patterns = columnPatterns.get(i);
+            final String[] column = columns[i];
+            for (int row = 0; row < rowCount; row++) {
+                if (parseContext != null) {
+                    parseContext.setRow(row);
+                }
+                dataType.increment(TypeInferenceUtils.getDataType(parseContext, i, column[row], patterns));
+            }
         }
         return true;
     }
 
+    private ResizableList<RecentDateTimePatterns> getRecentPatterns(int columnCount) {
+        if (recentPatterns == null) {
+            final List<String> patterns = customDateTimePatterns;
+            recentPatterns = new ResizableList<>(() -> new RecentDateTimePatterns(patterns));
+        }
+        recentPatterns.resize(columnCount);
+        return recentPatterns;
+    }
+
     public void end() {
         // Nothing to do.
     }
@@ -0,0 +1,63 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.type;
+
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.readVarLong;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeString;
+import static org.talend.dataquality.common.inference.AnalyzerCheckpoint.writeVarLong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+import org.talend.dataquality.common.inference.StatisticsCodec;
+
+/**
+ * {@link StatisticsCodec} of {@link DataTypeOccurences}: each type is written by name, so that checkpoints survive a
+ * change in the order of {@link DataTypeEnum}.
+ */
+public class DataTypeOccurencesCodec implements StatisticsCodec<DataTypeOccurences> {
+
+    @Override
+    public String getTypeId() {
+        return "dataTypeOccurences"; //$NON-NLS-1$
+    }
+
+    @Override
+    public void write(DataTypeOccurences statistics, DataOutput out) throws IOException {
+        Map<DataTypeEnum, Long> frequencies = statistics.getTypeFrequencies();
+        writeVarLong(out, frequencies.size());
+        for (Map.Entry<DataTypeEnum, Long> entry : frequencies.entrySet()) {
+            writeString(out, entry.getKey().name());
+            writeVarLong(out, entry.getValue());
+        }
+    }
+
+    @Override
+    public DataTypeOccurences read(DataInput in) throws IOException {
+        DataTypeOccurences statistics = new DataTypeOccurences();
+        long size = readVarLong(in);
+        for (long i = 0; i < size; i++) {
+            String typeName = readString(in);
+            long count = readVarLong(in);
+            try {
+                statistics.getTypeFrequencies().put(DataTypeEnum.valueOf(typeName), count);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown data type: " + typeName, e);
+            }
+        }
+        return statistics;
+    }
+}
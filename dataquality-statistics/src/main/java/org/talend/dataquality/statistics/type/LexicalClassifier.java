@@ -0,0 +1,349 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.type;
+
+/**
+ * Classifies a value by scanning its characters, without any regex: empty, boolean, integer, double, or a value which
+ * may be a date or a time and needs to be checked by the date time pattern managers.<br>
+ * The accepted integers and doubles are exactly those of the former regexes of {@link TypeInferenceUtils}:
+ *
+ * <pre>
+ * integer: ^(\+|-)?\d+$
+ * double:  ^[-+]?(D+([,.]D+)?|D{1,3}((,DDD)*(\.D+)?|((\.DDD)*|(SDDD)*)(,D+)?))([ ]?[eE][-+]?D+)?([ ]?%)?$
+ * </pre>
+ *
+ * where D is an ASCII digit and S a space, a no-break space (U+00A0, U+2007 or U+202F).<br>
+ * The same scan converts the numbers to doubles, see {@link #parseDouble(String)}.
+ */
+final class LexicalClassifier {
+
+    /**
+     * Lexical class of a value.
+     */
+    enum LexicalClass {
+        EMPTY,
+        BOOLEAN,
+        INTEGER,
+        DOUBLE,
+        /** Has enough digits to be a date or a time. */
+        MAYBE_TEMPORAL,
+        /** Can only be a date or a time with custom patterns. */
+        TEXT
+    }
+
+    /**
+     * The system date and time regexes all need at least this number of digits.
+     */
+    private static final int MIN_TEMPORAL_DIGITS = 3;
+
+    /** Mantissas up to 2^53 are exact doubles. */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /** Powers of ten which are exact doubles. */
+    private static final double[] EXACT_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /** Exponents are accumulated up to this one, larger ones are left to the BigDecimalParser. */
+    private static final int MAX_EXPONENT = 100000;
+
+    /**
+     * Mantissa, exponent and separators of a number accumulated while it is scanned.
+     */
+    static final class ScannedNumber {
+
+        private boolean negative;
+
+        private long mantissa;
+
+        /** True if the mantissa has more digits than a long can hold. */
+        private boolean overflow;
+
+        private int dotCount;
+
+        private int commaCount;
+
+        /** The last '.' or ',' separator. */
+        private char lastPoint;
+
+        private int digitsAfterLastPoint;
+
+        /** True if a separator is not understood by the BigDecimalParser of daikon. */
+        private boolean unsupportedSeparator;
+
+        private int exponent;
+
+        private boolean percent;
+
+        private void addDigit(char ch) {
+            if (mantissa <= (Long.MAX_VALUE - 9) / 10) {
+                mantissa = mantissa * 10 + (ch - '0');
+            } else {
+                overflow = true;
+            }
+            digitsAfterLastPoint++;
+        }
+
+        private void addSeparator(char ch) {
+            if (ch == '.') {
+                dotCount++;
+            } else if (ch == ',') {
+                commaCount++;
+            } else {
+                unsupportedSeparator |= ch != ' ' && ch != '\u00A0';
+                return;
+            }
+            lastPoint = ch;
+            digitsAfterLastPoint = 0;
+        }
+
+        /**
+         * The last '.' or ',' is the decimal separator as decided by the BigDecimalParser of daikon: if both are used,
+         * if it is the only dot, or if it is the only comma and is not followed by a group of 3 digits.
+         * 
+         * @return the value, or {@link Double#NaN} if it cannot be exactly converted with one rounding.
+         */
+        double toDouble() {
+            if (overflow || unsupportedSeparator || Math.abs(exponent) >= MAX_EXPONENT) {
+                return Double.NaN;
+            }
+            if (mantissa == 0) {
+                return 0;
+            }
+            final boolean decimal = (dotCount > 0 && commaCount > 0) || (lastPoint == '.' && dotCount == 1)
+                    || (lastPoint == ',' && commaCount == 1 && digitsAfterLastPoint != 3);
+            final int exponent10 = exponent - (decimal ? digitsAfterLastPoint : 0) - (percent ? 2 : 0);
+            if (mantissa > MAX_EXACT_MANTISSA || Math.abs(exponent10) >= EXACT_POWERS_OF_TEN.length) {
+                return Double.NaN;
+            }
+            // both operands are exact, the result is correctly rounded
+            final double value = exponent10 >= 0 ? mantissa * EXACT_POWERS_OF_TEN[exponent10]
+                    : mantissa / EXACT_POWERS_OF_TEN[-exponent10];
+            return negative ? -value : value;
+        }
+    }
+
+    private LexicalClassifier() {
+        // no instance
+    }
+
+    static LexicalClass classify(String value) {
+        if (value == null) {
+            return LexicalClass.EMPTY;
+        }
+        final int length = value.length();
+        boolean blank = true;
+        int digitCount = 0;
+        for (int i = 0; i < length; i++) {
+            final char ch = value.charAt(i);
+            if (ch > ' ') {
+                blank = false;
+                if (ch >= '0' && ch <= '9') {
+                    digitCount++;
+                }
+            }
+        }
+        if (blank) {
+            return LexicalClass.EMPTY;
+        }
+        if (digitCount == 0) {
+            return isBoolean(value) ? LexicalClass.BOOLEAN : LexicalClass.TEXT;
+        }
+        final LexicalClass numberClass = scanNumber(value);
+        if (numberClass != null) {
+            return numberClass;
+        }
+        return digitCount < MIN_TEMPORAL_DIGITS ? LexicalClass.TEXT : LexicalClass.MAYBE_TEMPORAL;
+    }
+
+    /**
+     * @return {@link LexicalClass#INTEGER}, {@link LexicalClass#DOUBLE} or <code>null</code> if the value is not a
+     * number.
+     */
+    static LexicalClass scanNumber(String value) {
+        return scanNumber(value, null);
+    }
+
+    /**
+     * Convert a number to a double in the same scan as {@link #scanNumber(String)}, to the same value as the
+     * BigDecimalParser of daikon: the separators are decimal or grouping ones as decided by this parser, a percentage
+     * is divided by 100.
+     * 
+     * @return the value, or {@link Double#NaN} if the value is not a number, if a separator is not supported by the
+     * BigDecimalParser, or if the number has too many digits or too large an exponent to be converted exactly (such
+     * values have to be parsed by the BigDecimalParser).
+     */
+    static double parseDouble(String value) {
+        final ScannedNumber number = new ScannedNumber();
+        return scanNumber(value, number) == null ? Double.NaN : number.toDouble();
+    }
+
+    /**
+     * Same as {@link #scanNumber(String)}, accumulating the number in <code>number</code> when it is not
+     * <code>null</code>, so that it can be {@link ScannedNumber#toDouble() converted} without another scan.
+     */
+    static LexicalClass scanNumber(String value, ScannedNumber number) {
+        final int length = value.length();
+        int pos = 0;
+        if (pos < length && (value.charAt(pos) == '+' || value.charAt(pos) == '-')) {
+            if (number != null) {
+                number.negative = value.charAt(pos) == '-';
+            }
+            pos++;
+        }
+        final int mantissaStart = pos;
+        // first run of digits
+        while (pos < length && isDigit(value.charAt(pos))) {
+            if (number != null) {
+                number.addDigit(value.charAt(pos));
+            }
+            pos++;
+        }
+        final int firstRunLength = pos - mantissaStart;
+        if (firstRunLength == 0) {
+            return null;
+        }
+        if (pos == length) {
+            return LexicalClass.INTEGER;
+        }
+
+        // separated runs of digits: each separator is followed by a run, the last separator may be a decimal one
+        char groupSeparator = 0;
+        int separatorCount = 0;
+        char lastSeparator = 0;
+        int lastRunLength = 0;
+        boolean groupsValid = true;
+        while (pos < length && isSeparator(value.charAt(pos))) {
+            final char separator = normalizeSeparator(value.charAt(pos));
+            if (number != null) {
+                number.addSeparator(value.charAt(pos));
+            }
+            final int runStart = ++pos;
+            while (pos < length && isDigit(value.charAt(pos))) {
+                if (number != null) {
+                    number.addDigit(value.charAt(pos));
+                }
+                pos++;
+            }
+            final int runLength = pos - runStart;
+            if (runLength == 0) {
+                if (separator == ' ' && pos < length && isSuffixStart(value.charAt(pos))) {
+                    // the space belongs to the exponent or percentage part
+                    pos--;
+                    break;
+                }
+                return null;
+            }
+            if (separatorCount == 0) {
+                groupSeparator = separator;
+            } else if (lastSeparator != groupSeparator || lastRunLength != 3) {
+                // all separators but the last one separate groups of 3 digits
+                groupsValid = false;
+            }
+            separatorCount++;
+            lastSeparator = separator;
+            lastRunLength = runLength;
+        }
+        if (!isValidMantissa(firstRunLength, separatorCount, groupSeparator, groupsValid, lastSeparator,
+                lastRunLength)) {
+            return null;
+        }
+        return isValidSuffix(value, pos, number) ? LexicalClass.DOUBLE : null;
+    }
+
+    private static boolean isValidMantissa(int firstRunLength, int separatorCount, char groupSeparator,
+            boolean groupsValid, char lastSeparator, int lastRunLength) {
+        if (separatorCount == 0) {
+            return true;
+        }
+        if (separatorCount == 1 && lastSeparator != ' ') {
+            // D+[,.]D+
+            return true;
+        }
+        if (firstRunLength > 3 || !groupsValid) {
+            return false;
+        }
+        if (lastSeparator == groupSeparator && lastRunLength == 3) {
+            return true;
+        }
+        // decimal part after groups: 1,234.5 or 1.234,5 or 1 234,5
+        return lastSeparator == (groupSeparator == ',' ? '.' : ',');
+    }
+
+    /**
+     * @return true if the value ends at <code>pos</code> with an optional exponent then an optional percentage.
+     */
+    private static boolean isValidSuffix(String value, int pos, ScannedNumber number) {
+        final int length = value.length();
+        int current = pos;
+        if (current < length) {
+            final int exponent = value.charAt(current) == ' ' ? current + 1 : current;
+            if (exponent < length && (value.charAt(exponent) == 'e' || value.charAt(exponent) == 'E')) {
+                current = exponent + 1;
+                final boolean negativeExponent = current < length && value.charAt(current) == '-';
+                if (current < length && (value.charAt(current) == '+' || value.charAt(current) == '-')) {
+                    current++;
+                }
+                final int digitsStart = current;
+                int exponentValue = 0;
+                while (current < length && isDigit(value.charAt(current))) {
+                    exponentValue = Math.min(exponentValue * 10 + value.charAt(current) - '0', MAX_EXPONENT);
+                    current++;
+                }
+                if (current == digitsStart) {
+                    return false;
+                }
+                if (number != null) {
+                    number.exponent = negativeExponent ? -exponentValue : exponentValue;
+                }
+            }
+        }
+        if (current < length) {
+            if (value.charAt(current) == ' ') {
+                current++;
+            }
+            if (current >= length || value.charAt(current) != '%') {
+                return false;
+            }
+            if (number != null) {
+                number.percent = true;
+            }
+            current++;
+        }
+        return current == length;
+    }
+
+    private static boolean isBoolean(String value) {
+        final int length = value.length();
+        return (length == 4 || length == 5)
+                && ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isSeparator(char ch) {
+        return ch == ',' || ch == '.' || ch == ' ' || ch == '\u00A0' || ch == '\u2007' || ch == '\u202F';
+    }
+
+    /**
+     * All the space separators are equivalent.
+     */
+    private static char normalizeSeparator(char ch) {
+        return ch == ',' || ch == '.' ? ch : ' ';
+    }
+
+    private static boolean isSuffixStart(char ch) {
+        return ch == 'e' || ch == 'E' || ch == '%';
+    }
+}
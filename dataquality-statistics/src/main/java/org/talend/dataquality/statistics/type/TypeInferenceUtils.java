@@ -16,10 +16,14 @@ import java.math.BigInteger;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Pattern;
 
+import org.talend.daikon.number.BigDecimalParser;
+import org.talend.dataquality.common.inference.CellParseContext;
 import org.talend.dataquality.statistics.datetime.CustomDateTimePatternManager;
+import org.talend.dataquality.statistics.datetime.RecentDateTimePatterns;
 import org.talend.dataquality.statistics.datetime.SystemDateTimePatternManager;
+import org.talend.dataquality.statistics.type.LexicalClassifier.LexicalClass;
+import org.talend.dataquality.statistics.type.LexicalClassifier.ScannedNumber;
 
 /**
  * Utility class refering data types given single value
@@ -29,24 +33,23 @@ import org.talend.dataquality.statistics.datetime.SystemDateTimePatternManager;
  */
 public class TypeInferenceUtils {
 
-    private static final Pattern patternInteger = Pattern.compile("^(\\+|-)?\\d+$");
-
-    private static final Pattern patternDouble = Pattern.compile("^[-+]?"// Positive/Negative sign
-            + "("// BEGIN Decimal part
-            + "[0-9]+([,\\.][0-9]+)?|"// Alternative I (w/o grouped integer part)
-            + "(" // BEGIN Alternative II (with grouped integer part)
-            + "[0-9]{1,3}" // starting digits
-            + "(" // BEGIN grouped part
-            + "((,[0-9]{3})*"// US integer part
-            + "(\\.[0-9]+)?"// US float part
-            + "|" // OR
-            + "((\\.[0-9]{3})*|([ \u00A0\u2007\u202F][0-9]{3})*)"// EU integer part
-            + "(,[0-9]+)?)"// EU float part
-            + ")"// END grouped part
-            + ")" // END Alternative II
-            + ")" // END Decimal part
-            + "([ ]?[eE][-+]?[0-9]+)?" // scientific part
-            + "([ ]?%)?$"); // percentage part
+    /**
+     * Type of a cell as returned by {@link #getDataType(String)}, shared between analyzers in a
+     * {@link CellParseContext}.
+     */
+    public static final CellParseContext.Key<DataTypeEnum> DATA_TYPE = CellParseContext.Key
+            .create("dataType"); //$NON-NLS-1$
+
+    /**
+     * {@link DataTypeEnum#INTEGER}, {@link DataTypeEnum#DOUBLE} or {@link DataTypeEnum#STRING} if a cell is not a
+     * number, for analyzers checking numbers only.
+     */
+    private static final CellParseContext.Key<DataTypeEnum> NUMBER_TYPE = CellParseContext.Key
+            .create("numberType"); //$NON-NLS-1$
+
+    /** Value of a cell as returned by {@link #getDouble(String)}. */
+    private static final CellParseContext.Key<Double> NUMERIC_VALUE = CellParseContext.Key
+            .create("numericValue"); //$NON-NLS-1$
 
     /**
      * Detect if the given value is a double type.
@@ -74,10 +77,7 @@ public class TypeInferenceUtils {
      * @return true if the value is a double type, false otherwise.
      */
     public static boolean isDouble(String value) {
-        if (!isEmpty(value) && patternDouble.matcher(value).matches()) {
-            return true;
-        }
-        return false;
+        return value != null && LexicalClassifier.scanNumber(value) != null;
     }
 
     /**
@@ -87,10 +87,7 @@ public class TypeInferenceUtils {
      * @return true if the value is a integer type, false otherwise.
      */
     public static boolean isInteger(String value) {
-        if (!isEmpty(value) && patternInteger.matcher(value).matches()) {
-            return true;
-        }
-        return false;
+        return value != null && LexicalClassifier.scanNumber(value) == LexicalClass.INTEGER;
     }
 
     public static boolean isNumber(String value) {
@@ -114,6 +111,59 @@ public class TypeInferenceUtils {
         return bint;
     }
 
+    /**
+     * Get double from a string.<br>
+     * The numbers accepted by {@link #isDouble(String)}, grouped or locale formatted ones included, are validated and
+     * converted in a single scan of their characters when they can be exactly converted, the other ones are parsed by
+     * {@link BigDecimalParser}. In both cases the result is the one of {@link BigDecimalParser}, e.g. a percentage is
+     * divided by 100.
+     * 
+     * @param value
+     * @return the double value, or null if the value is not a number.
+     */
+    public static Double getDouble(String value) {
+        if (value == null) {
+            return null;
+        }
+        return getDouble(value, LexicalClassifier.parseDouble(value));
+    }
+
+    /**
+     * Same as {@link #getDouble(String)}, the value is converted once per cell for all the analyzers sharing
+     * <code>context</code>. A number already checked by {@link #isValid(CellParseContext, int, DataTypeEnum, String)}
+     * with the same context has been converted in the same scan.
+     *
+     * @param context the context shared by the analyzers of a record, may be <code>null</code>.
+     * @param column the column of the value in the record.
+     * @param value the value to convert.
+     * @return the double value, or null if the value is not a number.
+     */
+    public static Double getDouble(CellParseContext context, int column, String value) {
+        if (context == null) {
+            return getDouble(value);
+        }
+        if (context.contains(NUMERIC_VALUE, column, value)) {
+            return context.get(NUMERIC_VALUE, column, value);
+        }
+        final Double numericValue = getDouble(value);
+        context.put(NUMERIC_VALUE, column, value, numericValue);
+        return numericValue;
+    }
+
+    /**
+     * @param scanned the value converted by the lexical scan, {@link Double#NaN} if it has to be parsed.
+     */
+    private static Double getDouble(String value, double scanned) {
+        if (!Double.isNaN(scanned)) {
+            return scanned;
+        }
+        try {
+            return BigDecimalParser.toBigDecimal(value).doubleValue();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Detect if the given value is a boolean type.
      * 
@@ -215,32 +265,157 @@ public class TypeInferenceUtils {
         }
     }
 
+    /**
+     * Same as {@link #isValid(DataTypeEnum, String)}, numbers are checked once per cell for all the analyzers sharing
+     * <code>context</code>.
+     *
+     * @param context the context shared by the analyzers of a record, may be <code>null</code>.
+     * @param column the column of the value in the record.
+     * @param type the expected type
+     * @param value the value to be detected
+     * @return true if the type of value is expected, false otherwise.
+     */
+    public static boolean isValid(CellParseContext context, int column, DataTypeEnum type, String value) {
+        if (context == null || (type != DataTypeEnum.INTEGER && type != DataTypeEnum.DOUBLE)) {
+            return isValid(type, value);
+        }
+        DataTypeEnum numberType = getNumberType(context, column, value);
+        // integers are valid doubles
+        return type == DataTypeEnum.INTEGER ? numberType == DataTypeEnum.INTEGER : numberType != DataTypeEnum.STRING;
+    }
+
+    private static DataTypeEnum getNumberType(CellParseContext context, int column, String value) {
+        DataTypeEnum dataType = context.get(DATA_TYPE, column, value);
+        if (dataType != null) {
+            return dataType == DataTypeEnum.INTEGER || dataType == DataTypeEnum.DOUBLE ? dataType : DataTypeEnum.STRING;
+        }
+        DataTypeEnum numberType = context.get(NUMBER_TYPE, column, value);
+        if (numberType == null) {
+            // numbers are converted in the same scan, for the analyzers needing their value next
+            final ScannedNumber number = new ScannedNumber();
+            final LexicalClass numberClass = value == null ? null : LexicalClassifier.scanNumber(value, number);
+            if (numberClass == LexicalClass.INTEGER) {
+                numberType = DataTypeEnum.INTEGER;
+            } else if (numberClass == LexicalClass.DOUBLE) {
+                numberType = DataTypeEnum.DOUBLE;
+            } else {
+                numberType = DataTypeEnum.STRING;
+            }
+            context.put(NUMBER_TYPE, column, value, numberType);
+            if (numberClass != null) {
+                context.put(NUMERIC_VALUE, column, value, getDouble(value, number.toDouble()));
+            }
+        }
+        return numberType;
+    }
+
     public static DataTypeEnum getDataType(String value) {
         return getDataType(value, Collections.emptyList());
     }
 
+    /**
+     * Same as {@link #getDataType(String, List)}, the type is inferred once per cell for all the analyzers sharing
+     * <code>context</code> (when no custom date pattern is given).
+     *
+     * @param context the context shared by the analyzers of a record, may be <code>null</code>.
+     * @param column the column of the value in the record.
+     * @param value the value which type is inferred.
+     * @param customDateTimePatterns optional custom date patterns.
+     * @return the inferred type.
+     */
+    public static DataTypeEnum getDataType(CellParseContext context, int column, String value,
+            List<String> customDateTimePatterns) {
+        if (context == null || !customDateTimePatterns.isEmpty()) {
+            return getDataType(value, customDateTimePatterns);
+        }
+        DataTypeEnum dataType = context.get(DATA_TYPE, column, value);
+        if (dataType == null) {
+            dataType = getDataType(value, customDateTimePatterns);
+            context.put(DATA_TYPE, column, value, dataType);
+        }
+        return dataType;
+    }
+
+    /**
+     * Same as {@link #getDataType(CellParseContext, int, String, List)} with the custom patterns of
+     * <code>recentPatterns</code>, dates and times are checked against the patterns recently matched in the column
+     * first.
+     *
+     * @param context the context shared by the analyzers of a record, may be <code>null</code>.
+     * @param column the column of the value in the record.
+     * @param value the value which type is inferred.
+     * @param recentPatterns the date and time patterns of the column.
+     * @return the inferred type.
+     */
+    public static DataTypeEnum getDataType(CellParseContext context, int column, String value,
+            RecentDateTimePatterns recentPatterns) {
+        if (context == null || !recentPatterns.getCustomPatterns().isEmpty()) {
+            return getDataType(value, recentPatterns);
+        }
+        DataTypeEnum dataType = context.get(DATA_TYPE, column, value);
+        if (dataType == null) {
+            dataType = getDataType(value, recentPatterns);
+            context.put(DATA_TYPE, column, value, dataType);
+        }
+        return dataType;
+    }
+
+    /**
+     * Infer the type of a value. The value is first classified by a single scan of its characters (see
+     * {@link LexicalClassifier}), only the values which may be dates or times are then checked against the date and
+     * time patterns.
+     *
+     * @param value the value which type is inferred.
+     * @param customDateTimePatterns custom date patterns checked before the system ones.
+     * @return the inferred type.
+     */
     public static DataTypeEnum getDataType(String value, List<String> customDateTimePatterns) {
-        if (TypeInferenceUtils.isEmpty(value)) {
-            // 1. detect empty
+        return getDataType(value, customDateTimePatterns, null);
+    }
+
+    /**
+     * Same as {@link #getDataType(String, List)} with the custom patterns of <code>recentPatterns</code>, dates and
+     * times are checked against the patterns recently matched in the column first.
+     *
+     * @param value the value which type is inferred.
+     * @param recentPatterns the date and time patterns of the column.
+     * @return the inferred type.
+     */
+    public static DataTypeEnum getDataType(String value, RecentDateTimePatterns recentPatterns) {
+        return getDataType(value, recentPatterns.getCustomPatterns(), recentPatterns);
+    }
+
+    private static DataTypeEnum getDataType(String value, List<String> customDateTimePatterns,
+            RecentDateTimePatterns recentPatterns) {
+        switch (LexicalClassifier.classify(value)) {
+        case EMPTY:
             return DataTypeEnum.EMPTY;
-        } else if (TypeInferenceUtils.isBoolean(value)) {
-            // 2. detect boolean
+        case BOOLEAN:
             return DataTypeEnum.BOOLEAN;
-        } else if (TypeInferenceUtils.isInteger(value)) {
-            // 3. detect integer
+        case INTEGER:
             return DataTypeEnum.INTEGER;
-        } else if (TypeInferenceUtils.isDouble(value)) {
-            // 4. detect double
+        case DOUBLE:
             return DataTypeEnum.DOUBLE;
-        } else if (isDate(value, customDateTimePatterns)) {
-            // 5. detect date
-            return DataTypeEnum.DATE;
-        } else if (isTime(value)) {
-            // 6. detect date
-            return DataTypeEnum.TIME;
-        }
-        // will return string when no matching
-        return DataTypeEnum.STRING;
+        case TEXT:
+            if (customDateTimePatterns.isEmpty()) {
+                // not enough digits for any system date or time pattern
+                return DataTypeEnum.STRING;
+            }
+            return isDate(value, customDateTimePatterns, recentPatterns) ? DataTypeEnum.DATE : DataTypeEnum.STRING;
+        default:
+            if (isDate(value, customDateTimePatterns, recentPatterns)) {
+                return DataTypeEnum.DATE;
+            } else if (recentPatterns == null ? isTime(value) : recentPatterns.isTime(value)) {
+                return DataTypeEnum.TIME;
+            }
+            // will return string when no matching
+            return DataTypeEnum.STRING;
+        }
+    }
+
+    private static boolean isDate(String value, List<String> customDateTimePatterns,
+            RecentDateTimePatterns recentPatterns) {
+        return recentPatterns == null ? isDate(value, customDateTimePatterns) : recentPatterns.isDate(value);
     }
 
 }
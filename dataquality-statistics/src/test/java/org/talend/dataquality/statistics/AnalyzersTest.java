@@ -12,17 +12,33 @@
 // ============================================================================
 package org.talend.dataquality.statistics;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.talend.dataquality.statistics.cardinality.CardinalityAnalyzer;
+import org.talend.dataquality.statistics.cardinality.CardinalityHLLAnalyzer;
+import org.talend.dataquality.statistics.cardinality.CardinalityHLLStatistics;
 import org.talend.dataquality.statistics.cardinality.CardinalityStatistics;
 import org.talend.dataquality.statistics.frequency.AbstractFrequencyStatistics;
+import org.talend.dataquality.statistics.numeric.summary.SummaryAnalyzer;
+import org.talend.dataquality.statistics.numeric.summary.SummaryStatistics;
+import org.talend.dataquality.statistics.quality.DataTypeQualityAnalyzer;
+import org.talend.dataquality.statistics.text.TextLengthAnalyzer;
+import org.talend.dataquality.statistics.text.TextLengthStatistics;
 import org.talend.dataquality.statistics.type.DataTypeAnalyzer;
+import org.talend.dataquality.statistics.type.DataTypeEnum;
+import org.talend.dataquality.statistics.type.DataTypeOccurences;
+import org.talend.dataquality.statistics.type.TypeInferenceUtils;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.Analyzers;
 import org.talend.dataquality.common.inference.Analyzers.Result;
+import org.talend.dataquality.common.inference.CellParseContext;
+import org.talend.dataquality.common.inference.ParseContextAware;
+import org.talend.dataquality.common.inference.ValueQualityStatistics;
 
 public class AnalyzersTest {
 
@@ -45,4 +61,198 @@ public class AnalyzersTest {
         Assert.assertEquals(1, analyzer.getResult().get(0).get(CardinalityStatistics.class).getDuplicateCount(), 0);
         Assert.assertFalse(analyzer.getResult().get(0).exist(AbstractFrequencyStatistics.class));
     }
+
+    @Test
+    public void testMerge() {
+        Analyzer<Result> analyzer1 = Analyzers.with(new DataTypeAnalyzer(), new TextLengthAnalyzer());
+        Analyzer<Result> analyzer2 = Analyzers.with(new DataTypeAnalyzer(), new TextLengthAnalyzer());
+        analyzer1.init();
+        analyzer2.init();
+        for (String r : new String[] { "0", "1", "a", "" }) {
+            analyzer1.analyze(r);
+        }
+        for (String r : new String[] { "2.5", "123456", "bb" }) {
+            analyzer2.analyze(r);
+        }
+        analyzer1.end();
+        analyzer2.end();
+
+        Result merged = analyzer1.merge(analyzer2).getResult().get(0);
+        DataTypeOccurences types = merged.get(DataTypeOccurences.class);
+        Assert.assertEquals(3, types.getTypeFrequencies().get(DataTypeEnum.INTEGER), 0);
+        Assert.assertEquals(1, types.getTypeFrequencies().get(DataTypeEnum.DOUBLE), 0);
+        Assert.assertEquals(2, types.getTypeFrequencies().get(DataTypeEnum.STRING), 0);
+        Assert.assertEquals(1, types.getTypeFrequencies().get(DataTypeEnum.EMPTY), 0);
+        TextLengthStatistics textLength = merged.get(TextLengthStatistics.class);
+        Assert.assertEquals(7, textLength.getCount(), 0);
+        Assert.assertEquals(6, textLength.getMaxTextLength(), 0);
+        Assert.assertEquals(0, textLength.getMinTextLength(), 0);
+        // the merged analyzer does not share its analyzers with analyzer1
+        Assert.assertEquals(4, analyzer1.getResult().get(0).get(TextLengthStatistics.class).getCount(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentOrder() {
+        Analyzer<Result> analyzer1 = Analyzers.with(new DataTypeAnalyzer(), new TextLengthAnalyzer());
+        Analyzer<Result> analyzer2 = Analyzers.with(new TextLengthAnalyzer(), new DataTypeAnalyzer());
+        analyzer1.merge(analyzer2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeMissingAnalyzer() {
+        Analyzer<Result> analyzer1 = Analyzers.with(new DataTypeAnalyzer());
+        Analyzer<Result> analyzer2 = Analyzers.with(new DataTypeAnalyzer(), new TextLengthAnalyzer());
+        analyzer1.merge(analyzer2);
+    }
+
+    @Test
+    public void testAnalyzeColumns() {
+        String[][] columns = new String[][] { { "0", "1", "2", "2", "aa", "ignored" },
+                { "a", "", "b", "1.5", "a", "ignored" } };
+        Analyzer<Result> rowAnalyzer = Analyzers.with(new CardinalityAnalyzer(), new DataTypeAnalyzer(),
+                new TextLengthAnalyzer(), new CardinalityHLLAnalyzer());
+        Analyzers columnAnalyzer = (Analyzers) Analyzers.with(new CardinalityAnalyzer(), new DataTypeAnalyzer(),
+                new TextLengthAnalyzer(), new CardinalityHLLAnalyzer());
+        rowAnalyzer.init();
+        columnAnalyzer.init();
+        for (int row = 0; row < 5; row++) {
+            rowAnalyzer.analyze(columns[0][row], columns[1][row]);
+        }
+        columnAnalyzer.analyzeColumns(columns, 5);
+
+        Assert.assertEquals(2, columnAnalyzer.getResult().size());
+        for (int col = 0; col < 2; col++) {
+            Result expected = rowAnalyzer.getResult().get(col);
+            Result actual = columnAnalyzer.getResult().get(col);
+            Assert.assertEquals(expected.get(CardinalityStatistics.class).getCount(),
+                    actual.get(CardinalityStatistics.class).getCount());
+            Assert.assertEquals(expected.get(CardinalityStatistics.class).getDistinctData(),
+                    actual.get(CardinalityStatistics.class).getDistinctData());
+            Assert.assertEquals(expected.get(DataTypeOccurences.class).getTypeFrequencies(),
+                    actual.get(DataTypeOccurences.class).getTypeFrequencies());
+            Assert.assertEquals(expected.get(TextLengthStatistics.class).getSumTextLength(),
+                    actual.get(TextLengthStatistics.class).getSumTextLength());
+            Assert.assertEquals(expected.get(CardinalityHLLStatistics.class).getCount(),
+                    actual.get(CardinalityHLLStatistics.class).getCount());
+            Assert.assertEquals(expected.get(CardinalityHLLStatistics.class).getDistinctCount(),
+                    actual.get(CardinalityHLLStatistics.class).getDistinctCount());
+        }
+    }
+
+    @Test
+    public void testSharedParseContext() {
+        DataTypeEnum[] types = new DataTypeEnum[] { DataTypeEnum.DOUBLE, DataTypeEnum.INTEGER };
+        String[][] records = new String[][] { { "1.5", "1" }, { "", "2.5" }, { "true", "3" }, { "1,000.5", "abc" },
+                { "2016-01-01", "-4" } };
+        Analyzer<Result> shared = Analyzers.with(new DataTypeAnalyzer(), new SummaryAnalyzer(types),
+                new DataTypeQualityAnalyzer(types));
+        DataTypeAnalyzer dataTypeAnalyzer = new DataTypeAnalyzer();
+        SummaryAnalyzer summaryAnalyzer = new SummaryAnalyzer(types);
+        DataTypeQualityAnalyzer qualityAnalyzer = new DataTypeQualityAnalyzer(types);
+        shared.init();
+        dataTypeAnalyzer.init();
+        summaryAnalyzer.init();
+        qualityAnalyzer.init();
+        for (String[] record : records) {
+            shared.analyze(record);
+            dataTypeAnalyzer.analyze(record);
+            summaryAnalyzer.analyze(record);
+            qualityAnalyzer.analyze(record);
+        }
+        for (int col = 0; col < types.length; col++) {
+            Result result = shared.getResult().get(col);
+            Assert.assertEquals(dataTypeAnalyzer.getResult().get(col).getTypeFrequencies(),
+                    result.get(DataTypeOccurences.class).getTypeFrequencies());
+            Assert.assertEquals(summaryAnalyzer.getResult().get(col).getSum(),
+                    result.get(SummaryStatistics.class).getSum(), 0.0);
+            Assert.assertEquals(qualityAnalyzer.getResult().get(col).getValidCount(),
+                    result.get(ValueQualityStatistics.class).getValidCount());
+            Assert.assertEquals(qualityAnalyzer.getResult().get(col).getInvalidCount(),
+                    result.get(ValueQualityStatistics.class).getInvalidCount());
+        }
+        Assert.assertEquals(1002.0, shared.getResult().get(0).get(SummaryStatistics.class).getSum(), 0.0);
+        Assert.assertEquals(0.0, shared.getResult().get(1).get(SummaryStatistics.class).getSum(), 0.0);
+    }
+
+    @Test
+    public void testSharedParseContextColumns() {
+        DataTypeEnum[] types = new DataTypeEnum[] { DataTypeEnum.DOUBLE, DataTypeEnum.INTEGER };
+        String[][] columns = new String[][] { { "1.5", "", "true", "1,000.5", "2016-01-01" },
+                { "1", "2.5", "3", "abc", "-4" } };
+        ParsedTypeAnalyzer parsedTypes = new ParsedTypeAnalyzer();
+        Analyzers shared = (Analyzers) Analyzers.with(new DataTypeAnalyzer(), new SummaryAnalyzer(types),
+                new DataTypeQualityAnalyzer(types), parsedTypes);
+        Analyzer<Result> records = Analyzers.with(new DataTypeAnalyzer(), new SummaryAnalyzer(types),
+                new DataTypeQualityAnalyzer(types));
+        shared.init();
+        records.init();
+        shared.analyzeColumns(columns, 5);
+        for (int row = 0; row < 5; row++) {
+            records.analyze(columns[0][row], columns[1][row]);
+        }
+        // the types inferred on the batch were available for each row
+        Assert.assertEquals(10, parsedTypes.parsedCount);
+        for (int col = 0; col < types.length; col++) {
+            Result expected = records.getResult().get(col);
+            Result actual = shared.getResult().get(col);
+            Assert.assertEquals(expected.get(DataTypeOccurences.class).getTypeFrequencies(),
+                    actual.get(DataTypeOccurences.class).getTypeFrequencies());
+            Assert.assertEquals(expected.get(SummaryStatistics.class).getSum(),
+                    actual.get(SummaryStatistics.class).getSum(), 0.0);
+            Assert.assertEquals(expected.get(ValueQualityStatistics.class).getValidCount(),
+                    actual.get(ValueQualityStatistics.class).getValidCount());
+            Assert.assertEquals(expected.get(ValueQualityStatistics.class).getInvalidCount(),
+                    actual.get(ValueQualityStatistics.class).getInvalidCount());
+        }
+    }
+
+    /**
+     * Counts the cells which type is found in the parse context.
+     */
+    private static class ParsedTypeAnalyzer implements Analyzer<Long>, ParseContextAware {
+
+        private static final long serialVersionUID = 1L;
+
+        private CellParseContext parseContext;
+
+        private long parsedCount;
+
+        @Override
+        public void setParseContext(CellParseContext context) {
+            this.parseContext = context;
+        }
+
+        @Override
+        public void init() {
+            parsedCount = 0;
+        }
+
+        @Override
+        public boolean analyze(String... record) {
+            for (int i = 0; i < record.length; i++) {
+                if (parseContext.contains(TypeInferenceUtils.DATA_TYPE, i, record[i])) {
+                    parsedCount++;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public List<Long> getResult() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Analyzer<Long> merge(Analyzer<Long> another) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
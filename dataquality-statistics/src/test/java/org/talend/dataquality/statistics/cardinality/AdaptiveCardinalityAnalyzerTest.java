@@ -0,0 +1,157 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.cardinality;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.dataquality.common.inference.AnalyzerCheckpoint;
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
+
+public class AdaptiveCardinalityAnalyzerTest {
+
+    private AdaptiveCardinalityAnalyzer analyzer = null;
+
+    @Before
+    public void setUp() throws Exception {
+        analyzer = new AdaptiveCardinalityAnalyzer(1000);
+        analyzer.init();
+    }
+
+    @Test
+    public void testExactUnderThreshold() {
+        for (int i = 0; i < 3000; i++) {
+            analyzer.analyze(String.valueOf(i % 1000), i % 2 == 0 ? null : "constant"); //$NON-NLS-1$
+        }
+        AdaptiveCardinalityStatistics stats = analyzer.getResult().get(0);
+        Assert.assertTrue(stats.isExact());
+        Assert.assertEquals(1000, stats.getDistinctCount());
+        Assert.assertEquals(2000, stats.getDuplicateCount());
+        Assert.assertEquals(1000, stats.getDistinctData().size());
+        Assert.assertNull(stats.getEstimator());
+        // the null value is counted as a distinct value
+        Assert.assertEquals(2, analyzer.getResult().get(1).getDistinctCount());
+    }
+
+    @Test
+    public void testEstimatedBeyondThreshold() {
+        for (int i = 0; i < 100000; i++) {
+            analyzer.analyze(String.valueOf(i));
+        }
+        analyzer.analyze((String) null);
+        AdaptiveCardinalityStatistics stats = analyzer.getResult().get(0);
+        Assert.assertFalse(stats.isExact());
+        Assert.assertTrue(stats.getDistinctData().isEmpty());
+        Assert.assertEquals(100001, stats.getCount());
+        Assert.assertEquals(100001, stats.getDistinctCount(), 100001 * 0.03);
+
+        // the values counted before the switch are not lost
+        analyzer.init();
+        for (int i = 0; i < 1001; i++) {
+            analyzer.analyze(String.valueOf(i));
+        }
+        stats = analyzer.getResult().get(0);
+        Assert.assertFalse(stats.isExact());
+        Assert.assertEquals(1001, stats.getDistinctCount(), 1001 * 0.01);
+    }
+
+    @Test
+    public void testAnalyzeColumns() {
+        String[][] columns = new String[][] { { "a", "b", "a", null }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                { "x", "x", "x", "x" } }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        analyzer.analyzeColumns(columns, 4);
+        Assert.assertEquals(3, analyzer.getResult().get(0).getDistinctCount());
+        Assert.assertEquals(1, analyzer.getResult().get(1).getDistinctCount());
+        Assert.assertEquals(4, analyzer.getResult().get(1).getCount());
+    }
+
+    @Test
+    public void testMerge() {
+        AdaptiveCardinalityAnalyzer small = new AdaptiveCardinalityAnalyzer(1000);
+        AdaptiveCardinalityAnalyzer large = new AdaptiveCardinalityAnalyzer(1000);
+        small.init();
+        large.init();
+        for (int i = 0; i < 600; i++) {
+            small.analyze(String.valueOf(i));
+            analyzer.analyze(String.valueOf(i + 300));
+        }
+        for (int i = 0; i < 50000; i++) {
+            large.analyze(String.valueOf(i));
+        }
+        // the union of two exact statistics under the threshold stays exact
+        AdaptiveCardinalityStatistics merged = small.merge(analyzer).getResult().get(0);
+        Assert.assertTrue(merged.isExact());
+        Assert.assertEquals(900, merged.getDistinctCount());
+        Assert.assertEquals(1200, merged.getCount());
+
+        // but not beyond it
+        AdaptiveCardinalityAnalyzer another = new AdaptiveCardinalityAnalyzer(1000);
+        another.init();
+        for (int i = 0; i < 600; i++) {
+            another.analyze(String.valueOf(i + 5000));
+        }
+        merged = small.merge(another).getResult().get(0);
+        Assert.assertFalse(merged.isExact());
+        Assert.assertEquals(1200, merged.getDistinctCount(), 1200 * 0.01);
+
+        // exact and estimated statistics, in both orders
+        for (AdaptiveCardinalityStatistics stats : new AdaptiveCardinalityStatistics[] {
+                small.merge(large).getResult().get(0), large.merge(small).getResult().get(0) }) {
+            Assert.assertFalse(stats.isExact());
+            Assert.assertEquals(50600, stats.getCount());
+            Assert.assertEquals(50000, stats.getDistinctCount(), 50000 * 0.03);
+        }
+        Assert.assertTrue(small.getResult().get(0).isExact());
+
+        AdaptiveCardinalityAnalyzer otherPrecision = new AdaptiveCardinalityAnalyzer(0);
+        otherPrecision.setPrecision(10, 0);
+        otherPrecision.init();
+        otherPrecision.analyze("a"); //$NON-NLS-1$
+        try {
+            large.merge(otherPrecision);
+            Assert.fail("Estimators of different precisions cannot be merged");
+        } catch (DQStatisticsRuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCheckpoint() throws IOException {
+        for (int i = 0; i < 5000; i++) {
+            analyzer.analyze(String.valueOf(i), String.valueOf(i % 10), i % 100 == 0 ? null : "b"); //$NON-NLS-1$
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.write(out, analyzer.getResult(), new AdaptiveCardinalityStatisticsCodec());
+        List<AdaptiveCardinalityStatistics> restored = AnalyzerCheckpoint
+                .read(new ByteArrayInputStream(out.toByteArray()), new AdaptiveCardinalityStatisticsCodec());
+        Assert.assertEquals(analyzer.getResult().size(), restored.size());
+        for (int i = 0; i < restored.size(); i++) {
+            AdaptiveCardinalityStatistics stats = analyzer.getResult().get(i);
+            Assert.assertEquals(stats.getCount(), restored.get(i).getCount());
+            Assert.assertEquals(stats.isExact(), restored.get(i).isExact());
+            Assert.assertEquals(stats.getDistinctCount(), restored.get(i).getDistinctCount());
+            Assert.assertEquals(stats.getThreshold(), restored.get(i).getThreshold());
+        }
+        Assert.assertEquals(analyzer.getResult().get(1).getDistinctData(), restored.get(1).getDistinctData());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreshold() {
+        new AdaptiveCardinalityAnalyzer(-1);
+    }
+}
@@ -65,4 +65,22 @@ public class CardinalityAnalyzerTest {
 
     }
 
+    @Test
+    public void testMerge() {
+        CardinalityAnalyzer another = new CardinalityAnalyzer();
+        analyzer.init();
+        another.init();
+        analyzer.analyze("a", "x");
+        analyzer.analyze("b", "x");
+        another.analyze("a");
+        another.analyze("c");
+
+        CardinalityStatistics merged = analyzer.merge(another).getResult().get(0);
+        Assert.assertEquals(4, merged.getCount());
+        Assert.assertEquals(3, merged.getDistinctCount());
+        Assert.assertEquals(1, merged.getDuplicateCount());
+        Assert.assertEquals(1, analyzer.merge(another).getResult().get(1).getDistinctCount());
+        // the merged analyzers are unchanged
+        Assert.assertEquals(2, analyzer.getResult().get(0).getDistinctCount());
+    }
 }
@@ -12,12 +12,18 @@
 // ============================================================================
 package org.talend.dataquality.statistics.cardinality;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
 import java.util.Random;
 
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.talend.dataquality.common.inference.AnalyzerCheckpoint;
+import org.talend.dataquality.statistics.exception.DQStatisticsRuntimeException;
 
 public class CardinalityHLLAnalyzerTest {
 
@@ -67,6 +73,68 @@ public class CardinalityHLLAnalyzerTest {
 
     }
 
+    @Test
+    public void testMergePartitions() {
+        // the union of two partitions sharing half of their values
+        CardinalityHLLAnalyzer another = new CardinalityHLLAnalyzer();
+        distinctHLLAna.init();
+        another.init();
+        for (int i = 0; i < 200000; i++) {
+            distinctHLLAna.analyze(String.valueOf(i));
+            another.analyze(String.valueOf(i + 100000));
+        }
+        CardinalityHLLStatistics merged = distinctHLLAna.merge(another).getResult().get(0);
+        Assert.assertEquals(400000, merged.getCount());
+        Assert.assertEquals(300000, merged.getDistinctCount(), 300000 * 0.03);
+        Assert.assertEquals(200000, distinctHLLAna.getResult().get(0).getDistinctCount(), 200000 * 0.03);
+    }
+
+    @Test
+    public void testSparseAtLowCardinality() throws IOException {
+        distinctHLLAna.init();
+        for (int i = 0; i < 100; i++) {
+            distinctHLLAna.analyze(String.valueOf(i % 50));
+        }
+        CardinalityHLLStatistics stats = distinctHLLAna.getResult().get(0);
+        Assert.assertEquals(50, stats.getDistinctCount());
+        // a few bytes per distinct value instead of the 2^14 registers of the dense representation
+        Assert.assertTrue(stats.getEstimator().getBytes().length < 500);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.write(out, distinctHLLAna.getResult(), new CardinalityHLLStatisticsCodec());
+        List<CardinalityHLLStatistics> restored = AnalyzerCheckpoint.read(new ByteArrayInputStream(out.toByteArray()),
+                new CardinalityHLLStatisticsCodec());
+        Assert.assertEquals(100, restored.get(0).getCount());
+        Assert.assertEquals(50, restored.get(0).getDistinctCount());
+        Assert.assertEquals(stats.getEstimator(), restored.get(0).getEstimator());
+    }
+
+    @Test
+    public void testPrecision() {
+        distinctHLLAna.setPrecision(10, 0);
+        distinctHLLAna.init();
+        for (int i = 0; i < 10000; i++) {
+            distinctHLLAna.analyze(String.valueOf(i));
+        }
+        // 2^10 registers: about 3% standard error
+        Assert.assertEquals(10000, distinctHLLAna.getResult().get(0).getDistinctCount(), 10000 * 0.15);
+
+        CardinalityHLLAnalyzer another = new CardinalityHLLAnalyzer();
+        another.init();
+        another.analyze("a");
+        try {
+            distinctHLLAna.merge(another);
+            Assert.fail("Estimators of different precisions cannot be merged");
+        } catch (DQStatisticsRuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPrecision() {
+        distinctHLLAna.setPrecision(14, 10);
+    }
+
     protected static String streamElement(int i) {
         return Long.toHexString(prng.nextLong());
         // return se++;
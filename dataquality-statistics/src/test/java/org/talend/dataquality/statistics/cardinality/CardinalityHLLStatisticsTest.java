@@ -7,6 +7,7 @@ import org.junit.Test;
 
 import com.clearspring.analytics.stream.cardinality.CardinalityMergeException;
 import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
 
 /**
  * Created by afournier on 31/03/17.
@@ -47,7 +48,7 @@ public class CardinalityHLLStatisticsTest {
             cardHLLStats.incrementCount();
             cardStat.incrementCount();
             String str = RandomStringUtils.randomAscii(2);
-            cardHLLStats.getHyperLogLog().offer(str);
+            cardHLLStats.getEstimator().offer(str);
             cardStat.add(str);
         }
 
@@ -62,6 +63,15 @@ public class CardinalityHLLStatisticsTest {
         stat1.merge(cardHLLStats);
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testHyperLogLogOfHyperLogLogPlus() {
+        CardinalityHLLStatistics plusStats = new CardinalityHLLStatistics();
+        plusStats.setHyperLogLogPlus(new HyperLogLogPlus(14, 25));
+        Assert.assertNull(plusStats.getHyperLogLog());
+        Assert.assertSame(plusStats.getHyperLogLogPlus(), plusStats.getEstimator());
+    }
+
     @Test
     public void testPossibleMerge() throws CardinalityMergeException {
         CardinalityHLLStatistics otherCardHLLStat = new CardinalityHLLStatistics();
@@ -70,8 +80,8 @@ public class CardinalityHLLStatisticsTest {
             cardHLLStats.incrementCount();
             otherCardHLLStat.incrementCount();
             String str = RandomStringUtils.randomAscii(2);
-            cardHLLStats.getHyperLogLog().offer(str);
-            otherCardHLLStat.getHyperLogLog().offer(str);
+            cardHLLStats.getEstimator().offer(str);
+            otherCardHLLStat.getEstimator().offer(str);
         }
         cardHLLStats.merge(otherCardHLLStat);
         Assert.assertEquals(cardHLLStats.getDistinctCount(), otherCardHLLStat.getDistinctCount());
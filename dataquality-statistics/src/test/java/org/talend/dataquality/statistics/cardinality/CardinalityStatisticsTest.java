@@ -1,5 +1,11 @@
 package org.talend.dataquality.statistics.cardinality;
 
+import org.talend.dataquality.common.inference.AnalyzerCheckpoint;
+import java.util.List;
+import java.util.Arrays;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import com.clearspring.analytics.stream.cardinality.CardinalityMergeException;
 import org.apache.commons.lang.RandomStringUtils;
 import org.junit.Assert;
@@ -39,4 +45,19 @@ public class CardinalityStatisticsTest {
         cardStats.merge(otherCardStat);
         Assert.assertEquals(cardStats.getDistinctCount(), otherCardStat.getDistinctCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCheckpointRoundTrip() throws IOException {
+        cardStats.setCount(4);
+        cardStats.add("a");
+        cardStats.add("b");
+        cardStats.add(null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.write(out, Arrays.asList(cardStats), new CardinalityStatisticsCodec());
+        List<CardinalityStatistics> restored = AnalyzerCheckpoint.read(new ByteArrayInputStream(out.toByteArray()),
+                new CardinalityStatisticsCodec());
+        Assert.assertEquals(1, restored.size());
+        Assert.assertEquals(4, restored.get(0).getCount());
+        Assert.assertEquals(cardStats.getDistinctData(), restored.get(0).getDistinctData());
+    }
+}
@@ -0,0 +1,115 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.datetime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.junit.Test;
+
+public class DateTimeFormatterCacheTest {
+
+    private final AtomicInteger creations = new AtomicInteger();
+
+    private final BiFunction<String, Locale, DateTimeFormatter> factory = (pattern, locale) -> {
+        creations.incrementAndGet();
+        try {
+            return DateTimeFormatter.ofPattern(pattern, locale);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    };
+
+    @Test
+    public void testFormattersAreCachedByPatternAndLocale() {
+        DateTimeFormatterCache cache = new DateTimeFormatterCache();
+        DateTimeFormatter formatter = cache.get("dd/MM/yyyy", Locale.US, factory); //$NON-NLS-1$
+        assertSame(formatter, cache.get("dd/MM/yyyy", Locale.US, factory)); //$NON-NLS-1$
+        assertSame(formatter, cache.get(new String("dd/MM/yyyy"), new Locale("en", "US"), factory)); //$NON-NLS-1$
+        assertNotSame(formatter, cache.get("dd/MM/yyyy", Locale.FRANCE, factory)); //$NON-NLS-1$
+        assertEquals(Locale.FRANCE, cache.get("dd/MM/yyyy", Locale.FRANCE, factory).getLocale()); //$NON-NLS-1$
+        assertEquals(2, creations.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testInvalidPatternsAreCached() {
+        DateTimeFormatterCache cache = new DateTimeFormatterCache();
+        assertNull(cache.get("yyyy-MM-dd bb", Locale.US, factory)); //$NON-NLS-1$
+        assertNull(cache.get("yyyy-MM-dd bb", Locale.US, factory)); //$NON-NLS-1$
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        DateTimeFormatterCache cache = new DateTimeFormatterCache(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.get("yyyy-MM-dd '" + i + "'", Locale.US, factory); //$NON-NLS-1$ //$NON-NLS-2$
+            // a frequently used formatter stays in the cache
+            cache.get("dd/MM/yyyy", Locale.US, factory); //$NON-NLS-1$
+            assertTrue(cache.size() <= 100);
+        }
+        int created = creations.get();
+        cache.get("dd/MM/yyyy", Locale.US, factory); //$NON-NLS-1$
+        assertEquals(created, creations.get());
+        assertEquals(1001, created);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final DateTimeFormatterCache cache = new DateTimeFormatterCache(50);
+        final Locale[] locales = { Locale.US, Locale.FRANCE, Locale.GERMANY, Locale.CHINA };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                results.add(executor.submit(new Callable<Boolean>() {
+
+                    @Override
+                    public Boolean call() {
+                        for (int i = 0; i < 20000; i++) {
+                            Locale locale = locales[(i + thread) % locales.length];
+                            String pattern = "yyyy-MM-dd '" + i % 80 + "'"; //$NON-NLS-1$ //$NON-NLS-2$
+                            DateTimeFormatter formatter = cache.get(pattern, locale, factory);
+                            if (!locale.equals(formatter.getLocale()) || !formatter.toString().contains(i % 80 + "")) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 50 + 8);
+    }
+}
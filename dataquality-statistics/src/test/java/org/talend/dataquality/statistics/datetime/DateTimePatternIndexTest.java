@@ -0,0 +1,205 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.datetime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.talend.dataquality.statistics.datetime.DateTimePatternIndex.Candidate;
+import org.talend.dataquality.statistics.datetime.DateTimePatternIndex.RegexShapeParser;
+import org.talend.dataquality.statistics.datetime.DateTimePatternIndex.Shape;
+
+public class DateTimePatternIndexTest {
+
+    private static final Locale[] LOCALES = { Locale.US, Locale.FRANCE, Locale.GERMANY, Locale.CHINA, Locale.JAPAN,
+            new Locale("th", "TH") };
+
+    private static final List<Map<Pattern, String>> DATE_PATTERNS = new ArrayList<>();
+
+    private static final List<Map<Pattern, String>> TIME_PATTERNS = new ArrayList<>();
+
+    @BeforeClass
+    public static void loadPatterns() throws IOException {
+        SystemDateTimePatternManager.loadPatterns("DateRegexesGrouped.txt", DATE_PATTERNS); //$NON-NLS-1$
+        SystemDateTimePatternManager.loadPatterns("TimeRegexes.txt", TIME_PATTERNS); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testAllSystemRegexesAreIndexed() {
+        for (List<Map<Pattern, String>> patterns : Arrays.asList(DATE_PATTERNS, TIME_PATTERNS)) {
+            for (Candidate candidate : new DateTimePatternIndex(patterns).getCandidates("\n")) { //$NON-NLS-1$
+                assertTrue(candidate.getPattern().pattern(), candidate.isFiltered());
+            }
+        }
+    }
+
+    @Test
+    public void testSameMatchesAsAllRegexes() throws IOException {
+        for (List<Map<Pattern, String>> patterns : Arrays.asList(DATE_PATTERNS, TIME_PATTERNS)) {
+            DateTimePatternIndex index = new DateTimePatternIndex(patterns);
+            for (String value : generateValues(patterns)) {
+                Set<Pattern> candidates = new HashSet<>();
+                for (Candidate candidate : index.getCandidates(value)) {
+                    candidates.add(candidate.getPattern());
+                }
+                for (Map<Pattern, String> group : patterns) {
+                    for (Pattern pattern : group.keySet()) {
+                        if (pattern.matcher(value).find()) {
+                            assertTrue(pattern + " should be a candidate for '" + value + "'",
+                                    candidates.contains(pattern));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSamePatternReplaceAsAllRegexes() throws IOException {
+        for (String value : generateValues(DATE_PATTERNS)) {
+            assertEquals(value, patternReplace(DATE_PATTERNS, value),
+                    SystemDateTimePatternManager.datePatternReplace(value));
+        }
+        for (String value : generateValues(TIME_PATTERNS)) {
+            assertEquals(value, patternReplace(TIME_PATTERNS, value),
+                    SystemDateTimePatternManager.timePatternReplace(value));
+        }
+    }
+
+    @Test
+    public void testTextIsNotCheckedAgainstRegexes() {
+        DateTimePatternIndex index = new DateTimePatternIndex(DATE_PATTERNS);
+        assertTrue(index.getCandidates("Paris 75012").isEmpty()); //$NON-NLS-1$
+        assertTrue(index.getCandidates("12 rue de la Paix").isEmpty()); //$NON-NLS-1$
+        assertTrue(index.getCandidates("Route 66 is 3940 km long").size() <= 2); //$NON-NLS-1$
+        assertTrue(index.getCandidates("ID-123-456-789").size() <= 1); //$NON-NLS-1$
+        assertTrue(index.getCandidates("2017-08-24").size() <= 5); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testRegexShape() {
+        Shape shape = RegexShapeParser.parse("^(0?[1-9]|1[0-2]):([0-5][0-9]) \\p{L}{2}$"); //$NON-NLS-1$
+        assertNotNull(shape);
+        assertEquals(7, shape.minLength);
+        assertEquals(8, shape.maxLength);
+        assertEquals(3, shape.minDigits);
+        assertEquals(4, shape.maxDigits);
+        assertEquals(2, shape.minLetters);
+        assertEquals(2, shape.maxLetters);
+        assertEquals(2, shape.minOthers);
+        assertEquals(2, shape.maxOthers);
+        assertEquals(Shape.DIGIT | Shape.LETTER | Shape.kindOf(':') | Shape.kindOf(' '), shape.kinds);
+
+        shape = RegexShapeParser.parse("^[0-9]+(a|.)*$"); //$NON-NLS-1$
+        assertNotNull(shape);
+        assertEquals(Shape.UNBOUNDED, shape.maxLength);
+        assertEquals(Shape.ALL_KINDS, shape.kinds);
+
+        assertNull(RegexShapeParser.parse("[0-9]{4}$")); //$NON-NLS-1$
+        assertNull(RegexShapeParser.parse("^[0-9]{4}\\$")); //$NON-NLS-1$
+        assertNull(RegexShapeParser.parse("^(?i)[a-z]{4}$")); //$NON-NLS-1$
+        // top-level alternations are not anchored on both ends
+        assertNull(RegexShapeParser.parse("^[0-9]{4}|[a-z]{2}$")); //$NON-NLS-1$
+        assertNotNull(RegexShapeParser.parse("^([0-9]{4}|[a-z]{2})$")); //$NON-NLS-1$
+        assertNotNull(RegexShapeParser.parse("^[0-9|]{4}\\|$")); //$NON-NLS-1$
+        assertNull(RegexShapeParser.parse("^[^0-9]{4}$")); //$NON-NLS-1$
+        assertNull(RegexShapeParser.parse("^\\w{4}$")); //$NON-NLS-1$
+        assertNull(RegexShapeParser.parse("^([0-9]{4}$")); //$NON-NLS-1$
+    }
+
+    /**
+     * The formats of the first group with a matching regex, as computed without index.
+     */
+    private static Set<String> patternReplace(List<Map<Pattern, String>> patterns, String value) {
+        Set<String> formats = new HashSet<>();
+        for (Map<Pattern, String> group : patterns) {
+            for (Entry<Pattern, String> entry : group.entrySet()) {
+                if (entry.getKey().matcher(value).find()) {
+                    formats.add(entry.getValue());
+                }
+            }
+            if (!formats.isEmpty()) {
+                break;
+            }
+        }
+        return formats;
+    }
+
+    /**
+     * @return Sample values, values formatted with all the formats and some variations of them.
+     */
+    private static Set<String> generateValues(List<Map<Pattern, String>> patterns) throws IOException {
+        Set<String> values = new LinkedHashSet<>();
+        for (String sampleFile : new String[] { "DateSampleTable.txt", "TimeSampleTable.txt" }) {
+            try (InputStream stream = SystemDateTimePatternManager.class.getResourceAsStream(sampleFile)) {
+                for (String line : IOUtils.readLines(stream, "UTF-8")) { //$NON-NLS-1$
+                    values.add(line.split("\t")[0]); //$NON-NLS-1$
+                }
+            }
+        }
+        Random random = new Random(7);
+        for (Map<Pattern, String> group : patterns) {
+            for (String format : group.values()) {
+                for (Locale locale : LOCALES) {
+                    DateTimeFormatter formatter = SystemDateTimePatternManager.getDateTimeFormatterByPattern(format,
+                            locale);
+                    for (int i = 0; formatter != null && i < 3; i++) {
+                        LocalDateTime dateTime = LocalDateTime.of(1900 + random.nextInt(200), 1 + random.nextInt(12),
+                                1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60),
+                                random.nextInt(1000000000));
+                        try {
+                            values.add(formatter.format(dateTime.atZone(ZoneId.of("Europe/Paris")))); //$NON-NLS-1$
+                        } catch (RuntimeException e) {
+                            // the format needs fields that are not available
+                        }
+                    }
+                }
+            }
+        }
+        List<String> formatted = new ArrayList<>(values);
+        for (String value : formatted) {
+            values.add(value + '\n');
+            values.add(' ' + value);
+            values.add(value.toUpperCase(Locale.US));
+            if (value.length() > 1) {
+                int removed = random.nextInt(value.length());
+                values.add(value.substring(0, removed) + value.substring(removed + 1));
+                values.add(value.substring(0, removed) + 'x' + value.substring(removed + 1));
+                values.add(value.substring(0, removed) + random.nextInt(10) + value.substring(removed));
+            }
+        }
+        return values;
+    }
+}
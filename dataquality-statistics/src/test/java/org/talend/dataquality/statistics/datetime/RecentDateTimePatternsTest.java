@@ -0,0 +1,79 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.datetime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class RecentDateTimePatternsTest {
+
+    @Test
+    public void testSameAnswersAsPatternManagers() throws IOException {
+        List<String> values = new ArrayList<>();
+        for (String sampleFile : new String[] { "DateSampleTable.txt", "TimeSampleTable.txt" }) {
+            try (InputStream stream = SystemDateTimePatternManager.class.getResourceAsStream(sampleFile)) {
+                for (String line : IOUtils.readLines(stream, "UTF-8")) { //$NON-NLS-1$
+                    values.add(line.split("\t")[0]); //$NON-NLS-1$
+                }
+            }
+        }
+        values.addAll(Arrays.asList("2017-02-29", "2016-02-29", "31/11/2017", "30/11/2017", "12:61", "12:59",
+                "Aug 24 2017", "not a date", "123", "", "11/12/13 14:15"));
+        List<String> customPatterns = Arrays.asList("dd/MM/yyyy", "yyyy.MM.dd HH'h'mm"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // the same values in several orders so that each value is checked with different recent patterns
+        Random random = new Random(42);
+        for (int round = 0; round < 3; round++) {
+            RecentDateTimePatterns systemOnly = new RecentDateTimePatterns();
+            RecentDateTimePatterns withCustom = new RecentDateTimePatterns(customPatterns);
+            for (String value : values) {
+                assertEquals(value, SystemDateTimePatternManager.isDate(value), systemOnly.isDate(value));
+                assertEquals(value, SystemDateTimePatternManager.isTime(value), systemOnly.isTime(value));
+                assertEquals(value, CustomDateTimePatternManager.isDate(value, customPatterns),
+                        withCustom.isDate(value));
+            }
+            Collections.shuffle(values, random);
+        }
+    }
+
+    @Test
+    public void testRecentPatternsAreTriedFirst() {
+        RecentDateTimePatterns patterns = new RecentDateTimePatterns(
+                Collections.singletonList("yyyy.MM.dd HH'h'mm"), Locale.FRANCE); //$NON-NLS-1$
+        assertTrue(patterns.isDate("2017.08.24 10h30")); //$NON-NLS-1$
+        assertTrue(patterns.isDate("2017-08-24")); //$NON-NLS-1$
+        for (int i = 1; i < 28; i++) {
+            assertTrue(patterns.isDate(String.format("2017-08-%02d", i))); //$NON-NLS-1$
+            assertTrue(patterns.isDate(String.format("2017.08.%02d 10h30", i))); //$NON-NLS-1$
+        }
+        // a value matching the regex of a recent pattern but not its format
+        assertFalse(patterns.isDate("2017-02-30")); //$NON-NLS-1$
+        assertFalse(patterns.isDate("2017.02.30 10h30")); //$NON-NLS-1$
+        assertFalse(patterns.isTime("25:61")); //$NON-NLS-1$
+        assertTrue(patterns.isTime("23:59")); //$NON-NLS-1$
+        assertFalse(patterns.isTime("23:60")); //$NON-NLS-1$
+    }
+}
@@ -19,7 +19,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 import org.apache.commons.io.IOUtils;
@@ -572,10 +571,8 @@ public class SampleTest {
                 locale = locale.replaceAll("_", "-");
                 Locale local = Locale.forLanguageTag(locale);
 
-                // SystemDateTimePatternManager.renewCache();
+                SystemDateTimePatternManager.renewCache();
                 setFinalStatic(SystemDateTimePatternManager.class.getDeclaredField("SYSTEM_LOCALE"), local);
-                setFinalStatic(SystemDateTimePatternManager.class.getDeclaredField("dateTimeFormatterCache"),
-                        new HashMap<String, DateTimeFormatter>());
 
                 assertTrue(sample + " is expected to be a valid date but actually not.",
                         SystemDateTimePatternManager.isDate(sample));
@@ -16,11 +16,23 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
 public class SystemDateTimePatternManagerTest {
@@ -73,4 +85,65 @@ public class SystemDateTimePatternManagerTest {
         assertTrue(dateTimeFormatterByPattern == null);
     }
 
+    @Test
+    public void testValidateWithoutExceptionSameAsParse() throws IOException {
+        List<Map<Pattern, String>> patternGroups = new ArrayList<>();
+        SystemDateTimePatternManager.loadPatterns("DateRegexesGrouped.txt", patternGroups); //$NON-NLS-1$
+        SystemDateTimePatternManager.loadPatterns("TimeRegexes.txt", patternGroups); //$NON-NLS-1$
+        List<String> formats = new ArrayList<>();
+        for (Map<Pattern, String> group : patternGroups) {
+            formats.addAll(group.values());
+        }
+        formats.addAll(Arrays.asList("yyyy-MM-dd G", "MMMM d, y GG", "h a", "MMMM")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // values with the format they are checked with first
+        List<String[]> values = new ArrayList<>();
+        for (String sampleFile : new String[] { "DateSampleTable.txt", "TimeSampleTable.txt" }) {
+            try (InputStream stream = SystemDateTimePatternManager.class.getResourceAsStream(sampleFile)) {
+                for (String line : IOUtils.readLines(stream, "UTF-8")) { //$NON-NLS-1$
+                    String[] sample = line.split("\t"); //$NON-NLS-1$
+                    values.add(new String[] { sample[0], sample[1] });
+                    values.add(new String[] { sample[0] + ' ', sample[1] });
+                    values.add(new String[] { sample[0].substring(0, sample[0].length() / 2), sample[1] });
+                    values.add(new String[] { sample[0].replace('1', '3').replace('0', '9'), sample[1] });
+                }
+            }
+        }
+        for (String value : Arrays.asList("", "2017-02-29", "2016-02-29", "2017-04-31", "not a date")) {
+            values.add(new String[] { value, "yyyy-MM-dd" }); //$NON-NLS-1$
+        }
+
+        Random random = new Random(3);
+        Locale[] locales = { Locale.US, Locale.FRANCE, Locale.JAPANESE };
+        int validCount = 0;
+        for (String[] value : values) {
+            for (int i = 0; i < 20; i++) {
+                String format = i == 0 ? value[1] : formats.get(random.nextInt(formats.size()));
+                Locale locale = i == 0 ? Locale.US : locales[random.nextInt(locales.length)];
+                DateTimeFormatter formatter = SystemDateTimePatternManager.getDateTimeFormatterByPattern(format,
+                        locale);
+                boolean valid = validateWithParse(value[0], formatter);
+                assertEquals(value[0] + " / " + format + " / " + locale, valid,
+                        SystemDateTimePatternManager.validateWithDateTimeFormatter(value[0], formatter));
+                validCount += valid ? 1 : 0;
+            }
+        }
+        assertTrue(validCount > values.size() / 8);
+    }
+
+    /**
+     * The former validation, catching the exception thrown by {@link DateTimeFormatter#parse(CharSequence)}.
+     */
+    private static boolean validateWithParse(String value, DateTimeFormatter formatter) {
+        if (formatter == null) {
+            return false;
+        }
+        try {
+            TemporalAccessor temporal = formatter.parse(value);
+            return temporal.query(TemporalQueries.localDate()) != null
+                    || temporal.query(TemporalQueries.localTime()) != null;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
 }
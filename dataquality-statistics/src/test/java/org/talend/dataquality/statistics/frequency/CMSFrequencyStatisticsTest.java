@@ -12,12 +12,17 @@
 // ============================================================================
 package org.talend.dataquality.statistics.frequency;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Random;
 
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.talend.dataquality.statistics.frequency.impl.AbstractFrequencyEvaluator;
+import org.talend.dataquality.statistics.frequency.impl.CMSFrequencyEvaluator;
 import org.talend.dataquality.statistics.frequency.impl.EFrequencyAlgorithm;
 
 public class CMSFrequencyStatisticsTest {
@@ -75,4 +80,36 @@ public class CMSFrequencyStatisticsTest {
         Assert.assertTrue("Confidence not reached: required " + confidence + ", reached " + pCorrect, pCorrect > confidence);
     }
 
+    @Test
+    public void testTopKAndMerge() {
+        Map<String, Long> actualCounts = new HashMap<>();
+        CMSFrequencyEvaluator[] evaluators = { new CMSFrequencyEvaluator(), new CMSFrequencyEvaluator() };
+        for (CMSFrequencyEvaluator evaluator : evaluators) {
+            evaluator.setParameters(Collections.singletonMap(CMSFrequencyEvaluator.TOP_K_CAPACITY, "50"));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            // skewed distribution: value n occurs about twice as often as value 2n
+            String value = String.valueOf((int) Math.pow(2, 16 * random.nextDouble()));
+            evaluators[random.nextInt(2)].add(value);
+            actualCounts.merge(value, 1L, Long::sum);
+        }
+        AbstractFrequencyEvaluator merged = evaluators[0].merge(evaluators[1]);
+        Assert.assertEquals((long) Math.ceil(0.0001 * 200000), merged.getErrorBound());
+        Map<String, Long> topK = merged.getTopK(5);
+        Assert.assertEquals("[1, 2, 3, 4, 5]", topK.keySet().toString());
+        for (Map.Entry<String, Long> entry : topK.entrySet()) {
+            Assert.assertEquals(merged.getFrequency(entry.getKey()), entry.getValue().longValue());
+            Assert.assertTrue(entry.getValue() >= actualCounts.get(entry.getKey()));
+            Assert.assertTrue(entry.getValue() - actualCounts.get(entry.getKey()) <= merged.getErrorBound());
+        }
+        Assert.assertEquals(50, merged.getTopK(100).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentDimensions() {
+        CMSFrequencyEvaluator evaluator = new CMSFrequencyEvaluator();
+        evaluator.setParameters(Collections.singletonMap(CMSFrequencyEvaluator.EPS, "0.01"));
+        evaluator.merge(new CMSFrequencyEvaluator());
+    }
 }
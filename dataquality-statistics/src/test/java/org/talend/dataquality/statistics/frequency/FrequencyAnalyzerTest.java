@@ -12,6 +12,15 @@
 // ============================================================================
 package org.talend.dataquality.statistics.frequency;
 
+import org.talend.dataquality.statistics.frequency.impl.EFrequencyAlgorithm;
+import org.talend.dataquality.statistics.frequency.impl.FrequencyEvaluatorCodec;
+import org.talend.dataquality.common.inference.AnalyzerCheckpoint;
+import java.util.List;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -56,4 +65,79 @@ public class FrequencyAnalyzerTest {
             idx++;
         }
     }
+
+    @Test
+    public void testCheckpointAndResume() throws IOException {
+        FrequencyStatisticsCodec<DataTypeFrequencyStatistics> codec = new FrequencyStatisticsCodec<>(
+                "dataTypeFrequency", DataTypeFrequencyStatistics::new);
+        for (EFrequencyAlgorithm algorithm : EFrequencyAlgorithm.values()) {
+            fta = new DataTypeFrequencyAnalyzer();
+            fta.setAlgorithm(algorithm);
+            fta.init();
+            for (String value : new String[] { "a", "b", "a", "c" }) {
+                fta.analyze(value);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            AnalyzerCheckpoint.write(out, fta.getResult(), codec);
+
+            DataTypeFrequencyAnalyzer resumed = new DataTypeFrequencyAnalyzer();
+            resumed.setAlgorithm(algorithm);
+            resumed.init();
+            List<DataTypeFrequencyStatistics> restored = AnalyzerCheckpoint
+                    .read(new ByteArrayInputStream(out.toByteArray()), codec);
+            resumed.getResult().addAll(restored);
+            resumed.analyze("a");
+
+            DataTypeFrequencyStatistics stats = resumed.getResult().get(0);
+            if (algorithm == EFrequencyAlgorithm.COUNT_MIN_SKETCH) {
+                Assert.assertEquals(3, stats.getFrequency("a"));
+                Assert.assertEquals(1, stats.getFrequency("c"));
+            } else {
+                Map<String, Long> topK = stats.getTopK(3);
+                Assert.assertEquals(Long.valueOf(3), topK.get("a"));
+                Assert.assertEquals(Long.valueOf(1), topK.get("b"));
+                Assert.assertEquals(Long.valueOf(1), topK.get("c"));
+            }
+        }
+    }
+
+    @Test
+    public void testCheckpointOfUnknownAlgorithm() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.writeString(new DataOutputStream(out), "UNKNOWN_ALGORITHM"); //$NON-NLS-1$
+        try {
+            FrequencyEvaluatorCodec.read(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+            Assert.fail("An unknown algorithm should be rejected"); //$NON-NLS-1$
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        for (EFrequencyAlgorithm algorithm : EFrequencyAlgorithm.values()) {
+            DataTypeFrequencyAnalyzer first = new DataTypeFrequencyAnalyzer();
+            DataTypeFrequencyAnalyzer second = new DataTypeFrequencyAnalyzer();
+            first.setAlgorithm(algorithm);
+            second.setAlgorithm(algorithm);
+            first.init();
+            second.init();
+            first.analyze("a", "x");
+            first.analyze("b", "x");
+            second.analyze("a");
+            second.analyze("c");
+
+            List<DataTypeFrequencyStatistics> merged = first.merge(second).getResult();
+            Assert.assertNotSame(first.getResult().get(1).getEvaluator(), merged.get(1).getEvaluator());
+            // the merged tables do not depend on the resources of the analyzers
+            first.close();
+            second.close();
+            Assert.assertEquals(2, merged.size());
+            Assert.assertEquals(2, merged.get(0).getFrequency("a"));
+            Assert.assertEquals(1, merged.get(0).getFrequency("c"));
+            Assert.assertEquals(2, merged.get(1).getFrequency("x"));
+            Map<String, Long> topK = merged.get(0).getTopK(1);
+            Assert.assertEquals(Long.valueOf(2), topK.get("a"));
+        }
+    }
 }
@@ -12,14 +12,19 @@
 // ============================================================================
 package org.talend.dataquality.statistics.frequency;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
 
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.talend.dataquality.statistics.frequency.impl.AbstractFrequencyEvaluator;
+import org.talend.dataquality.statistics.frequency.impl.SSFrequencyEvaluator;
 
 public class SSFrequencyAnalyzerTest {
 
@@ -56,4 +61,61 @@ public class SSFrequencyAnalyzerTest {
         }
     }
 
+    @Test
+    public void testFrequenciesWithinErrorBound() {
+        Map<String, Long> partitionCounts = new HashMap<>();
+        Map<String, Long> totalCounts = new HashMap<>();
+        SSFrequencyEvaluator[] evaluators = { new SSFrequencyEvaluator(), new SSFrequencyEvaluator() };
+        for (SSFrequencyEvaluator evaluator : evaluators) {
+            evaluator.setParameters(Collections.singletonMap(SSFrequencyEvaluator.CAPACITY, "100"));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // skewed distribution: value n occurs about twice as often as value 2n
+            String value = String.valueOf((int) Math.pow(2, 12 * random.nextDouble()));
+            evaluators[i % 2].add(value);
+            if (i % 2 == 0) {
+                partitionCounts.merge(value, 1L, Long::sum);
+            }
+            totalCounts.merge(value, 1L, Long::sum);
+        }
+        assertWithinErrorBound(evaluators[0], partitionCounts);
+        assertWithinErrorBound(evaluators[0].merge(evaluators[1]), totalCounts);
+
+        // exact counts while the capacity is not reached
+        SSFrequencyEvaluator small = new SSFrequencyEvaluator();
+        for (String value : new String[] { "a", "b", "a" }) {
+            small.add(value);
+        }
+        AbstractFrequencyEvaluator mergedSmall = small.merge(small);
+        Assert.assertEquals(0, mergedSmall.getErrorBound());
+        Assert.assertEquals(4, mergedSmall.getFrequency("a"));
+        Assert.assertEquals(2, mergedSmall.getFrequency("b"));
+        Assert.assertEquals(0, mergedSmall.getFrequency("c"));
+    }
+
+    private static void assertWithinErrorBound(AbstractFrequencyEvaluator evaluator, Map<String, Long> actualCounts) {
+        long errorBound = evaluator.getErrorBound();
+        Assert.assertTrue(errorBound > 0);
+        for (Entry<String, Long> entry : actualCounts.entrySet()) {
+            long estimate = evaluator.getFrequency(entry.getKey());
+            if (estimate > 0) {
+                Assert.assertTrue(entry.getKey(), estimate >= entry.getValue());
+                Assert.assertTrue(entry.getKey(), estimate - entry.getValue() <= errorBound);
+            } else {
+                Assert.assertTrue(entry.getKey(), entry.getValue() <= errorBound);
+            }
+        }
+        // the most frequent values are found
+        Map<String, Long> topK = evaluator.getTopK(3);
+        Assert.assertEquals("[1, 2, 3]", topK.keySet().toString());
+        Assert.assertEquals(evaluator.getFrequency("1"), topK.get("1").longValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentCapacities() {
+        SSFrequencyEvaluator evaluator = new SSFrequencyEvaluator();
+        evaluator.setParameters(Collections.singletonMap(SSFrequencyEvaluator.CAPACITY, "10"));
+        evaluator.merge(new SSFrequencyEvaluator());
+    }
 }
@@ -0,0 +1,141 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.frequency.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExternalSortFrequencyEvaluatorTest {
+
+    @Rule
+    public TemporaryFolder spillDirectory = new TemporaryFolder();
+
+    private ExternalSortFrequencyEvaluator newEvaluator(long memoryBudget) {
+        ExternalSortFrequencyEvaluator evaluator = new ExternalSortFrequencyEvaluator();
+        Map<String, String> params = new HashMap<>();
+        params.put(ExternalSortFrequencyEvaluator.MEMORY_BUDGET, String.valueOf(memoryBudget));
+        params.put(ExternalSortFrequencyEvaluator.SPILL_DIRECTORY, spillDirectory.getRoot().getPath());
+        evaluator.setParameters(params);
+        return evaluator;
+    }
+
+    @Test
+    public void testExactFrequenciesAcrossRuns() {
+        // about 100 distinct values per run, enough runs to be compacted
+        ExternalSortFrequencyEvaluator evaluator = newEvaluator(10000);
+        NaiveFrequencyEvaluator naive = new NaiveFrequencyEvaluator();
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50000; i++) {
+            // value n occurs about twice as often as value 2n
+            int number = (int) Math.pow(2, 14 * random.nextDouble());
+            String value = random.nextInt(100) == 0 ? null : String.valueOf(number);
+            evaluator.add(value);
+            naive.add(value);
+            expected.merge(value, 1L, Long::sum);
+        }
+        assertTrue(evaluator.getRunCount() > 0);
+        assertTrue(evaluator.getRunCount() <= ExternalSortFrequencyEvaluator.MAX_RUNS);
+        assertTrue(spillDirectory.getRoot().list().length > 0);
+
+        final Map<String, Long> visited = new HashMap<>();
+        final List<String> order = new ArrayList<>();
+        evaluator.forEachFrequency((value, frequency) -> {
+            visited.put(value, frequency);
+            order.add(value);
+        });
+        assertEquals(expected, visited);
+        assertEquals(null, order.get(0));
+        for (int i = 2; i < order.size(); i++) {
+            assertTrue(order.get(i - 1).compareTo(order.get(i)) < 0);
+        }
+        for (String value : new String[] { "1", "2", "1000", "16383", null, "unknown" }) { //$NON-NLS-1$ //$NON-NLS-2$
+            assertEquals(naive.getFrequency(value), evaluator.getFrequency(value));
+        }
+        Map<String, Long> topK = evaluator.getTopK(5);
+        assertEquals(naive.getTopK(5), topK);
+        try {
+            evaluator.getTopK(0);
+            fail("All the values should not be requested at once"); //$NON-NLS-1$
+        } catch (IllegalArgumentException e) {
+            // expected, forEachFrequency visits them
+        }
+
+        evaluator.close();
+        assertEquals(0, spillDirectory.getRoot().list().length);
+        assertEquals(0, evaluator.getFrequency("1")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testTieredCompaction() {
+        // every new value is spilled to its own run
+        ExternalSortFrequencyEvaluator evaluator = newEvaluator(1);
+        int runs = ExternalSortFrequencyEvaluator.MAX_RUNS;
+        for (int i = 0; i < runs * runs; i++) {
+            evaluator.add(String.format("%05d", i)); //$NON-NLS-1$
+            if (i == runs - 1 || i == 2 * runs - 1) {
+                // the first runs are merged into a run of level 1, which is not merged again with the next ones
+                assertEquals((i + 1) / runs, evaluator.getRunCount());
+            } else if (i == 2 * runs) {
+                assertEquals(3, evaluator.getRunCount());
+            }
+            assertEquals(evaluator.getRunCount(), spillDirectory.getRoot().list().length);
+        }
+        // the runs of level 1 are merged into a run of level 2
+        assertEquals(1, evaluator.getRunCount());
+        final long[] count = { 0 };
+        evaluator.forEachFrequency((value, frequency) -> {
+            assertEquals(String.format("%05d", count[0]++), value); //$NON-NLS-1$
+            assertEquals(1, frequency);
+        });
+        assertEquals(runs * runs, count[0]);
+        evaluator.close();
+    }
+
+    @Test
+    public void testMerge() {
+        ExternalSortFrequencyEvaluator first = newEvaluator(2000);
+        ExternalSortFrequencyEvaluator second = newEvaluator(2000);
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            String value = "value" + i % 700; //$NON-NLS-1$
+            (i % 3 == 0 ? first : second).add(value);
+            expected.merge(value, 1L, Long::sum);
+        }
+        AbstractFrequencyEvaluator merged = first.merge(second);
+        for (Entry<String, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().longValue(), merged.getFrequency(entry.getKey()));
+        }
+        assertEquals(0, merged.getErrorBound());
+        for (File file : spillDirectory.getRoot().listFiles()) {
+            assertTrue(file.getName().endsWith(".run")); //$NON-NLS-1$
+        }
+        first.close();
+        second.close();
+        ((ExternalSortFrequencyEvaluator) merged).close();
+        assertEquals(0, spillDirectory.getRoot().list().length);
+    }
+}
@@ -0,0 +1,93 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.frequency.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FrequencyTableTest {
+
+    @Test
+    public void testSameFrequenciesAsHashMap() {
+        FrequencyTable table = new FrequencyTable();
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String value = random.nextInt(50) == 0 ? null : String.valueOf(random.nextInt(20000));
+            table.add(value, 1);
+            expected.merge(value, 1L, Long::sum);
+        }
+        assertEquals(expected.size(), table.size());
+        for (Entry<String, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().longValue(), table.get(entry.getKey()));
+        }
+        assertEquals(0, table.get("unknown")); //$NON-NLS-1$
+
+        Map<String, Long> visited = new HashMap<>();
+        for (int slot = 0; slot < table.getSlotCount(); slot++) {
+            if (table.isUsed(slot)) {
+                visited.put(table.getValue(slot), table.getFrequency(slot));
+            }
+        }
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    public void testTopK() {
+        FrequencyTable table = new FrequencyTable();
+        Random random = new Random(7);
+        for (int i = 0; i < 50000; i++) {
+            // value n occurs about twice as often as value 2n
+            table.add(String.valueOf((int) Math.pow(2, 14 * random.nextDouble())), 1);
+        }
+        table.add(null, 1);
+        for (int topk : new int[] { 1, 10, 100, table.size(), table.size() + 10, 0 }) {
+            Map<String, Long> topK = table.getTopK(topk);
+            assertEquals(topk <= 0 ? table.size() : Math.min(topk, table.size()), topK.size());
+            List<Long> frequencies = new ArrayList<>(topK.values());
+            for (int i = 1; i < frequencies.size(); i++) {
+                assertTrue(frequencies.get(i - 1) >= frequencies.get(i));
+            }
+            // no value out of the top k is more frequent than the least frequent one in it
+            long minFrequency = frequencies.get(frequencies.size() - 1);
+            for (int slot = 0; slot < table.getSlotCount(); slot++) {
+                if (table.isUsed(slot) && !topK.containsKey(table.getValue(slot))) {
+                    assertTrue(table.getFrequency(slot) <= minFrequency);
+                }
+            }
+        }
+        assertEquals("1", table.getTopK(1).keySet().iterator().next()); //$NON-NLS-1$
+        assertTrue(new FrequencyTable().getTopK(10).isEmpty());
+    }
+
+    @Test
+    public void testInternValues() {
+        FrequencyTable table = new FrequencyTable();
+        table.setInternValues(true);
+        String value = new String("internedValue"); //$NON-NLS-1$
+        table.add(value, 3);
+        table.add("internedValue", 2); //$NON-NLS-1$
+        assertEquals(5, table.get(value));
+        assertSame("internedValue", table.getTopK(1).keySet().iterator().next()); //$NON-NLS-1$
+    }
+}
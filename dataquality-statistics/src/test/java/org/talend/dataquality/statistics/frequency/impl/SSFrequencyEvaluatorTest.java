@@ -0,0 +1,96 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.frequency.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.clearspring.analytics.stream.Counter;
+
+public class SSFrequencyEvaluatorTest {
+
+    private static SSFrequencyEvaluator newEvaluator(int capacity) {
+        SSFrequencyEvaluator evaluator = new SSFrequencyEvaluator();
+        evaluator.setParameters(Collections.singletonMap(SSFrequencyEvaluator.CAPACITY, String.valueOf(capacity)));
+        return evaluator;
+    }
+
+    /**
+     * Every monitored item has the count of its counter, the items dropped by the summary have none.
+     */
+    private static void assertFrequencies(SSFrequencyEvaluator evaluator, Set<String> values) {
+        Set<String> monitored = new HashSet<>();
+        for (Counter<String> counter : evaluator.getStreamSummary().topK(evaluator.getStreamSummary().size())) {
+            assertEquals(counter.getCount(), evaluator.getFrequency(counter.getItem()));
+            monitored.add(counter.getItem());
+        }
+        for (String value : values) {
+            if (!monitored.contains(value)) {
+                assertEquals(0, evaluator.getFrequency(value));
+            }
+        }
+    }
+
+    @Test
+    public void testFrequencyOfDroppedItems() {
+        SSFrequencyEvaluator evaluator = newEvaluator(20);
+        Set<String> values = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            int number = (int) Math.pow(2, 10 * random.nextDouble());
+            String value = random.nextInt(50) == 0 ? null : String.valueOf(number);
+            evaluator.add(value);
+            values.add(value);
+        }
+        assertEquals(20, evaluator.getStreamSummary().size());
+        assertFrequencies(evaluator, values);
+        assertEquals(0, evaluator.getFrequency("not a value")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testFrequencyOfMergedAndDecoded() throws IOException {
+        SSFrequencyEvaluator evaluator = newEvaluator(20);
+        SSFrequencyEvaluator another = newEvaluator(20);
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String value = String.valueOf(i % 30);
+            (i % 3 == 0 ? another : evaluator).add(value);
+            values.add(value);
+        }
+        SSFrequencyEvaluator merged = (SSFrequencyEvaluator) evaluator.merge(another);
+        assertFrequencies(merged, values);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FrequencyEvaluatorCodec.write(merged, new DataOutputStream(bytes));
+        SSFrequencyEvaluator decoded = (SSFrequencyEvaluator) FrequencyEvaluatorCodec
+                .read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertFrequencies(decoded, values);
+        for (String value : values) {
+            assertEquals(merged.getFrequency(value), decoded.getFrequency(value));
+        }
+        // the decoded summary keeps its index up to date
+        decoded.add("0"); //$NON-NLS-1$
+        assertEquals(merged.getFrequency("0") + 1, decoded.getFrequency("0")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -85,6 +85,7 @@ public class CustomDateTimePatternRecognizerTest {
                 put("M/d/yy", 1L);
                 put("MM/dd/yyyy", 1L);
                 put("=d/M/yy=", 1L);
+                put("CCCC", 1L);
 
             }
         };
@@ -95,7 +96,8 @@ public class CustomDateTimePatternRecognizerTest {
 
         List<PatternFrequencyStatistics> statsList = analyzer.getResult();
         PatternFrequencyStatistics stats = statsList.get(0);
-        Map<String, Long> topK = stats.getTopK(10);
+        // all the patterns, the top 10 would be one of several patterns occurring once
+        Map<String, Long> topK = stats.getTopK(EXPECTED_PATTERN_MAP.size());
         assertEquals(EXPECTED_PATTERN_MAP.size(), topK.size());
         for (String key : topK.keySet()) {
             // System.out.println("put(\"" + key + "\", " + topK.get(key) + "L);");
@@ -83,6 +83,23 @@ public class LatinExtendedCharPatternRecognizerTest {
         testDateRecognition(str2Pattern);
     }
 
+    @Test
+    public void testSamePatternsAsCharacterSearch() {
+        LatinExtendedCharPatternRecognizer recognizer = new LatinExtendedCharPatternRecognizer();
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+            int pos = LatinExtendedCharPatternRecognizer.CHARS_TO_REPLACE.indexOf(c);
+            char replacement = pos > -1 ? LatinExtendedCharPatternRecognizer.REPLACEMENT_CHARS.charAt(pos) : c;
+            String expected = String.valueOf(replacement);
+            RecognitionResult result = recognizer.recognize(String.valueOf(c));
+            Assert.assertEquals(Collections.singleton(expected), result.getPatternStringSet());
+            Assert.assertEquals(pos > -1, result.isComplete());
+        }
+        // supplementary characters are kept as they are
+        RecognitionResult result = recognizer.recognize("a\uD835\uDC00\u0100Z9"); //$NON-NLS-1$
+        Assert.assertEquals(Collections.singleton("a\uD835\uDC00\u0100A9"), result.getPatternStringSet()); //$NON-NLS-1$
+        Assert.assertFalse(result.isComplete());
+    }
+
     private void testRecognition(Map<String, String> str2Pattern) {
         LatinExtendedCharPatternRecognizer recognizer = new LatinExtendedCharPatternRecognizer();
         Iterator<String> strIterator = str2Pattern.keySet().iterator();
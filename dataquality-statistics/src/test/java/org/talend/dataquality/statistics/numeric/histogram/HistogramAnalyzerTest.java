@@ -346,4 +346,33 @@ public class HistogramAnalyzerTest {
         }
 
     }
+
+    @Test
+    public void testMerge() {
+        HistogramParameter histogramParameter = new HistogramParameter();
+        histogramParameter.setDefaultParameters(0, 10, 4);
+        HistogramColumnParameter autoRangeParam = new HistogramColumnParameter();
+        autoRangeParam.setParameters(6);
+        histogramParameter.putColumnParameter(1, autoRangeParam);
+        DataTypeEnum[] types = new DataTypeEnum[] { DataTypeEnum.DOUBLE, DataTypeEnum.DOUBLE };
+        HistogramAnalyzer first = createAnalyzer(types, histogramParameter);
+        HistogramAnalyzer second = createAnalyzer(types, histogramParameter);
+        HistogramAnalyzer all = createAnalyzer(types, histogramParameter);
+        for (int i = 0; i < 200; i++) {
+            String[] record = { String.valueOf(i % 12), String.valueOf(i * i - 500) };
+            (i < 50 ? first : second).analyze(record);
+            all.analyze(record);
+        }
+        List<HistogramStatistics> merged = first.merge(second).getResult();
+        for (int i = 0; i < types.length; i++) {
+            Map<Range, Long> expected = all.getResult().get(i).getHistogram();
+            Assert.assertEquals(expected.toString(), merged.get(i).getHistogram().toString());
+            Assert.assertEquals(expected, merged.get(i).getHistogram());
+        }
+        Assert.assertEquals(16, merged.get(0).getCountAboveMax());
+        Assert.assertTrue(merged.get(1).isAutoRange());
+        // the analyzers merged are left unchanged
+        long firstCount = first.getResult().get(1).getHistogram().values().stream().mapToLong(Long::longValue).sum();
+        Assert.assertEquals(50, firstCount);
+    }
 }
@@ -1,5 +1,9 @@
 package org.talend.dataquality.statistics.numeric.histogram;
 
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -69,4 +73,108 @@ public class HistogramStatisticsTest {
             Assert.assertEquals("invalid numBins value :-100 , numBins must be a none zero integer", e.getMessage());
         }
     }
+
+    @Test
+    public void testFixedRangeBoundaries() {
+        HistogramStatistics hs = new HistogramStatistics();
+        hs.setParameters(9d, -0.004d, 3);
+        for (double d : new double[] { -0.004, 2.99, 9, 9.5, -1 }) {
+            hs.add(d);
+        }
+        Long[] counts = hs.getHistogram().values().toArray(new Long[3]);
+        Assert.assertArrayEquals(new Long[] { 2L, 0L, 1L }, counts);
+        Assert.assertEquals(1, hs.getCountBelowMin());
+        Assert.assertEquals(1, hs.getCountAboveMax());
+    }
+
+    @Test
+    public void testAutoRange() {
+        HistogramStatistics hs = new HistogramStatistics();
+        hs.setParameters(10);
+        Assert.assertTrue(hs.isAutoRange());
+        Assert.assertTrue(hs.getHistogram().isEmpty());
+        Random random = new Random(42);
+        double[] values = new double[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -50 + 1000 * random.nextDouble();
+            hs.add(values[i]);
+        }
+        hs.add(Double.POSITIVE_INFINITY);
+        Map<Range, Long> histogram = hs.getHistogram();
+        Assert.assertTrue(histogram.size() >= 5 && histogram.size() <= 10);
+        Assert.assertEquals(1, hs.getCountAboveMax());
+        double previousUpper = Double.NaN;
+        long total = 0;
+        for (Entry<Range, Long> entry : histogram.entrySet()) {
+            Range range = entry.getKey();
+            if (!Double.isNaN(previousUpper)) {
+                Assert.assertEquals(previousUpper, range.getLower(), 0);
+            }
+            previousUpper = range.getUpper();
+            long count = 0;
+            for (double value : values) {
+                if (value >= range.getLower() && (value < range.getUpper() || value == previousUpper)) {
+                    count++;
+                }
+            }
+            Assert.assertEquals(count, entry.getValue().longValue());
+            total += count;
+        }
+        Assert.assertEquals(values.length, total);
+    }
+
+    @Test
+    public void testAutoRangeConstantValue() {
+        HistogramStatistics hs = new HistogramStatistics();
+        hs.setParameters(4);
+        hs.add(5);
+        hs.add(5);
+        Map<Range, Long> histogram = hs.getHistogram();
+        Assert.assertEquals(1, histogram.size());
+        Range range = histogram.keySet().iterator().next();
+        Assert.assertEquals(5, range.getLower(), 0);
+        Assert.assertEquals(5, range.getUpper(), 0);
+        Assert.assertEquals(2, histogram.get(range).longValue());
+
+        // from a tiny width to a very large one
+        hs.add(0);
+        hs.add(-1e300);
+        Assert.assertEquals(4, hs.getHistogram().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    public void testMergeAutoRange() {
+        HistogramStatistics first = new HistogramStatistics();
+        HistogramStatistics second = new HistogramStatistics();
+        HistogramStatistics all = new HistogramStatistics();
+        first.setParameters(8);
+        second.setParameters(8);
+        all.setParameters(8);
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            double value = 1000 * random.nextGaussian();
+            // partitions of very different ranges
+            (value < 10 ? first : second).add(value);
+            all.add(value);
+        }
+        HistogramStatistics merged = new HistogramStatistics();
+        merged.merge(first);
+        merged.merge(second);
+        Assert.assertEquals(all.getHistogram(), merged.getHistogram());
+        Assert.assertEquals(all.getHistogram().toString(), merged.getHistogram().toString());
+
+        HistogramStatistics empty = new HistogramStatistics();
+        empty.setParameters(8);
+        empty.merge(all);
+        Assert.assertEquals(all.getHistogram().toString(), empty.getHistogram().toString());
+    }
+
+    @Test(expected = DQStatisticsRuntimeException.class)
+    public void testMergeDifferentRanges() {
+        HistogramStatistics first = new HistogramStatistics();
+        HistogramStatistics second = new HistogramStatistics();
+        first.setParameters(10d, 0d, 5);
+        second.setParameters(20d, 0d, 5);
+        first.merge(second);
+    }
 }
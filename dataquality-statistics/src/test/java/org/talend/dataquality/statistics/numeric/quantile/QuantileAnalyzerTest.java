@@ -12,10 +12,15 @@
 // ============================================================================
 package org.talend.dataquality.statistics.numeric.quantile;
 
+import org.talend.dataquality.common.inference.AnalyzerCheckpoint;
+import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -178,4 +183,90 @@ public class QuantileAnalyzerTest {
         return null;
     }
 
+    @Test
+    public void testTDigestCheckpointAndResume() throws IOException {
+        TDigestAnalyzer uninterrupted = new TDigestAnalyzer(new DataTypeEnum[] { DataTypeEnum.INTEGER });
+        uninterrupted.init();
+        for (int i = 1; i <= 9; i++) {
+            uninterrupted.analyze(String.valueOf(i));
+        }
+        TDigestAnalyzer analyzer = new TDigestAnalyzer(new DataTypeEnum[] { DataTypeEnum.INTEGER });
+        analyzer.init();
+        for (int i = 1; i <= 5; i++) {
+            analyzer.analyze(String.valueOf(i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.write(out, analyzer.getResult(), new TDigestQuantileStatisticsCodec());
+
+        TDigestAnalyzer resumed = new TDigestAnalyzer(new DataTypeEnum[] { DataTypeEnum.INTEGER });
+        resumed.init();
+        resumed.init(new Integer[] { 100 });
+        resumed.getResult().addAll(AnalyzerCheckpoint.read(new ByteArrayInputStream(out.toByteArray()),
+                new TDigestQuantileStatisticsCodec()));
+        for (int i = 6; i <= 9; i++) {
+            resumed.analyze(String.valueOf(i));
+        }
+        Assert.assertEquals(uninterrupted.getResult().get(0).getMedian(), resumed.getResult().get(0).getMedian(),
+                0.0);
+    }
+
+    @Test
+    public void testSameQuantilesAsPercentile() {
+        Random random = new Random(42);
+        for (int size : new int[] { 1, 2, 3, 10, 101, 5000 }) {
+            QuantileStatistics stats = new QuantileStatistics();
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                // many duplicates
+                values[i] = random.nextInt(size / 3 + 1) - size / 6;
+                stats.add(values[i]);
+            }
+            Percentile percentile = new Percentile();
+            percentile.setData(values);
+            for (double p : new double[] { 0.001, 0.1, 0.25, 0.3, 0.5, 0.75, 0.9, 0.999, 1 }) {
+                Assert.assertEquals(percentile.evaluate(p * 100), stats.getQuantile(p), 0);
+            }
+        }
+        Assert.assertTrue(Double.isNaN(new QuantileStatistics().getMedian()));
+    }
+
+    @Test
+    public void testMerge() {
+        DataTypeEnum[] types = new DataTypeEnum[] { DataTypeEnum.DOUBLE, DataTypeEnum.STRING };
+        QuantileAnalyzer first = new QuantileAnalyzer(types);
+        QuantileAnalyzer second = new QuantileAnalyzer(types);
+        QuantileAnalyzer all = new QuantileAnalyzer(types);
+        TDigestAnalyzer firstDigest = new TDigestAnalyzer(types);
+        TDigestAnalyzer secondDigest = new TDigestAnalyzer(types);
+        List<Analyzer<?>> analyzers = new ArrayList<Analyzer<?>>();
+        analyzers.add(first);
+        analyzers.add(second);
+        analyzers.add(all);
+        analyzers.add(firstDigest);
+        analyzers.add(secondDigest);
+        analyzers.forEach(Analyzer::init);
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            double value = random.nextGaussian() * 100 + (i % 2 == 0 ? 0 : 500);
+            String[] record = { String.valueOf(value), "a" }; //$NON-NLS-1$
+            // partitions of different distributions
+            (i % 2 == 0 ? first : second).analyze(record);
+            (i % 2 == 0 ? firstDigest : secondDigest).analyze(record);
+            all.analyze(record);
+        }
+        analyzers.forEach(Analyzer::end);
+        QuantileStatistics merged = first.merge(second).getResult().get(0);
+        TDigestQuantileStatistics mergedDigest = firstDigest.merge(secondDigest).getResult().get(0);
+        QuantileStatistics expected = all.getResult().get(0);
+        Assert.assertEquals(20000, merged.getCount());
+        Assert.assertEquals(10000, first.getResult().get(0).getCount());
+        for (double p : new double[] { 0.01, 0.25, 0.5, 0.75, 0.99 }) {
+            Assert.assertEquals(expected.getQuantile(p), merged.getQuantile(p), 0);
+            // the rank of the estimated quantile is within 1% of the exact one
+            double estimate = mergedDigest.getQuantile(p);
+            Assert.assertTrue(estimate >= expected.getQuantile(Math.max(p - 0.01, 0.001)));
+            Assert.assertTrue(estimate <= expected.getQuantile(Math.min(p + 0.01, 1)));
+        }
+        Assert.assertEquals(0, first.merge(second).getResult().get(1).getCount());
+    }
 }
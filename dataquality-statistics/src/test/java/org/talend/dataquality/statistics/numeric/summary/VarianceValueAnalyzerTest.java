@@ -13,6 +13,10 @@
 package org.talend.dataquality.statistics.numeric.summary;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
 
 import org.junit.After;
 import org.junit.Before;
@@ -61,4 +65,52 @@ public class VarianceValueAnalyzerTest {
 
     }
 
+    @Test
+    public void testMerge() {
+        DataTypeEnum[] types = new DataTypeEnum[] { DataTypeEnum.DOUBLE, DataTypeEnum.DOUBLE, DataTypeEnum.STRING };
+        SummaryAnalyzer all = new SummaryAnalyzer(types);
+        SummaryAnalyzer[] partitions = new SummaryAnalyzer[4];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new SummaryAnalyzer(types);
+            partitions[i].init();
+        }
+        all.init();
+        double[] values = new double[10000];
+        Random random = new Random(42);
+        for (int i = 0; i < values.length; i++) {
+            // a large offset and a small spread, partitions of different means
+            values[i] = Double.parseDouble(String.valueOf(1e9 + i / 2500 + random.nextGaussian()));
+            String[] record = { String.valueOf(values[i]), String.valueOf(i % 7), "a" }; //$NON-NLS-1$
+            partitions[i / 2500].analyze(record);
+            all.analyze(record);
+        }
+        SummaryAnalyzer merged = (SummaryAnalyzer) partitions[0].merge(partitions[1]);
+        merged = (SummaryAnalyzer) merged.merge(partitions[2].merge(partitions[3]));
+        List<SummaryStatistics> mergedStats = merged.getResult();
+        for (int i = 0; i < 2; i++) {
+            SummaryStatistics single = all.getResult().get(i);
+            assertEquals(single.getCount(), mergedStats.get(i).getCount());
+            assertEquals(single.getMin(), mergedStats.get(i).getMin(), 0);
+            assertEquals(single.getMax(), mergedStats.get(i).getMax(), 0);
+            assertEquals(single.getMean(), mergedStats.get(i).getMean(), 1e-5);
+            assertEquals(single.getVariance(), mergedStats.get(i).getVariance(), single.getVariance() * 1e-5);
+            assertEquals(single.getSum(), mergedStats.get(i).getSum(), Math.abs(single.getSum()) * 1e-12);
+        }
+        // two pass variance, the sum of the squares minus the squared sum would lose all the digits
+        double mean = 0;
+        for (double value : values) {
+            mean += (value - 1e9) / values.length;
+        }
+        mean += 1e9;
+        double variance = 0;
+        for (double value : values) {
+            variance += (value - mean) * (value - mean) / (values.length - 1);
+        }
+        assertEquals(mean, mergedStats.get(0).getMean(), 1e-5);
+        assertEquals(variance, mergedStats.get(0).getVariance(), variance * 1e-5);
+        assertEquals(2500, partitions[0].getResult().get(0).getCount());
+        assertTrue(Double.isNaN(mergedStats.get(2).getMean()));
+        assertTrue(Double.isNaN(mergedStats.get(2).getVariance()));
+    }
+
 }
@@ -12,6 +12,12 @@
 // ============================================================================
 package org.talend.dataquality.statistics.type;
 
+import org.talend.dataquality.common.inference.AnalyzerCheckpoint;
+import java.util.List;
+import java.util.Arrays;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import static org.junit.Assert.assertEquals;
 import static org.talend.dataquality.statistics.type.DataTypeEnum.BOOLEAN;
 import static org.talend.dataquality.statistics.type.DataTypeEnum.DATE;
@@ -327,4 +333,26 @@ public class DataTypeOccurencesTest {
         // then
         assertEquals(STRING, suggestedType);
     }
+
+    @Test
+    public void testCheckpointRoundTrip() throws IOException {
+        // given
+        DataTypeOccurences typeOccurrences = new DataTypeOccurences();
+        typeOccurrences.increment(INTEGER);
+        typeOccurrences.increment(INTEGER);
+        typeOccurrences.increment(DATE);
+
+        // when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalyzerCheckpoint.write(out, Arrays.asList(typeOccurrences, new DataTypeOccurences()),
+                new DataTypeOccurencesCodec());
+        List<DataTypeOccurences> restored = AnalyzerCheckpoint.read(new ByteArrayInputStream(out.toByteArray()),
+                new DataTypeOccurencesCodec());
+
+        // then
+        assertEquals(2, restored.size());
+        assertEquals(typeOccurrences.getTypeFrequencies(), restored.get(0).getTypeFrequencies());
+        assertEquals(INTEGER, restored.get(0).getSuggestedType());
+        assertEquals(0, restored.get(1).getTypeFrequencies().size());
+    }
 }
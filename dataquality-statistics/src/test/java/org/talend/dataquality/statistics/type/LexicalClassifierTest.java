@@ -0,0 +1,177 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2016 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.dataquality.statistics.type;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.talend.daikon.number.BigDecimalParser;
+import org.talend.dataquality.statistics.type.LexicalClassifier.LexicalClass;
+
+public class LexicalClassifierTest {
+
+    // the regexes formerly used by TypeInferenceUtils
+    private static final Pattern PATTERN_INTEGER = Pattern.compile("^(\\+|-)?\\d+$");
+
+    private static final Pattern PATTERN_DOUBLE = Pattern.compile("^[-+]?"// Positive/Negative sign
+            + "("// BEGIN Decimal part
+            + "[0-9]+([,\\.][0-9]+)?|"// Alternative I (w/o grouped integer part)
+            + "(" // BEGIN Alternative II (with grouped integer part)
+            + "[0-9]{1,3}" // starting digits
+            + "(" // BEGIN grouped part
+            + "((,[0-9]{3})*"// US integer part
+            + "(\\.[0-9]+)?"// US float part
+            + "|" // OR
+            + "((\\.[0-9]{3})*|([ \u00A0\u2007\u202F][0-9]{3})*)"// EU integer part
+            + "(,[0-9]+)?)"// EU float part
+            + ")"// END grouped part
+            + ")" // END Alternative II
+            + ")" // END Decimal part
+            + "([ ]?[eE][-+]?[0-9]+)?" // scientific part
+            + "([ ]?%)?$"); // percentage part
+
+    private static final char[] ALPHABET = { '0', '1', '5', ',', '.', ' ', '\u00A0', '\u202F', 'e', 'E', '+', '-', '%',
+            'x', '\u0663' };
+
+    @Test
+    public void testSameNumbersAsRegexesOnAllShortValues() {
+        char[] chars = new char[5];
+        for (int length = 1; length <= chars.length; length++) {
+            int combinations = (int) Math.pow(ALPHABET.length, length);
+            for (int n = 0; n < combinations; n++) {
+                int remaining = n;
+                for (int i = 0; i < length; i++) {
+                    chars[i] = ALPHABET[remaining % ALPHABET.length];
+                    remaining /= ALPHABET.length;
+                }
+                assertSameAsRegexes(new String(chars, 0, length));
+            }
+        }
+    }
+
+    @Test
+    public void testSameNumbersAsRegexesOnRandomValues() {
+        Random random = new Random(12345);
+        String[] tokens = { "0", "7", "12", "123", "1234", "98765", ",", ".", " ", "\u00A0", "\u2007", "e", "E-",
+                "e+", "%", " %", "-", "+", "a" };
+        for (int n = 0; n < 200000; n++) {
+            StringBuilder value = new StringBuilder();
+            int tokenCount = 1 + random.nextInt(8);
+            for (int i = 0; i < tokenCount; i++) {
+                value.append(tokens[random.nextInt(tokens.length)]);
+            }
+            assertSameAsRegexes(value.toString());
+        }
+    }
+
+    @Test
+    public void testGroupedNumbers() {
+        String[] doubles = { "1,234,567.89", "1.234.567,89", "1 234 567,89", "12\u00A0345\u2007678", "-1,234e5 %",
+                "+1 e-4", "3 %" };
+        for (String value : doubles) {
+            assertEquals(value, LexicalClass.DOUBLE, LexicalClassifier.classify(value));
+        }
+        String[] notNumbers = { "1,234.567,89", "1 234.5", "1234,567,890", "1.5.3", "100 e", "100%%", "10,,2",
+                "1e5e5" };
+        for (String value : notNumbers) {
+            assertEquals(value, LexicalClass.MAYBE_TEMPORAL, LexicalClassifier.classify(value));
+        }
+    }
+
+    @Test
+    public void testClassify() {
+        assertEquals(LexicalClass.EMPTY, LexicalClassifier.classify(null));
+        assertEquals(LexicalClass.EMPTY, LexicalClassifier.classify(""));
+        assertEquals(LexicalClass.EMPTY, LexicalClassifier.classify(" \t\n"));
+        assertEquals(LexicalClass.BOOLEAN, LexicalClassifier.classify("TRUE"));
+        assertEquals(LexicalClass.BOOLEAN, LexicalClassifier.classify("False"));
+        assertEquals(LexicalClass.TEXT, LexicalClassifier.classify("truth"));
+        assertEquals(LexicalClass.TEXT, LexicalClassifier.classify(" true"));
+        assertEquals(LexicalClass.INTEGER, LexicalClassifier.classify("-42"));
+        assertEquals(LexicalClass.DOUBLE, LexicalClassifier.classify("4.2"));
+        assertEquals(LexicalClass.TEXT, LexicalClassifier.classify("Route 66"));
+        assertEquals(LexicalClass.MAYBE_TEMPORAL, LexicalClassifier.classify("2017-08-24"));
+        assertEquals(LexicalClass.MAYBE_TEMPORAL, LexicalClassifier.classify("12:30 PM"));
+    }
+
+    @Test
+    public void testGetDataTypeWithCustomPatternOnText() {
+        assertEquals(DataTypeEnum.STRING, TypeInferenceUtils.getDataType("Jan-Feb"));
+        assertEquals(DataTypeEnum.DATE,
+                TypeInferenceUtils.getDataType("5 PM", Collections.singletonList("h a")));
+    }
+
+    @Test
+    public void testSameDoublesAsBigDecimalParser() {
+        String[] values = { "0", "-0", "007", "3.25", "-3,25", "1,234", "1,2345", "1.234", "1,234,567.89",
+                "1.234.567,89", "1 234 567,89", "12\u00A0345", "-1,234e5 %", "+1 e-4", "3 %", "12.5%", "1e22",
+                "4.9e-324", "123456789012345678901234567890", "0.1234567890123456789", "1E+400", "1,5e-3",
+                "9007199254740993" };
+        for (String value : values) {
+            assertSameAsBigDecimalParser(value);
+        }
+        Random random = new Random(54321);
+        String[] tokens = { "0", "7", "12", "123", "1234", "98765", ",", ".", " ", "\u00A0", "\u2007", "%", " %", "-",
+                "+", "a" };
+        String[] exponents = { "e", "E-", "e+", "e3", "E-22", "e+308", "e-330", "e%", "e-4 %" };
+        for (int n = 0; n < 200000; n++) {
+            StringBuilder value = new StringBuilder();
+            int tokenCount = 1 + random.nextInt(8);
+            for (int i = 0; i < tokenCount; i++) {
+                value.append(tokens[random.nextInt(tokens.length)]);
+            }
+            // a single short exponent, the reference parser is too slow with huge ones
+            if (random.nextInt(4) == 0) {
+                value.append(exponents[random.nextInt(exponents.length)]);
+            }
+            assertSameAsBigDecimalParser(value.toString());
+        }
+        // not supported by the BigDecimalParser
+        assertTrue(Double.isNaN(LexicalClassifier.parseDouble("12\u2007345"))); //$NON-NLS-1$
+        assertNull(TypeInferenceUtils.getDouble("12\u2007345")); //$NON-NLS-1$
+        // supported by the BigDecimalParser only
+        assertTrue(Double.isNaN(LexicalClassifier.parseDouble("(12)"))); //$NON-NLS-1$
+        assertEquals(-12, TypeInferenceUtils.getDouble("(12)"), 0); //$NON-NLS-1$
+        assertNull(TypeInferenceUtils.getDouble("twelve")); //$NON-NLS-1$
+    }
+
+    private static void assertSameAsBigDecimalParser(String value) {
+        Double expected;
+        try {
+            expected = BigDecimalParser.toBigDecimal(value).doubleValue();
+        } catch (NumberFormatException e) {
+            expected = null;
+        }
+        double parsed = LexicalClassifier.parseDouble(value);
+        if (!Double.isNaN(parsed)) {
+            assertEquals("'" + value + "'", expected, Double.valueOf(parsed));
+        }
+        assertEquals("'" + value + "'", expected, TypeInferenceUtils.getDouble(value));
+    }
+
+    private static void assertSameAsRegexes(String value) {
+        LexicalClass expected = null;
+        if (PATTERN_INTEGER.matcher(value).matches()) {
+            expected = LexicalClass.INTEGER;
+        } else if (PATTERN_DOUBLE.matcher(value).matches()) {
+            expected = LexicalClass.DOUBLE;
+        }
+        assertEquals("'" + value + "'", expected, LexicalClassifier.scanNumber(value));
+    }
+}
@@ -28,6 +28,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.talend.dataquality.common.inference.CellParseContext;
 
 /**
  * created by talend on 2015-07-28 Detailled comment.
@@ -231,6 +232,23 @@ public class TypeInferenceUtilsTest {
         assertTrue(TypeInferenceUtils.isDate(dateStr));
     }
 
+    @Test
+    public void testGetDoubleWithParseContext() {
+        CellParseContext context = new CellParseContext();
+        String[] values = { "12", "-1,234.5", "12.5%", "1e400", "12345678901234567890", "12\u2007345", "(12)", "abc",
+                "" };
+        for (String value : values) {
+            // validated then converted in the same scan
+            Assert.assertEquals(value, TypeInferenceUtils.isDouble(value),
+                    TypeInferenceUtils.isValid(context, 0, DataTypeEnum.DOUBLE, value));
+            Assert.assertEquals(value, TypeInferenceUtils.getDouble(value),
+                    TypeInferenceUtils.getDouble(context, 0, value));
+            // converted without validation
+            Assert.assertEquals(value, TypeInferenceUtils.getDouble(value),
+                    TypeInferenceUtils.getDouble(context, 1, value));
+        }
+    }
+
     private List<String> loadData(String path) throws IOException {
         List<String> values = IOUtils.readLines(this.getClass().getResourceAsStream(path), "UTF-8");
         return values;